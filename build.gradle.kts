@@ -2,6 +2,7 @@ plugins {
     java
     id("org.springframework.boot") version "3.5.4"
     id("io.spring.dependency-management") version "1.1.7"
+    id("me.champeau.jmh") version "0.7.3"
 }
 
 group = "com.github.zmancometh90"
@@ -20,8 +21,18 @@ repositories {
 dependencies {
     implementation("org.springframework.boot:spring-boot-starter-actuator")
     implementation("org.springframework.boot:spring-boot-starter-web")
+    implementation("org.springframework.boot:spring-boot-starter-websocket")
     implementation("org.springframework.boot:spring-boot-starter-data-jpa")
     implementation("org.springframework.boot:spring-boot-starter-security")
+    implementation("org.springframework.boot:spring-boot-starter-cache")
+    implementation("org.springframework.boot:spring-boot-starter-aop")
+    implementation("org.flywaydb:flyway-core")
+    implementation("org.hibernate.orm:hibernate-jcache")
+    implementation("org.hibernate.orm:hibernate-micrometer")
+    implementation("org.ehcache:ehcache::jakarta")
+    implementation("net.ttddyy:datasource-proxy:1.10.1")
+    runtimeOnly("org.glassfish.jaxb:jaxb-runtime")
+    runtimeOnly("io.micrometer:micrometer-registry-prometheus")
     developmentOnly("org.springframework.boot:spring-boot-devtools")
     testImplementation("org.springframework.boot:spring-boot-starter-test")
     testImplementation("org.springframework.security:spring-security-test")
@@ -34,3 +45,14 @@ dependencies {
 tasks.withType<Test> {
     useJUnitPlatform()
 }
+
+// JMH benchmarks in src/jmh: ./gradlew jmh, results in build/results/jmh
+jmh {
+    jmhVersion = "1.37"
+    benchmarkMode = listOf("thrpt")
+    profilers = listOf("gc")
+    fork = 1
+    warmupIterations = 3
+    iterations = 5
+    resultFormat = "JSON"
+}
@@ -0,0 +1,135 @@
+package com.github.zmancometh90.familyhub.benchmark;
+
+import com.github.zmancometh90.familyhub.models.Chore;
+import com.github.zmancometh90.familyhub.models.Event;
+import com.github.zmancometh90.familyhub.models.FavoriteItem;
+import com.github.zmancometh90.familyhub.models.GroceryItem;
+import com.github.zmancometh90.familyhub.models.User;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Detached entities for a household of {@value #MEMBERS} users, and repository stubs answering from
+ * them. Entities reference the users round-robin, as a real household would.
+ */
+final class BenchmarkFixtures {
+
+    static final int MEMBERS = 4;
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 6, 1, 12, 0);
+
+    final List<User> users = new ArrayList<>();
+    final Map<UUID, User> usersById;
+
+    BenchmarkFixtures() {
+        for (int i = 0; i < MEMBERS; i++) {
+            User user = new User("member" + i, "{noop}password", "Member " + i,
+                    i == 0 ? User.Role.ADMIN : User.Role.BASIC_USER);
+            user.setId(UUID.randomUUID());
+            user.setCreatedAt(NOW);
+            users.add(user);
+        }
+        Map<UUID, User> byId = new HashMap<>();
+        users.forEach(user -> byId.put(user.getId(), user));
+        usersById = byId;
+    }
+
+    List<Chore> chores(int count) {
+        List<Chore> chores = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Chore chore = new Chore("Chore " + i, "Take out the recycling and wipe the bins", member(i));
+            chore.setId(UUID.randomUUID());
+            chore.setAssignedTo(member(i + 1));
+            chore.setDueDate(LocalDate.of(2025, 6, 1).plusDays(i % 30));
+            chore.setStatus(Chore.ChoreStatus.PENDING);
+            chore.setPriority(Chore.ChorePriority.MEDIUM);
+            chore.setCreatedAt(NOW);
+            chores.add(chore);
+        }
+        return chores;
+    }
+
+    List<Event> events(int count) {
+        List<Event> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Event event = new Event("Event " + i, "Dinner at the grandparents'", NOW.plusHours(i),
+                    NOW.plusHours(i + 2), member(i));
+            event.setId(UUID.randomUUID());
+            event.setLocation("Home");
+            event.setEventType(Event.EventType.BIRTHDAY);
+            event.setStatus(Event.EventStatus.PLANNED);
+            Set<User> attendees = new HashSet<>(users.subList(0, 1 + i % MEMBERS));
+            event.setAttendees(attendees);
+            event.setCreatedAt(NOW);
+            events.add(event);
+        }
+        return events;
+    }
+
+    List<GroceryItem> groceryItems(int count) {
+        List<GroceryItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            GroceryItem item = new GroceryItem("Item " + i, "Produce", 1 + i % 5, member(i));
+            item.setId(UUID.randomUUID());
+            item.setDescription("Organic if available");
+            if (i % 3 == 0) {
+                item.setCompletedBy(member(i + 1));
+            }
+            item.setCreatedAt(NOW);
+            items.add(item);
+        }
+        return items;
+    }
+
+    List<FavoriteItem> favoriteItems(int count) {
+        List<FavoriteItem> favorites = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            FavoriteItem favorite = new FavoriteItem("Favorite " + i, "Pantry", 1 + i % 3, users.getFirst());
+            favorite.setId(UUID.randomUUID());
+            favorite.setCreatedAt(NOW);
+            favorites.add(favorite);
+        }
+        return favorites;
+    }
+
+    Optional<User> findUser(Object id) {
+        return Optional.ofNullable(usersById.get((UUID) id));
+    }
+
+    private User member(int i) {
+        return users.get(i % MEMBERS);
+    }
+
+    /**
+     * A repository whose listed methods answer from the fixtures; any other method fails, so a
+     * mapping that starts touching a new query shows up instead of silently returning null.
+     */
+    @SuppressWarnings("unchecked")
+    static <R> R stub(Class<R> repository, Map<String, Function<Object[], Object>> answers) {
+        return (R) Proxy.newProxyInstance(repository.getClassLoader(), new Class<?>[]{repository},
+                (proxy, method, args) -> {
+                    Function<Object[], Object> answer = answers.get(method.getName());
+                    if (answer != null) {
+                        return answer.apply(args);
+                    }
+                    if (method.getDeclaringClass() == Object.class) {
+                        return switch (method.getName()) {
+                            case "hashCode" -> System.identityHashCode(proxy);
+                            case "equals" -> proxy == args[0];
+                            default -> repository.getSimpleName() + " stub";
+                        };
+                    }
+                    throw new UnsupportedOperationException(repository.getSimpleName() + "." + method.getName());
+                });
+    }
+}
@@ -0,0 +1,88 @@
+package com.github.zmancometh90.familyhub.benchmark;
+
+import com.github.zmancometh90.familyhub.diagnostics.DtoMappingEvent;
+import com.github.zmancometh90.familyhub.models.Chore;
+import com.github.zmancometh90.familyhub.models.ChoreDTO;
+import com.github.zmancometh90.familyhub.models.EventDTO;
+import com.github.zmancometh90.familyhub.models.FavoriteItemDTO;
+import com.github.zmancometh90.familyhub.models.GroceryItemDTO;
+import com.github.zmancometh90.familyhub.repository.EventRepository;
+import com.github.zmancometh90.familyhub.repository.FavoriteItemRepository;
+import com.github.zmancometh90.familyhub.repository.GroceryItemRepository;
+import com.github.zmancometh90.familyhub.repository.UserRepository;
+import com.github.zmancometh90.familyhub.service.EventService;
+import com.github.zmancometh90.familyhub.service.FavoriteItemService;
+import com.github.zmancometh90.familyhub.service.GroceryService;
+import com.github.zmancometh90.familyhub.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Entity to DTO mapping as the list endpoints do it, through the public service methods. The
+ * repositories are stubs holding detached entities, so this measures the mapping and the per-row
+ * {@code UserService.findUserById} lookups, not the database. Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+public class DtoMappingBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    int size;
+
+    private List<Chore> chores;
+    private EventService eventService;
+    private GroceryService groceryService;
+    private FavoriteItemService favoriteItemService;
+    private UUID favoritesOwnerId;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures fixtures = new BenchmarkFixtures();
+        chores = fixtures.chores(size);
+        var events = fixtures.events(size);
+        var groceryItems = fixtures.groceryItems(size);
+        var favoriteItems = fixtures.favoriteItems(size);
+        favoritesOwnerId = fixtures.users.getFirst().getId();
+
+        UserRepository userRepository = BenchmarkFixtures.stub(UserRepository.class,
+                Map.of("findById", args -> fixtures.findUser(args[0])));
+        UserService userService = new UserService(userRepository, null, null);
+
+        eventService = new EventService(
+                BenchmarkFixtures.stub(EventRepository.class, Map.of("findAll", args -> events)),
+                userRepository, userService, null, null);
+        groceryService = new GroceryService(
+                BenchmarkFixtures.stub(GroceryItemRepository.class, Map.of("findAll", args -> groceryItems)),
+                null, userRepository, userService, null, null, null, null, null);
+        favoriteItemService = new FavoriteItemService(
+                BenchmarkFixtures.stub(FavoriteItemRepository.class, Map.of("findByUserOrderByNameAsc", args -> favoriteItems)),
+                userRepository, userService, null);
+    }
+
+    @Benchmark
+    public List<ChoreDTO> chores() {
+        // What ChoreService.getAllChores does with the rows
+        return DtoMappingEvent.mapAll(chores, ChoreDTO::new);
+    }
+
+    @Benchmark
+    public List<EventDTO> events() {
+        return eventService.getAllEvents();
+    }
+
+    @Benchmark
+    public List<GroceryItemDTO> groceryItems() {
+        return groceryService.getAllGroceryItems();
+    }
+
+    @Benchmark
+    public List<FavoriteItemDTO> favoriteItems() {
+        return favoriteItemService.getUserFavoriteItems(favoritesOwnerId);
+    }
+}
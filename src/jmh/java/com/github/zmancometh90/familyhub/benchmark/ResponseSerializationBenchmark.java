@@ -0,0 +1,101 @@
+package com.github.zmancometh90.familyhub.benchmark;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.zmancometh90.familyhub.models.ApiResponse;
+import com.github.zmancometh90.familyhub.models.ChoreDTO;
+import com.github.zmancometh90.familyhub.models.EventDTO;
+import com.github.zmancometh90.familyhub.models.FavoriteItemDTO;
+import com.github.zmancometh90.familyhub.models.GroceryItemDTO;
+import com.github.zmancometh90.familyhub.repository.EventRepository;
+import com.github.zmancometh90.familyhub.repository.FavoriteItemRepository;
+import com.github.zmancometh90.familyhub.repository.GroceryItemRepository;
+import com.github.zmancometh90.familyhub.repository.UserRepository;
+import com.github.zmancometh90.familyhub.service.EventService;
+import com.github.zmancometh90.familyhub.service.FavoriteItemService;
+import com.github.zmancometh90.familyhub.service.GroceryService;
+import com.github.zmancometh90.familyhub.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Jackson serialization of the {@code ApiResponse<List<...DTO>>} bodies the list endpoints return,
+ * with the same mapper settings Spring Boot applies. Output goes to a null stream so buffer growth
+ * is not part of the measurement. Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+public class ResponseSerializationBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    int size;
+
+    private final OutputStream sink = OutputStream.nullOutputStream();
+    private ObjectMapper objectMapper;
+    private ApiResponse<List<ChoreDTO>> chores;
+    private ApiResponse<List<EventDTO>> events;
+    private ApiResponse<List<GroceryItemDTO>> groceryItems;
+    private ApiResponse<List<FavoriteItemDTO>> favoriteItems;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS,
+                        // The sink is reused across invocations, so it must stay open
+                        JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .build();
+
+        BenchmarkFixtures fixtures = new BenchmarkFixtures();
+        var eventRows = fixtures.events(size);
+        var groceryRows = fixtures.groceryItems(size);
+        var favoriteRows = fixtures.favoriteItems(size);
+        UserRepository userRepository = BenchmarkFixtures.stub(UserRepository.class,
+                Map.of("findById", args -> fixtures.findUser(args[0])));
+        UserService userService = new UserService(userRepository, null, null);
+
+        chores = response(fixtures.chores(size).stream().map(ChoreDTO::new).toList());
+        events = response(new EventService(
+                BenchmarkFixtures.stub(EventRepository.class, Map.of("findAll", args -> eventRows)),
+                userRepository, userService, null, null).getAllEvents());
+        groceryItems = response(new GroceryService(
+                BenchmarkFixtures.stub(GroceryItemRepository.class, Map.of("findAll", args -> groceryRows)),
+                null, userRepository, userService, null, null, null, null, null).getAllGroceryItems());
+        favoriteItems = response(new FavoriteItemService(
+                BenchmarkFixtures.stub(FavoriteItemRepository.class, Map.of("findByUserOrderByNameAsc", args -> favoriteRows)),
+                userRepository, userService, null).getUserFavoriteItems(fixtures.users.getFirst().getId()));
+    }
+
+    @Benchmark
+    public void chores() throws IOException {
+        objectMapper.writeValue(sink, chores);
+    }
+
+    @Benchmark
+    public void events() throws IOException {
+        objectMapper.writeValue(sink, events);
+    }
+
+    @Benchmark
+    public void groceryItems() throws IOException {
+        objectMapper.writeValue(sink, groceryItems);
+    }
+
+    @Benchmark
+    public void favoriteItems() throws IOException {
+        objectMapper.writeValue(sink, favoriteItems);
+    }
+
+    private static <T> ApiResponse<T> response(T data) {
+        return new ApiResponse<>(true, "Retrieved successfully", data, Instant.now());
+    }
+}
@@ -0,0 +1,97 @@
+package com.github.zmancometh90.familyhub.benchmark;
+
+import com.github.zmancometh90.familyhub.FamilyHubApplication;
+import com.github.zmancometh90.familyhub.models.GroceryItem;
+import com.github.zmancometh90.familyhub.models.User;
+import com.github.zmancometh90.familyhub.repository.GroceryItemRepository;
+import com.github.zmancometh90.familyhub.repository.UserRepository;
+import com.github.zmancometh90.familyhub.security.HouseholdContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Random against time-ordered UUID primary keys on a file-backed H2 database set up like the
+ * production one: insert throughput, and the size of the database file once the trial is done,
+ * which is logged. Items are saved through the repository, so every id comes from
+ * {@code FamilyHubUuidGenerator} with the strategy under test. Each operation commits one batch,
+ * and the table keeps growing across iterations as it would in use. Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+public class UuidInsertBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(UuidInsertBenchmark.class);
+    private static final int BATCH_SIZE = 1_000;
+
+    @Param({"random", "time-ordered"})
+    String strategy;
+
+    private Path dataDir;
+    private ConfigurableApplicationContext context;
+    private GroceryItemRepository groceryItemRepository;
+    private TransactionTemplate transactionTemplate;
+    private User owner;
+    private long inserted;
+
+    @Setup
+    public void setUp() throws IOException {
+        dataDir = Files.createTempDirectory("familyhub-uuid-" + strategy);
+        context = new SpringApplicationBuilder(FamilyHubApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:file:" + dataDir.resolve("hub").toAbsolutePath() + ";MODE=PostgreSQL",
+                        "spring.jpa.properties.familyhub.uuid-strategy=" + strategy,
+                        "familyhub.diagnostics.slow-query.enabled=false")
+                .run();
+        groceryItemRepository = context.getBean(GroceryItemRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        owner = HouseholdContext.callAsRoot(() -> userRepository.findByUsername("admin").orElseThrow());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        log.info("{} UUIDs: {} rows, {} MiB on disk", strategy, inserted,
+                String.format("%.1f", databaseBytes() / (1024.0 * 1024.0)));
+        FileSystemUtils.deleteRecursively(dataDir);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void insert() {
+        HouseholdContext.runAsRoot(() -> transactionTemplate.executeWithoutResult(status -> {
+            List<GroceryItem> items = new ArrayList<>(BATCH_SIZE);
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                items.add(new GroceryItem("Item " + inserted++, "Benchmark", 1 + i % 10, owner));
+            }
+            groceryItemRepository.saveAll(items);
+        }));
+    }
+
+    private long databaseBytes() throws IOException {
+        try (Stream<Path> files = Files.walk(dataDir)) {
+            return files.filter(Files::isRegularFile)
+                    .mapToLong(path -> path.toFile().length())
+                    .sum();
+        }
+    }
+}
@@ -2,8 +2,10 @@ package com.github.zmancometh90.familyhub;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class FamilyHubApplication {
 
     public static void main(String[] args) {
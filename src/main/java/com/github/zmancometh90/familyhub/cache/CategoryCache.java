@@ -0,0 +1,146 @@
+package com.github.zmancometh90.familyhub.cache;
+
+import com.github.zmancometh90.familyhub.repository.FavoriteItemRepository;
+import com.github.zmancometh90.familyhub.repository.GroceryItemRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Distinct grocery categories per household and distinct favorite categories per user, kept as
+ * sorted multisets of the rows in each category. Each household is loaded once from the database
+ * on first read and then maintained by the service create/update/delete paths, so category reads
+ * never reach the database.
+ *
+ * <p>The services report a change after it has committed, so a load can overlap changes it has
+ * already read. Rows are tracked by id, which makes reporting a change the load already saw
+ * harmless. Changes reported while a household is loading are queued and applied after the
+ * loaded rows; changes to a household nobody has loaded yet are dropped, since its load will read
+ * them from the database.
+ */
+@Component
+public class CategoryCache {
+
+    private final GroceryItemRepository groceryItemRepository;
+    private final FavoriteItemRepository favoriteItemRepository;
+    private final Map<UUID, HouseholdCategories> households = new ConcurrentHashMap<>();
+
+    public CategoryCache(GroceryItemRepository groceryItemRepository, FavoriteItemRepository favoriteItemRepository) {
+        this.groceryItemRepository = groceryItemRepository;
+        this.favoriteItemRepository = favoriteItemRepository;
+    }
+
+    public List<String> getGroceryCategories(UUID householdId) {
+        return loaded(householdId).groceryCategories.snapshot();
+    }
+
+    // Called when a grocery item is created or its category may have changed
+    public void grocerySaved(UUID householdId, UUID itemId, String category) {
+        change(householdId, household -> household.groceryCategories.put(itemId, category));
+    }
+
+    // Called when a grocery item is deleted or archived
+    public void groceryRemoved(UUID householdId, UUID itemId) {
+        change(householdId, household -> household.groceryCategories.remove(itemId));
+    }
+
+    public List<String> getFavoriteCategories(UUID householdId, UUID userId) {
+        CategoryMultiset categories = loaded(householdId).favoriteCategories.get(userId);
+        return categories != null ? categories.snapshot() : List.of();
+    }
+
+    public void favoriteSaved(UUID householdId, UUID userId, UUID favoriteId, String category) {
+        change(householdId, household -> household.favorites(userId).put(favoriteId, category));
+    }
+
+    public void favoriteRemoved(UUID householdId, UUID userId, UUID favoriteId) {
+        change(householdId, household -> household.favorites(userId).remove(favoriteId));
+    }
+
+    // Loads a household now instead of on first use; called by the startup warm-up
+    public void preload(UUID householdId) {
+        loaded(householdId);
+    }
+
+    private void change(UUID householdId, Consumer<HouseholdCategories> change) {
+        HouseholdCategories household = households.get(householdId);
+        if (household == null) {
+            return;
+        }
+        if (household.loaded) {
+            change.accept(household);
+            return;
+        }
+        if (!household.loading) {
+            return;
+        }
+        household.pending.add(change);
+        // The load may have finished after the check above, without seeing this change
+        if (household.loaded) {
+            household.applyPending();
+        }
+    }
+
+    private HouseholdCategories loaded(UUID householdId) {
+        HouseholdCategories household = households.computeIfAbsent(householdId, id -> new HouseholdCategories());
+        if (household.loaded) {
+            return household;
+        }
+        household.loadLock.lock();
+        try {
+            if (!household.loaded) {
+                load(household, householdId);
+            }
+        } finally {
+            household.loadLock.unlock();
+        }
+        return household;
+    }
+
+    private void load(HouseholdCategories household, UUID householdId) {
+        // Changes committed from here on are either read below or queued
+        household.loading = true;
+        try {
+            for (Object[] row : groceryItemRepository.findCategoriesByHouseholdId(householdId)) {
+                household.groceryCategories.put((UUID) row[0], (String) row[1]);
+            }
+            for (Object[] row : favoriteItemRepository.findCategoriesByHouseholdId(householdId)) {
+                household.favorites((UUID) row[1]).put((UUID) row[0], (String) row[2]);
+            }
+        } catch (RuntimeException e) {
+            // Start over on the next read; nothing queued so far is needed then
+            households.remove(householdId, household);
+            throw e;
+        }
+        household.applyPending();
+        household.loaded = true;
+        household.applyPending();
+    }
+
+    private static final class HouseholdCategories {
+        private final CategoryMultiset groceryCategories = new CategoryMultiset();
+        private final Map<UUID, CategoryMultiset> favoriteCategories = new ConcurrentHashMap<>();
+        private final Queue<Consumer<HouseholdCategories>> pending = new ConcurrentLinkedQueue<>();
+        private final ReentrantLock loadLock = new ReentrantLock();
+        private volatile boolean loading = false;
+        private volatile boolean loaded = false;
+
+        private CategoryMultiset favorites(UUID userId) {
+            return favoriteCategories.computeIfAbsent(userId, id -> new CategoryMultiset());
+        }
+
+        private void applyPending() {
+            Consumer<HouseholdCategories> change;
+            while ((change = pending.poll()) != null) {
+                change.accept(this);
+            }
+        }
+    }
+}
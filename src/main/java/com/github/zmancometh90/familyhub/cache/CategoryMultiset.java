@@ -0,0 +1,64 @@
+package com.github.zmancometh90.familyhub.cache;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sorted multiset of category names, counted by the rows that use each name. Rows are tracked by
+ * id, so recording the same row twice, or removing one that was never recorded, changes nothing.
+ * Writes go through a lock; reads return a pre-built immutable snapshot, so the category dropdown
+ * never waits on a writer.
+ */
+class CategoryMultiset {
+
+    private final Map<UUID, String> categoryById = new HashMap<>();
+    private final TreeMap<String, Integer> counts = new TreeMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile List<String> snapshot = List.of();
+
+    // Records the row's current category, moving it out of its previous one
+    void put(UUID id, String category) {
+        lock.lock();
+        try {
+            String previous = category != null ? categoryById.put(id, category) : categoryById.remove(id);
+            if (Objects.equals(previous, category)) {
+                return;
+            }
+            boolean changed = decrement(previous);
+            if (category != null && counts.merge(category, 1, Integer::sum) == 1) {
+                changed = true;
+            }
+            if (changed) {
+                snapshot = List.copyOf(counts.keySet());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void remove(UUID id) {
+        lock.lock();
+        try {
+            if (decrement(categoryById.remove(id))) {
+                snapshot = List.copyOf(counts.keySet());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    List<String> snapshot() {
+        return snapshot;
+    }
+
+    // True when the category's last row is gone
+    private boolean decrement(String category) {
+        return category != null
+                && counts.computeIfPresent(category, (key, count) -> count > 1 ? count - 1 : null) == null;
+    }
+}
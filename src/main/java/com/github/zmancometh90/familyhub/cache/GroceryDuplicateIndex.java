@@ -0,0 +1,115 @@
+package com.github.zmancometh90.familyhub.cache;
+
+import com.github.zmancometh90.familyhub.models.GroceryItem;
+import com.github.zmancometh90.familyhub.models.GroceryItemKey;
+import com.github.zmancometh90.familyhub.repository.GroceryItemRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * In-memory hash index, per household, from normalized (name, category) to the id of the active
+ * grocery item with that key. Writers for the same key are serialized through striped locks so that
+ * two phones adding "Milk" at the same time end up with one item and the summed quantity.
+ */
+@Component
+public class GroceryDuplicateIndex {
+
+    private static final int STRIPES = 64;
+
+    private final GroceryItemRepository groceryItemRepository;
+    private final Map<UUID, HouseholdItems> households = new ConcurrentHashMap<>();
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
+    public GroceryDuplicateIndex(GroceryItemRepository groceryItemRepository) {
+        this.groceryItemRepository = groceryItemRepository;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public UUID find(UUID householdId, GroceryItemKey key) {
+        return loaded(householdId).activeItems.get(key);
+    }
+
+    // Keeps the existing mapping if another active item already owns the key
+    public void put(UUID householdId, GroceryItemKey key, UUID id) {
+        loaded(householdId).activeItems.putIfAbsent(key, id);
+    }
+
+    // Only removes the mapping if it still points at the given item
+    public void remove(UUID householdId, GroceryItemKey key, UUID id) {
+        loaded(householdId).activeItems.remove(key, id);
+    }
+
+    public <T> T withLock(UUID householdId, GroceryItemKey key, Supplier<T> action) {
+        ReentrantLock lock = stripes[stripeFor(householdId, key)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public <T> T withLocks(UUID householdId, Collection<GroceryItemKey> keys, Supplier<T> action) {
+        // Always acquire stripes in ascending order so bulk writers cannot deadlock each other
+        int[] indexes = keys.stream()
+                .mapToInt(key -> stripeFor(householdId, key))
+                .distinct()
+                .sorted()
+                .toArray();
+
+        for (int i = 0; i < indexes.length; i++) {
+            stripes[indexes[i]].lock();
+        }
+        try {
+            return action.get();
+        } finally {
+            for (int i = indexes.length - 1; i >= 0; i--) {
+                stripes[indexes[i]].unlock();
+            }
+        }
+    }
+
+    // Households share the stripes, so the same key in two households usually lands on different ones
+    private int stripeFor(UUID householdId, GroceryItemKey key) {
+        int hash = 31 * householdId.hashCode() + key.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), STRIPES);
+    }
+
+    // Loads a household now instead of on first use; called by the startup warm-up
+    public void preload(UUID householdId) {
+        loaded(householdId);
+    }
+
+    private HouseholdItems loaded(UUID householdId) {
+        HouseholdItems household = households.computeIfAbsent(householdId, id -> new HouseholdItems());
+        if (household.loaded) {
+            return household;
+        }
+        household.loadLock.lock();
+        try {
+            if (!household.loaded) {
+                for (GroceryItem item : groceryItemRepository.findByHouseholdIdAndIsCompletedFalseOrderByCreatedAtDesc(householdId)) {
+                    household.activeItems.putIfAbsent(GroceryItemKey.of(item), item.getId());
+                }
+                household.loaded = true;
+            }
+        } finally {
+            household.loadLock.unlock();
+        }
+        return household;
+    }
+
+    private static final class HouseholdItems {
+        private final Map<GroceryItemKey, UUID> activeItems = new ConcurrentHashMap<>();
+        private final ReentrantLock loadLock = new ReentrantLock();
+        private volatile boolean loaded = false;
+    }
+}
@@ -0,0 +1,219 @@
+package com.github.zmancometh90.familyhub.cache;
+
+import com.github.zmancometh90.familyhub.models.ArchivedGroceryItem;
+import com.github.zmancometh90.familyhub.models.GroceryItem;
+import com.github.zmancometh90.familyhub.models.GroceryItemKey;
+import com.github.zmancometh90.familyhub.repository.ArchivedGroceryItemRepository;
+import com.github.zmancometh90.familyhub.repository.GroceryItemRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Incrementally maintained "how often do we buy this" model, one per household. Each completed
+ * grocery item updates the mean inter-purchase interval and typical quantity of its normalized key
+ * in O(1); suggestions are computed from this map without touching the grocery history tables.
+ *
+ * <p>A household is loaded on first read by replaying the archive and the completed items still in
+ * {@code grocery_items}, both in one serializable read-only transaction. That is a single snapshot,
+ * so an item the archiver moves during the replay is seen in exactly one of the two tables.
+ * Completions are reported after they have committed, so the replay may already have seen one
+ * that is reported later; the completions replayed from {@code grocery_items} are remembered and
+ * such a report is skipped. Completions older than the archive cutoff are forgotten again on the
+ * archiver's schedule, since by then they were reported long ago or never will be. Completions reported while a household is loading are queued and
+ * applied after the replay; those reported before anyone loaded it are dropped, since the replay
+ * reads them from the database.
+ */
+@Component
+public class PurchaseFrequencyModel {
+
+    // Suggest an item once this fraction of its usual interval has passed
+    private static final double DUE_THRESHOLD = 0.85;
+    private static final int REPLAY_PAGE_SIZE = 1000;
+    // completed_at is stored with microseconds, so a replayed time may be rounded off the reported one
+    private static final Duration STORED_PRECISION = Duration.ofNanos(1_000);
+
+    private final GroceryItemRepository groceryItemRepository;
+    private final ArchivedGroceryItemRepository archivedGroceryItemRepository;
+    private final TransactionTemplate replayTransaction;
+    private final int archiveAfterDays;
+    private final Map<UUID, HouseholdStats> households = new ConcurrentHashMap<>();
+
+    public PurchaseFrequencyModel(GroceryItemRepository groceryItemRepository,
+                                  ArchivedGroceryItemRepository archivedGroceryItemRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${familyhub.grocery.archive.after-days:30}") int archiveAfterDays) {
+        this.groceryItemRepository = groceryItemRepository;
+        this.archivedGroceryItemRepository = archivedGroceryItemRepository;
+        this.archiveAfterDays = archiveAfterDays;
+        // Unnamed, so it is not routed to a replica that may lag behind completions already dropped
+        this.replayTransaction = new TransactionTemplate(transactionManager);
+        replayTransaction.setReadOnly(true);
+        replayTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_SERIALIZABLE);
+    }
+
+    // Called once the completion has committed
+    public void recordPurchase(GroceryItem item) {
+        if (item.getCompletedAt() == null) {
+            return;
+        }
+        HouseholdStats household = households.get(item.getHouseholdId());
+        if (household == null) {
+            return;
+        }
+        Consumer<HouseholdStats> purchase = stats -> stats.recordReported(item);
+        if (household.loaded) {
+            purchase.accept(household);
+            return;
+        }
+        if (!household.loading) {
+            return;
+        }
+        household.pending.add(purchase);
+        // The load may have finished after the check above, without seeing this purchase
+        if (household.loaded) {
+            household.applyPending();
+        }
+    }
+
+    public List<PurchaseStats> getDueItems(UUID householdId, LocalDateTime now) {
+        return loaded(householdId).stats.values().stream()
+                .filter(PurchaseStats::hasInterval)
+                .filter(s -> isDue(s, now))
+                .sorted(Comparator.comparing(PurchaseStats::dueAt))
+                .toList();
+    }
+
+    public PurchaseStats getStats(UUID householdId, GroceryItemKey key) {
+        return loaded(householdId).stats.get(key);
+    }
+
+    @Scheduled(fixedDelayString = "${familyhub.grocery.archive.interval:PT1H}",
+               initialDelayString = "${familyhub.grocery.archive.interval:PT1H}")
+    public void forgetOldReplays() {
+        forgetReplayedBefore(LocalDateTime.now().minusDays(archiveAfterDays));
+    }
+
+    void forgetReplayedBefore(LocalDateTime cutoff) {
+        for (HouseholdStats household : households.values()) {
+            household.replayed.values().removeIf(completedAt -> completedAt.isBefore(cutoff));
+        }
+    }
+
+    private boolean isDue(PurchaseStats s, LocalDateTime now) {
+        long thresholdMinutes = Math.round(s.meanIntervalHours() * 60 * DUE_THRESHOLD);
+        return !now.isBefore(s.lastPurchasedAt().plusMinutes(thresholdMinutes));
+    }
+
+    // Loads a household now instead of on first use; called by the startup warm-up
+    public void preload(UUID householdId) {
+        loaded(householdId);
+    }
+
+    private HouseholdStats loaded(UUID householdId) {
+        HouseholdStats household = households.computeIfAbsent(householdId, id -> new HouseholdStats());
+        if (household.loaded) {
+            return household;
+        }
+        household.loadLock.lock();
+        try {
+            if (!household.loaded) {
+                load(household, householdId);
+            }
+        } finally {
+            household.loadLock.unlock();
+        }
+        return household;
+    }
+
+    private void load(HouseholdStats household, UUID householdId) {
+        // Completions committed from here on are either in the snapshot below or queued
+        household.loading = true;
+        try {
+            replayTransaction.executeWithoutResult(status -> replay(household, householdId));
+        } catch (RuntimeException e) {
+            // Start over on the next read; nothing queued so far is needed then
+            households.remove(householdId, household);
+            throw e;
+        }
+        household.applyPending();
+        household.loaded = true;
+        household.applyPending();
+    }
+
+    // Archived history oldest first, then the completed items still in grocery_items
+    private void replay(HouseholdStats household, UUID householdId) {
+        Pageable page = PageRequest.of(0, REPLAY_PAGE_SIZE);
+        Slice<ArchivedGroceryItem> archived;
+        do {
+            archived = archivedGroceryItemRepository.findByHouseholdIdOrderByCompletedAtAsc(householdId, page);
+            for (ArchivedGroceryItem item : archived) {
+                household.record(item.getName(), item.getCategory(), item.getQuantity(), item.getCompletedAt());
+            }
+            page = archived.nextPageable();
+        } while (archived.hasNext());
+
+        for (GroceryItem item : groceryItemRepository.findByHouseholdIdAndIsCompletedTrueOrderByCompletedAtAsc(householdId)) {
+            household.record(item.getName(), item.getCategory(), item.getQuantity(), item.getCompletedAt());
+            if (item.getCompletedAt() != null) {
+                household.replayed.put(item.getId(), item.getCompletedAt());
+            }
+        }
+    }
+
+    private static final class HouseholdStats {
+        private final Map<GroceryItemKey, PurchaseStats> stats = new ConcurrentHashMap<>();
+        // Completion time of each item the replay read from grocery_items, until it is reported or
+        // falls behind the archive cutoff
+        private final Map<UUID, LocalDateTime> replayed = new ConcurrentHashMap<>();
+        private final Queue<Consumer<HouseholdStats>> pending = new ConcurrentLinkedQueue<>();
+        private final ReentrantLock loadLock = new ReentrantLock();
+        private volatile boolean loading = false;
+        private volatile boolean loaded = false;
+
+        private void recordReported(GroceryItem item) {
+            LocalDateTime seen = replayed.get(item.getId());
+            if (seen != null && Duration.between(seen, item.getCompletedAt()).abs().compareTo(STORED_PRECISION) < 0
+                    && replayed.remove(item.getId(), seen)) {
+                // The replay already counted this completion
+                return;
+            }
+            record(item.getName(), item.getCategory(), item.getQuantity(), item.getCompletedAt());
+        }
+
+        private void record(String name, String category, Integer quantity, LocalDateTime purchasedAt) {
+            if (purchasedAt == null) {
+                return;
+            }
+            int amount = quantity != null ? quantity : 1;
+            stats.compute(GroceryItemKey.of(name, category), (key, current) -> current == null
+                    ? PurchaseStats.first(name, category, amount, purchasedAt)
+                    : current.record(name, category, amount, purchasedAt));
+        }
+
+        private void applyPending() {
+            Consumer<HouseholdStats> purchase;
+            while ((purchase = pending.poll()) != null) {
+                purchase.accept(this);
+            }
+        }
+    }
+}
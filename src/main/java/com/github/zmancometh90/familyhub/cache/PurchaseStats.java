@@ -0,0 +1,54 @@
+package com.github.zmancometh90.familyhub.cache;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Running purchase statistics for one normalized grocery item. Instances are immutable and are
+ * swapped atomically in {@link PurchaseFrequencyModel}, so readers never see a half-applied update.
+ */
+public record PurchaseStats(
+        String name,
+        String category,
+        long purchaseCount,
+        long intervalCount,
+        LocalDateTime lastPurchasedAt,
+        double meanIntervalHours,
+        double meanQuantity
+) {
+
+    // Completions closer together than this are treated as the same shopping trip
+    static final Duration SAME_TRIP = Duration.ofHours(12);
+
+    static PurchaseStats first(String name, String category, int quantity, LocalDateTime purchasedAt) {
+        return new PurchaseStats(name, category, 1, 0, purchasedAt, 0, quantity);
+    }
+
+    PurchaseStats record(String name, String category, int quantity, LocalDateTime purchasedAt) {
+        long count = purchaseCount + 1;
+        double quantityMean = meanQuantity + (quantity - meanQuantity) / count;
+
+        if (purchasedAt.isBefore(lastPurchasedAt.plus(SAME_TRIP))) {
+            // Same trip or an out-of-order replay: only the typical quantity moves
+            LocalDateTime last = purchasedAt.isAfter(lastPurchasedAt) ? purchasedAt : lastPurchasedAt;
+            return new PurchaseStats(name, category, count, intervalCount, last, meanIntervalHours, quantityMean);
+        }
+
+        long intervals = intervalCount + 1;
+        double hours = Duration.between(lastPurchasedAt, purchasedAt).toMinutes() / 60.0;
+        double intervalMean = meanIntervalHours + (hours - meanIntervalHours) / intervals;
+        return new PurchaseStats(name, category, count, intervals, purchasedAt, intervalMean, quantityMean);
+    }
+
+    public boolean hasInterval() {
+        return intervalCount > 0;
+    }
+
+    public LocalDateTime dueAt() {
+        return lastPurchasedAt.plusMinutes(Math.round(meanIntervalHours * 60));
+    }
+
+    public int typicalQuantity() {
+        return (int) Math.max(1, Math.round(meanQuantity));
+    }
+}
@@ -0,0 +1,16 @@
+package com.github.zmancometh90.familyhub.cache;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Folds concurrent calls of the annotated method with equal arguments, in the same household,
+ * into one execution whose result every caller gets. Only for reads whose result callers do not
+ * modify; the method should return an unmodifiable value. See {@link SingleFlightAspect}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SingleFlight {
+}
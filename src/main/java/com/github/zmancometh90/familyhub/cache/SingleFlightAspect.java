@@ -0,0 +1,122 @@
+package com.github.zmancometh90.familyhub.cache;
+
+import com.github.zmancometh90.familyhub.persistence.ReadWriteRoutingDataSource;
+import com.github.zmancometh90.familyhub.security.HouseholdContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Implements {@link SingleFlight}. The first caller for a key registers a future and runs the
+ * method; callers arriving while it runs find the future with a plain map read and wait on it, so
+ * they do not open a transaction or take a connection for it. The entry is removed once the call
+ * finishes, so nothing is cached beyond the in-flight window.
+ *
+ * <p>A caller that is already inside a transaction runs the method itself and is not joined by
+ * others. It holds a connection and its JDBC permit (see {@code JdbcPermitDataSource}) for the
+ * whole transaction, so waiting on another caller's call would keep both tied up while that call
+ * may itself be waiting for a permit; and its reads may include its own uncommitted writes, which
+ * no other caller should get.
+ *
+ * <p>Ordered inside the service timer and JFR events and ahead of the transaction interceptor,
+ * which makes the coalescing happen before a transaction is started. {@code familyhub.singleflight.calls}
+ * counts calls per method, tagged {@code role=executed} or {@code role=shared}; shared / (executed
+ * + shared) is the coalescing ratio.
+ *
+ * <p>With a read replica, a user who just wrote reads from the primary for the stickiness window
+ * (see {@link ReadWriteRoutingDataSource}). Such a caller runs the method itself, since a call it
+ * joined might be reading the replica and miss the user's own write. Other callers may join a
+ * call it started; they only get fresher data.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class SingleFlightAspect {
+
+    private final Map<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Counter> executedCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> sharedCounters = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final ObjectProvider<ReadWriteRoutingDataSource> routingDataSource;
+
+    public SingleFlightAspect(MeterRegistry meterRegistry, ObjectProvider<ReadWriteRoutingDataSource> routingDataSource) {
+        this.meterRegistry = meterRegistry;
+        this.routingDataSource = routingDataSource;
+    }
+
+    @Around("@annotation(com.github.zmancometh90.familyhub.cache.SingleFlight)")
+    public Object coalesce(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        String method = signature.getDeclaringType().getSimpleName() + "." + signature.getName();
+        UUID householdId = HouseholdContext.currentHouseholdId();
+        if (householdId == null) {
+            // Root and household-less callers see different rows, so they never share a call
+            return joinPoint.proceed();
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+        ReadWriteRoutingDataSource routing = routingDataSource.getIfAvailable();
+        if (routing != null && routing.isCurrentUserPinnedToPrimary()) {
+            return joinPoint.proceed();
+        }
+        Key key = new Key(householdId, method, Arrays.asList(joinPoint.getArgs()));
+
+        CompletableFuture<Object> running = inFlight.get(key);
+        if (running == null) {
+            CompletableFuture<Object> call = new CompletableFuture<>();
+            running = inFlight.putIfAbsent(key, call);
+            if (running == null) {
+                return execute(joinPoint, key, call);
+            }
+        }
+
+        counter(sharedCounters, method, "shared").increment();
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            throw e.getCause();
+        }
+    }
+
+    private Object execute(ProceedingJoinPoint joinPoint, Key key, CompletableFuture<Object> call) throws Throwable {
+        counter(executedCounters, key.method(), "executed").increment();
+        try {
+            Object result = joinPoint.proceed();
+            call.complete(result);
+            return result;
+        } catch (Throwable e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    private Counter counter(Map<String, Counter> counters, String method, String role) {
+        return counters.computeIfAbsent(method, name -> Counter.builder("familyhub.singleflight.calls")
+                .description("Calls to single-flight reads, executed or served from a concurrent execution")
+                .tag("method", name)
+                .tag("role", role)
+                .register(meterRegistry));
+    }
+
+    private record Key(UUID householdId, String method, List<Object> args) {
+    }
+}
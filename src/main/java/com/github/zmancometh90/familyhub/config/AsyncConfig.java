@@ -0,0 +1,19 @@
+package com.github.zmancometh90.familyhub.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    // Spring Boot applies this to the @Async executor. Carrying the caller's security context over
+    // keeps @Async work in the caller's household; without it the work would have no household.
+    @Bean
+    public TaskDecorator securityContextTaskDecorator() {
+        return DelegatingSecurityContextRunnable::new;
+    }
+}
@@ -0,0 +1,21 @@
+package com.github.zmancometh90.familyhub.config;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    // Hibernate's second-level cache uses the same JCache manager as Spring, so its regions
+    // get the standard cache.* metrics (hits, misses, puts, evictions) via actuator
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager cacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+    }
+}
@@ -0,0 +1,82 @@
+package com.github.zmancometh90.familyhub.config;
+
+import com.github.zmancometh90.familyhub.cache.CategoryCache;
+import com.github.zmancometh90.familyhub.cache.GroceryDuplicateIndex;
+import com.github.zmancometh90.familyhub.cache.PurchaseFrequencyModel;
+import com.github.zmancometh90.familyhub.models.Chore;
+import com.github.zmancometh90.familyhub.models.Household;
+import com.github.zmancometh90.familyhub.repository.ChoreRepository;
+import com.github.zmancometh90.familyhub.repository.HouseholdRepository;
+import com.github.zmancometh90.familyhub.repository.UserRepository;
+import com.github.zmancometh90.familyhub.security.HouseholdContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Fills the caches before the app reports ready, so the first requests after a restart against a
+ * file-backed database do not each pay for a cold load. Runners finish before the readiness state
+ * switches to ACCEPTING_TRAFFIC.
+ *
+ * <p>Second-level cache keys carry the tenant of the session that loaded the entity, so entities
+ * loaded as root would only ever be hit by root sessions. Each household's users and open chores
+ * are therefore loaded in sessions of that household, the ones its requests will look them up in.
+ */
+@Component
+@Order(1)
+@ConditionalOnProperty(name = "familyhub.warmup.enabled", havingValue = "true")
+public class CacheWarmup implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheWarmup.class);
+
+    private final HouseholdRepository householdRepository;
+    private final UserRepository userRepository;
+    private final ChoreRepository choreRepository;
+    private final GroceryDuplicateIndex groceryDuplicateIndex;
+    private final CategoryCache categoryCache;
+    private final PurchaseFrequencyModel purchaseFrequencyModel;
+
+    public CacheWarmup(HouseholdRepository householdRepository, UserRepository userRepository, ChoreRepository choreRepository,
+                       GroceryDuplicateIndex groceryDuplicateIndex, CategoryCache categoryCache,
+                       PurchaseFrequencyModel purchaseFrequencyModel) {
+        this.householdRepository = householdRepository;
+        this.userRepository = userRepository;
+        this.choreRepository = choreRepository;
+        this.groceryDuplicateIndex = groceryDuplicateIndex;
+        this.categoryCache = categoryCache;
+        this.purchaseFrequencyModel = purchaseFrequencyModel;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        HouseholdContext.runAsRoot(this::warmUp);
+    }
+
+    private void warmUp() {
+        long start = System.nanoTime();
+        int users = 0;
+        int chores = 0;
+
+        List<Household> households = householdRepository.findAll();
+        for (Household household : households) {
+            groceryDuplicateIndex.preload(household.getId());
+            categoryCache.preload(household.getId());
+            purchaseFrequencyModel.preload(household.getId());
+
+            // Entities loaded by a query are put into the second-level cache under the session's tenant
+            users += HouseholdContext.callAsHousehold(household.getId(), () -> userRepository.findAll().size());
+            chores += HouseholdContext.callAsHousehold(household.getId(), () -> choreRepository.findByStatusIn(EnumSet.of(
+                    Chore.ChoreStatus.PENDING, Chore.ChoreStatus.IN_PROGRESS, Chore.ChoreStatus.OVERDUE)).size());
+        }
+
+        log.info("Cache warm-up loaded {} households, {} users and {} open chores in {} ms",
+                households.size(), users, chores, (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -1,7 +1,9 @@
 package com.github.zmancometh90.familyhub.config;
 
+import com.github.zmancometh90.familyhub.models.Household;
 import com.github.zmancometh90.familyhub.models.User;
 import com.github.zmancometh90.familyhub.repository.UserRepository;
+import com.github.zmancometh90.familyhub.security.HouseholdContext;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
@@ -19,6 +21,10 @@ public class DataInitializer implements CommandLineRunner {
 
     @Override
     public void run(String... args) throws Exception {
+        HouseholdContext.runAsRoot(this::createDefaultAdmin);
+    }
+
+    private void createDefaultAdmin() {
         // Create default admin user if it doesn't exist. Only for development purposes.
         if (!userRepository.existsByUsername("admin")) {
             User admin = new User(
@@ -27,6 +33,8 @@ public class DataInitializer implements CommandLineRunner {
                 "Administrator",
                 User.Role.ADMIN
             );
+            // Runs as the root tenant, so the household has to be set by hand
+            admin.setHouseholdId(Household.DEFAULT_HOUSEHOLD_ID);
             userRepository.save(admin);
             System.out.println("Default admin user created with username: admin, password: admin");
         }
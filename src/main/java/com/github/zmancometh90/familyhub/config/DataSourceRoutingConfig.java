@@ -0,0 +1,68 @@
+package com.github.zmancometh90.familyhub.config;
+
+import com.github.zmancometh90.familyhub.persistence.ReadWriteRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Primary/replica data sources, enabled with {@code familyhub.datasource.replica.enabled=true}.
+ * Without it the single auto-configured {@code spring.datasource} pool is used as before.
+ */
+@Configuration
+@ConditionalOnProperty(name = "familyhub.datasource.replica.enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    // Read-only transactions started here may use the replica; repository-level ones may not
+    private static final String SERVICE_PACKAGE = "com.github.zmancometh90.familyhub.service.";
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        primary.setPoolName("primary");
+        return primary;
+    }
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${familyhub.datasource.replica.url}") String url,
+                                              @Value("${familyhub.datasource.replica.username:}") String username,
+                                              @Value("${familyhub.datasource.replica.password:}") String password) {
+        HikariDataSource replica = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        replica.setPoolName("replica");
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    // A bean of its own so SingleFlightAspect can ask whether a caller is stuck to the primary
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                                        @Qualifier("replicaDataSource") DataSource replica,
+                                                        @Value("${familyhub.datasource.replica.stickiness-window:PT2S}") Duration stickinessWindow) {
+        return new ReadWriteRoutingDataSource(primary, replica, SERVICE_PACKAGE, stickinessWindow);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
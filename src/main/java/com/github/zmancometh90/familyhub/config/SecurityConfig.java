@@ -62,6 +62,11 @@ public class SecurityConfig {
                         // H2 Console access (only for development)
                         .requestMatchers("/h2-console/**").permitAll()
 
+                        // Actuator - health is public for probes; metrics, slow queries and JFR span every
+                        // household, so a household ADMIN is not enough
+                        .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("PLATFORM_ADMIN")
+
                         // User endpoints - ADMIN can do everything, BASIC_USER has limited access
                         .requestMatchers(HttpMethod.POST, "/api/v1/users").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.GET, "/api/v1/users").hasAnyRole("ADMIN", "BASIC_USER")
@@ -71,6 +76,13 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.DELETE, "/api/v1/users/{id}").hasRole("ADMIN")
                         .requestMatchers("/api/v1/users/search").hasRole("ADMIN")
 
+                        // Household endpoints - only platform admins (familyhub.platform.admins) set up new households
+                        .requestMatchers(HttpMethod.POST, "/api/v1/households").hasRole("PLATFORM_ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/api/v1/households/current").hasAnyRole("ADMIN", "BASIC_USER")
+
+                        // Dashboard - Both roles see their own dashboard
+                        .requestMatchers(HttpMethod.GET, "/api/v1/dashboard").hasAnyRole("ADMIN", "BASIC_USER")
+
                         // Event endpoints - Both roles can manage events
                         .requestMatchers("/api/v1/events/**").hasAnyRole("ADMIN", "BASIC_USER")
 
@@ -87,6 +99,7 @@ public class SecurityConfig {
 
                         // Grocery endpoints - Both roles can manage grocery items
                         .requestMatchers("/api/v1/grocery/**").hasAnyRole("ADMIN", "BASIC_USER")
+                        .requestMatchers("/ws/grocery").hasAnyRole("ADMIN", "BASIC_USER")
 
                         // Favorites endpoints - Both roles can manage their own favorites
                         .requestMatchers("/api/v1/favorites/**").hasAnyRole("ADMIN", "BASIC_USER")
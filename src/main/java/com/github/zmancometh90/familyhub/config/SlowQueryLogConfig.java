@@ -0,0 +1,58 @@
+package com.github.zmancometh90.familyhub.config;
+
+import com.github.zmancometh90.familyhub.diagnostics.SlowQueryLog;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Routes every statement through a datasource-proxy wrapper that reports to {@link SlowQueryLog}.
+ * Replaces {@code spring.jpa.show-sql}, which printed every statement without timings.
+ */
+@Configuration
+@ConditionalOnProperty(name = "familyhub.diagnostics.slow-query.enabled", havingValue = "true", matchIfMissing = true)
+public class SlowQueryLogConfig {
+
+    // Runs before the JDBC permit wrapper, so this one wraps the pool itself and EXPLAIN gets it unproxied
+    static final int ORDER = VirtualThreadConfig.JDBC_PERMIT_ORDER - 1;
+
+    // Static so the post-processor is registered before the data source bean is created. The
+    // declared type must be Ordered, since Spring sorts post-processors before creating them.
+    @Bean
+    public static SlowQueryLogPostProcessor slowQueryLogPostProcessor(ObjectProvider<SlowQueryLog> slowQueryLog) {
+        return new SlowQueryLogPostProcessor(slowQueryLog);
+    }
+
+    static final class SlowQueryLogPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final ObjectProvider<SlowQueryLog> slowQueryLog;
+
+        SlowQueryLogPostProcessor(ObjectProvider<SlowQueryLog> slowQueryLog) {
+            this.slowQueryLog = slowQueryLog;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!"dataSource".equals(beanName) || !(bean instanceof DataSource dataSource)) {
+                return bean;
+            }
+            SlowQueryLog listener = slowQueryLog.getObject();
+            listener.explainWith(dataSource);
+            return ProxyDataSourceBuilder.create(dataSource)
+                    .name("familyhub")
+                    .listener(listener)
+                    .build();
+        }
+
+        @Override
+        public int getOrder() {
+            return ORDER;
+        }
+    }
+}
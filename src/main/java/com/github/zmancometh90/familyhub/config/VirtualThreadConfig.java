@@ -0,0 +1,57 @@
+package com.github.zmancometh90.familyhub.config;
+
+import com.github.zmancometh90.familyhub.persistence.JdbcPermitDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Virtual-thread mode, switched on with {@code spring.threads.virtual.enabled=true}. Spring Boot
+ * then runs Tomcat requests, {@code @Async} methods and {@code @Scheduled} jobs on virtual threads;
+ * this adds the JDBC permit limit in front of the connection pool.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    // Other wrappers of the data source run before this one, so the permit is the outermost layer
+    static final int JDBC_PERMIT_ORDER = Ordered.LOWEST_PRECEDENCE - 100;
+
+    // Static so the post-processor is registered before the data source bean is created. The
+    // declared type must be Ordered, since Spring sorts post-processors before creating them.
+    @Bean
+    public static JdbcPermitPostProcessor jdbcPermitPostProcessor(Environment environment) {
+        return new JdbcPermitPostProcessor(environment);
+    }
+
+    static final class JdbcPermitPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final Environment environment;
+
+        JdbcPermitPostProcessor(Environment environment) {
+            this.environment = environment;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!"dataSource".equals(beanName) || !(bean instanceof DataSource dataSource)) {
+                return bean;
+            }
+            int maxConcurrency = environment.getProperty("familyhub.jdbc.max-concurrency", Integer.class, 10);
+            Duration acquireTimeout = environment.getProperty("familyhub.jdbc.acquire-timeout",
+                    Duration.class, Duration.ofSeconds(30));
+            return new JdbcPermitDataSource(dataSource, maxConcurrency, acquireTimeout);
+        }
+
+        @Override
+        public int getOrder() {
+            return JDBC_PERMIT_ORDER;
+        }
+    }
+}
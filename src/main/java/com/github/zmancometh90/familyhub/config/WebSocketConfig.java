@@ -0,0 +1,25 @@
+package com.github.zmancometh90.familyhub.config;
+
+import com.github.zmancometh90.familyhub.controllers.GroceryWebSocketHandler;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+@Configuration
+@EnableWebSocket
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    private final GroceryWebSocketHandler groceryWebSocketHandler;
+
+    public WebSocketConfig(GroceryWebSocketHandler groceryWebSocketHandler) {
+        this.groceryWebSocketHandler = groceryWebSocketHandler;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        // Same origin as the CORS configuration in SecurityConfig
+        registry.addHandler(groceryWebSocketHandler, "/ws/grocery")
+                .setAllowedOriginPatterns("http://localhost:4200");
+    }
+}
@@ -0,0 +1,70 @@
+package com.github.zmancometh90.familyhub.controllers;
+
+import com.github.zmancometh90.familyhub.journal.ChangeJournal;
+import com.github.zmancometh90.familyhub.journal.ChangePage;
+import com.github.zmancometh90.familyhub.journal.ChangeStreamBroadcaster;
+import com.github.zmancometh90.familyhub.models.ApiResponse;
+import com.github.zmancometh90.familyhub.security.UserPrincipal;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/v1/changes")
+public class ChangeController {
+
+    private static final int MAX_LIMIT = 1000;
+    // Bounds the work of one poll when other households wrote most of the recent records
+    private static final int MAX_SCANNED = 100_000;
+
+    private final ChangeJournal changeJournal;
+    private final ChangeStreamBroadcaster changeStreamBroadcaster;
+
+    public ChangeController(ChangeJournal changeJournal, ChangeStreamBroadcaster changeStreamBroadcaster) {
+        this.changeJournal = changeJournal;
+        this.changeStreamBroadcaster = changeStreamBroadcaster;
+    }
+
+    // Tails the household's changes in the journal; clients resume from the returned nextOffset
+    @GetMapping
+    public ResponseEntity<ApiResponse<ChangePage>> getChanges(
+            @RequestParam(defaultValue = "0") long from,
+            @RequestParam(defaultValue = "500") int limit,
+            Authentication authentication) {
+        ApiResponse<ChangePage> response = new ApiResponse<>();
+        UserPrincipal currentUser = (UserPrincipal) authentication.getPrincipal();
+        try {
+            ChangePage changes = changeJournal.read(currentUser.getHouseholdId(), from,
+                    Math.min(limit, MAX_LIMIT), MAX_SCANNED);
+            response.setData(changes);
+            response.setMessage("Changes retrieved successfully");
+            response.setSuccess(true);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            response.setData(null);
+            response.setMessage(e.getMessage());
+            response.setSuccess(false);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        }
+    }
+
+    // Live changes to the household's grocery list, chores or events as Server-Sent Events
+    @GetMapping(path = "/stream/{topic}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamChanges(@PathVariable String topic, Authentication authentication) {
+        UserPrincipal currentUser = (UserPrincipal) authentication.getPrincipal();
+        ChangeStreamBroadcaster.Topic streamTopic;
+        try {
+            streamTopic = ChangeStreamBroadcaster.Topic.valueOf(topic.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(changeStreamBroadcaster.subscribe(currentUser.getHouseholdId(), streamTopic));
+    }
+}
@@ -3,6 +3,7 @@ package com.github.zmancometh90.familyhub.controllers;
 import com.github.zmancometh90.familyhub.models.*;
 import com.github.zmancometh90.familyhub.security.UserPrincipal;
 import com.github.zmancometh90.familyhub.service.ChoreService;
+import com.github.zmancometh90.familyhub.service.ConflictException;
 import com.github.zmancometh90.familyhub.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -121,6 +122,11 @@ public class ChoreController {
                 response.setMessage("Chore not found");
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
             }
+        } catch (ConflictException e) {
+            response.setSuccess(false);
+            response.setMessage(e.getMessage());
+            choreService.getChoreById(UUID.fromString(id)).ifPresent(response::setData);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
         } catch (IllegalArgumentException e) {
             response.setSuccess(false);
             response.setMessage("Invalid chore ID format");
@@ -186,6 +192,11 @@ public class ChoreController {
                 response.setMessage("Chore not found");
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
             }
+        } catch (ConflictException e) {
+            response.setSuccess(false);
+            response.setMessage(e.getMessage());
+            choreService.getChoreById(UUID.fromString(id)).ifPresent(response::setData);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
         } catch (IllegalArgumentException e) {
             response.setSuccess(false);
             response.setMessage("Invalid chore ID format");
@@ -258,6 +269,7 @@ public class ChoreController {
     private User convertUserPrincipalToUser(UserPrincipal userPrincipal) {
         User user = new User();
         user.setId(userPrincipal.getId());
+        user.setHouseholdId(userPrincipal.getHouseholdId());
         user.setUsername(userPrincipal.getUsername());
         user.setName(userPrincipal.getName());
         user.setRole(userPrincipal.getRole());
@@ -0,0 +1,43 @@
+package com.github.zmancometh90.familyhub.controllers;
+
+import com.github.zmancometh90.familyhub.models.ApiResponse;
+import com.github.zmancometh90.familyhub.models.DashboardDTO;
+import com.github.zmancometh90.familyhub.security.UserPrincipal;
+import com.github.zmancometh90.familyhub.service.DashboardService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/dashboard")
+public class DashboardController {
+
+    private static final int MAX_EVENT_DAYS = 31;
+
+    private final DashboardService dashboardService;
+
+    public DashboardController(DashboardService dashboardService) {
+        this.dashboardService = dashboardService;
+    }
+
+    // One round trip for the dashboard; sections that failed are listed in data.errors
+    @GetMapping
+    public ResponseEntity<ApiResponse<DashboardDTO>> getDashboard(
+            @RequestParam(defaultValue = "7") int eventDays,
+            Authentication authentication) {
+        ApiResponse<DashboardDTO> response = new ApiResponse<>();
+        UserPrincipal currentUser = (UserPrincipal) authentication.getPrincipal();
+
+        DashboardDTO dashboard = dashboardService.getDashboard(currentUser,
+                Math.max(1, Math.min(eventDays, MAX_EVENT_DAYS)));
+        response.setData(dashboard);
+        response.setMessage(dashboard.isComplete()
+                ? "Dashboard retrieved successfully"
+                : "Dashboard retrieved with errors in: " + String.join(", ", dashboard.getErrors().keySet()));
+        response.setSuccess(true);
+        return ResponseEntity.ok(response);
+    }
+}
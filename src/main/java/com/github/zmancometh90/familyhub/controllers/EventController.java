@@ -4,6 +4,7 @@ import com.github.zmancometh90.familyhub.models.ApiResponse;
 import com.github.zmancometh90.familyhub.models.Event;
 import com.github.zmancometh90.familyhub.models.EventDTO;
 import com.github.zmancometh90.familyhub.models.EventRequest;
+import com.github.zmancometh90.familyhub.service.ConflictException;
 import com.github.zmancometh90.familyhub.service.EventService;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
@@ -167,6 +168,11 @@ public class EventController {
             response.setMessage("Event updated successfully");
             response.setSuccess(true);
             return ResponseEntity.ok(response);
+        } catch (ConflictException e) {
+            response.setData(eventService.findEventById(id));
+            response.setMessage(e.getMessage());
+            response.setSuccess(false);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
         } catch (RuntimeException e) {
             response.setData(null);
             response.setMessage(e.getMessage());
@@ -201,6 +207,11 @@ public class EventController {
             response.setMessage("Attendee added successfully");
             response.setSuccess(true);
             return ResponseEntity.ok(response);
+        } catch (ConflictException e) {
+            response.setData(eventService.findEventById(eventId));
+            response.setMessage(e.getMessage());
+            response.setSuccess(false);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
         } catch (RuntimeException e) {
             response.setData(null);
             response.setMessage(e.getMessage());
@@ -218,6 +229,11 @@ public class EventController {
             response.setMessage("Attendee removed successfully");
             response.setSuccess(true);
             return ResponseEntity.ok(response);
+        } catch (ConflictException e) {
+            response.setData(eventService.findEventById(eventId));
+            response.setMessage(e.getMessage());
+            response.setSuccess(false);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
         } catch (RuntimeException e) {
             response.setData(null);
             response.setMessage(e.getMessage());
@@ -3,6 +3,7 @@ package com.github.zmancometh90.familyhub.controllers;
 import com.github.zmancometh90.familyhub.models.ApiResponse;
 import com.github.zmancometh90.familyhub.models.FavoriteItemDTO;
 import com.github.zmancometh90.familyhub.models.FavoriteItemRequest;
+import com.github.zmancometh90.familyhub.service.ConflictException;
 import com.github.zmancometh90.familyhub.service.FavoriteItemService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -96,6 +97,11 @@ public class FavoriteController {
             response.setMessage("Favorite item updated successfully");
             response.setSuccess(true);
             return ResponseEntity.ok(response);
+        } catch (ConflictException e) {
+            response.setData(favoriteItemService.findFavoriteItemById(id, userId));
+            response.setMessage(e.getMessage());
+            response.setSuccess(false);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
         } catch (RuntimeException e) {
             response.setData(null);
             response.setMessage(e.getMessage());
@@ -170,6 +176,11 @@ public class FavoriteController {
             response.setMessage("Favorite item deleted successfully");
             response.setSuccess(true);
             return ResponseEntity.ok(response);
+        } catch (ConflictException e) {
+            response.setData(null);
+            response.setMessage(e.getMessage());
+            response.setSuccess(false);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
         } catch (RuntimeException e) {
             response.setData(null);
             response.setMessage(e.getMessage());
@@ -1,8 +1,14 @@
 package com.github.zmancometh90.familyhub.controllers;
 
 import com.github.zmancometh90.familyhub.models.ApiResponse;
+import com.github.zmancometh90.familyhub.models.ArchivedGroceryItemDTO;
+import com.github.zmancometh90.familyhub.models.GroceryFromFavoritesRequest;
 import com.github.zmancometh90.familyhub.models.GroceryItemDTO;
 import com.github.zmancometh90.familyhub.models.GroceryItemRequest;
+import com.github.zmancometh90.familyhub.models.GrocerySuggestionDTO;
+import com.github.zmancometh90.familyhub.models.PageDTO;
+import com.github.zmancometh90.familyhub.service.ConflictException;
+import com.github.zmancometh90.familyhub.service.GroceryArchiveService;
 import com.github.zmancometh90.familyhub.service.GroceryService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -15,10 +21,14 @@ import java.util.UUID;
 @RequestMapping("/api/v1/grocery")
 public class GroceryController {
     
+    private static final int MAX_ARCHIVE_PAGE_SIZE = 200;
+
     private final GroceryService groceryService;
+    private final GroceryArchiveService groceryArchiveService;
 
-    public GroceryController(GroceryService groceryService) {
+    public GroceryController(GroceryService groceryService, GroceryArchiveService groceryArchiveService) {
         this.groceryService = groceryService;
+        this.groceryArchiveService = groceryArchiveService;
     }
 
     @PostMapping
@@ -40,6 +50,25 @@ public class GroceryController {
         }
     }
 
+    @PostMapping("/from-favorites")
+    public ResponseEntity<ApiResponse<List<GroceryItemDTO>>> addGroceryItemsFromFavorites(
+            @RequestBody GroceryFromFavoritesRequest request,
+            @RequestParam UUID addedByUserId) {
+        ApiResponse<List<GroceryItemDTO>> response = new ApiResponse<>();
+        try {
+            List<GroceryItemDTO> items = groceryService.addGroceryItemsFromFavorites(request, addedByUserId);
+            response.setData(items);
+            response.setMessage("Grocery items added from favorites successfully");
+            response.setSuccess(true);
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (RuntimeException e) {
+            response.setData(null);
+            response.setMessage(e.getMessage());
+            response.setSuccess(false);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        }
+    }
+
     @GetMapping
     public ResponseEntity<ApiResponse<List<GroceryItemDTO>>> getAllGroceryItems() {
         ApiResponse<List<GroceryItemDTO>> response = new ApiResponse<>();
@@ -70,6 +99,26 @@ public class GroceryController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/archive")
+    public ResponseEntity<ApiResponse<PageDTO<ArchivedGroceryItemDTO>>> getArchivedGroceryItems(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        ApiResponse<PageDTO<ArchivedGroceryItemDTO>> response = new ApiResponse<>();
+        try {
+            PageDTO<ArchivedGroceryItemDTO> items = groceryArchiveService.getArchivedGroceryItems(
+                    page, Math.min(size, MAX_ARCHIVE_PAGE_SIZE));
+            response.setData(items);
+            response.setMessage("Archived grocery items retrieved successfully");
+            response.setSuccess(true);
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException e) {
+            response.setData(null);
+            response.setMessage(e.getMessage());
+            response.setSuccess(false);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<GroceryItemDTO>> getGroceryItemById(@PathVariable UUID id) {
         ApiResponse<GroceryItemDTO> response = new ApiResponse<>();
@@ -99,6 +148,11 @@ public class GroceryController {
             response.setMessage("Grocery item updated successfully");
             response.setSuccess(true);
             return ResponseEntity.ok(response);
+        } catch (ConflictException e) {
+            response.setData(groceryService.findGroceryItemById(id));
+            response.setMessage(e.getMessage());
+            response.setSuccess(false);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
         } catch (RuntimeException e) {
             response.setData(null);
             response.setMessage(e.getMessage());
@@ -118,6 +172,11 @@ public class GroceryController {
             response.setMessage("Grocery item marked as completed");
             response.setSuccess(true);
             return ResponseEntity.ok(response);
+        } catch (ConflictException e) {
+            response.setData(groceryService.findGroceryItemById(id));
+            response.setMessage(e.getMessage());
+            response.setSuccess(false);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
         } catch (RuntimeException e) {
             response.setData(null);
             response.setMessage(e.getMessage());
@@ -135,6 +194,11 @@ public class GroceryController {
             response.setMessage("Grocery item marked as active");
             response.setSuccess(true);
             return ResponseEntity.ok(response);
+        } catch (ConflictException e) {
+            response.setData(groceryService.findGroceryItemById(id));
+            response.setMessage(e.getMessage());
+            response.setSuccess(false);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
         } catch (RuntimeException e) {
             response.setData(null);
             response.setMessage(e.getMessage());
@@ -163,6 +227,16 @@ public class GroceryController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/suggestions")
+    public ResponseEntity<ApiResponse<List<GrocerySuggestionDTO>>> getGrocerySuggestions() {
+        ApiResponse<List<GrocerySuggestionDTO>> response = new ApiResponse<>();
+        List<GrocerySuggestionDTO> suggestions = groceryService.getGrocerySuggestions();
+        response.setData(suggestions);
+        response.setMessage("Grocery suggestions retrieved successfully");
+        response.setSuccess(true);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/search")
     public ResponseEntity<ApiResponse<List<GroceryItemDTO>>> searchGroceryItems(@RequestParam String searchTerm) {
         ApiResponse<List<GroceryItemDTO>> response = new ApiResponse<>();
@@ -0,0 +1,159 @@
+package com.github.zmancometh90.familyhub.controllers;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.zmancometh90.familyhub.models.GroceryItem;
+import com.github.zmancometh90.familyhub.models.GroceryOperation;
+import com.github.zmancometh90.familyhub.security.UserPrincipal;
+import com.github.zmancometh90.familyhub.service.GroceryOperationBatcher;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Live grocery editing at {@code /ws/grocery}. Clients send {@link GroceryOperation}s as JSON; they
+ * are merged and applied by the {@link GroceryOperationBatcher}. After each flush the sender gets
+ * {@code applied} or {@code rejected} per operation and every session of the household gets the
+ * new state of the changed items, plus a {@code deleted} message with the ids of items that were
+ * merged into another one.
+ */
+@Component
+public class GroceryWebSocketHandler extends TextWebSocketHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(GroceryWebSocketHandler.class);
+
+    // A peer that cannot take this much within the time limit is disconnected
+    private static final int SEND_TIME_LIMIT_MS = 1000;
+    private static final int SEND_BUFFER_LIMIT = 64 * 1024;
+    private static final String PRINCIPAL = "principal";
+
+    private final GroceryOperationBatcher groceryOperationBatcher;
+    private final ObjectMapper objectMapper;
+    private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
+    private final Map<UUID, Set<WebSocketSession>> sessionsByHousehold = new ConcurrentHashMap<>();
+
+    public GroceryWebSocketHandler(GroceryOperationBatcher groceryOperationBatcher, ObjectMapper objectMapper) {
+        this.groceryOperationBatcher = groceryOperationBatcher;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    void register() {
+        groceryOperationBatcher.addListener(this::onFlush);
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws IOException {
+        if (!(session.getPrincipal() instanceof Authentication authentication)
+                || !(authentication.getPrincipal() instanceof UserPrincipal principal)) {
+            session.close(CloseStatus.POLICY_VIOLATION);
+            return;
+        }
+        session.getAttributes().put(PRINCIPAL, principal);
+
+        // Flushes and replies to the client's own messages can send at the same time
+        WebSocketSession concurrent = new ConcurrentWebSocketSessionDecorator(session, SEND_TIME_LIMIT_MS,
+                SEND_BUFFER_LIMIT);
+        sessions.put(session.getId(), concurrent);
+        sessionsByHousehold.computeIfAbsent(principal.getHouseholdId(), id -> ConcurrentHashMap.newKeySet())
+                .add(concurrent);
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+        UserPrincipal principal = (UserPrincipal) session.getAttributes().get(PRINCIPAL);
+        GroceryOperation operation = null;
+        try {
+            operation = objectMapper.readValue(message.getPayload(), GroceryOperation.class);
+            groceryOperationBatcher.submit(principal.getHouseholdId(), principal.getId(), session.getId(), operation);
+        } catch (JsonProcessingException e) {
+            send(sessions.get(session.getId()), rejected(null, "Malformed operation"));
+        } catch (IllegalArgumentException e) {
+            send(sessions.get(session.getId()), rejected(operation != null ? operation.opId() : null, e.getMessage()));
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        WebSocketSession concurrent = sessions.remove(session.getId());
+        if (concurrent != null && session.getAttributes().get(PRINCIPAL) instanceof UserPrincipal principal) {
+            Set<WebSocketSession> household = sessionsByHousehold.get(principal.getHouseholdId());
+            if (household != null) {
+                household.remove(concurrent);
+            }
+        }
+    }
+
+    private void onFlush(GroceryOperationBatcher.FlushResult result) {
+        Map<String, List<String>> appliedBySession = new LinkedHashMap<>();
+        for (GroceryOperationBatcher.Acknowledgement ack : result.acknowledged()) {
+            appliedBySession.computeIfAbsent(ack.sessionId(), id -> new ArrayList<>()).add(ack.opId());
+        }
+        appliedBySession.forEach((sessionId, opIds) ->
+                send(sessions.get(sessionId), Map.of("type", "applied", "opIds", opIds)));
+        for (GroceryOperationBatcher.Rejection rejection : result.rejected()) {
+            send(sessions.get(rejection.sessionId()), rejected(rejection.opId(), rejection.reason()));
+        }
+
+        if (result.items().isEmpty()) {
+            return;
+        }
+        Map<String, Object> items = Map.of("type", "items", "items", result.items().stream()
+                .map(LiveItem::of)
+                .toList());
+        Map<String, Object> deleted = Map.of("type", "deleted", "ids", result.deleted());
+        for (WebSocketSession peer : sessionsByHousehold.getOrDefault(result.householdId(), Set.of())) {
+            send(peer, items);
+            if (!result.deleted().isEmpty()) {
+                send(peer, deleted);
+            }
+        }
+    }
+
+    private static Map<String, Object> rejected(String opId, String reason) {
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("type", "rejected");
+        message.put("opId", opId);
+        message.put("reason", reason);
+        return message;
+    }
+
+    private void send(WebSocketSession session, Object message) {
+        if (session == null || !session.isOpen()) {
+            return;
+        }
+        try {
+            session.sendMessage(new TextMessage(objectMapper.writeValueAsString(message)));
+        } catch (IOException | RuntimeException e) {
+            // A slow or closed peer; the decorator closes it and afterConnectionClosed cleans up
+            log.debug("Could not send to grocery session {}: {}", session.getId(), e.getMessage());
+        }
+    }
+
+    // The fields a peer needs to patch its copy of the list
+    private record LiveItem(UUID id, String name, String category, Integer quantity, boolean completed,
+                            Long version, LocalDateTime updatedAt) {
+
+        static LiveItem of(GroceryItem item) {
+            return new LiveItem(item.getId(), item.getName(), item.getCategory(), item.getQuantity(),
+                    item.isCompleted(), item.getVersion(), item.getUpdatedAt());
+        }
+    }
+}
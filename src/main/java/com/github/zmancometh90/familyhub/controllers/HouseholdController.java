@@ -0,0 +1,58 @@
+package com.github.zmancometh90.familyhub.controllers;
+
+import com.github.zmancometh90.familyhub.models.ApiResponse;
+import com.github.zmancometh90.familyhub.models.HouseholdDTO;
+import com.github.zmancometh90.familyhub.models.HouseholdRequest;
+import com.github.zmancometh90.familyhub.security.UserPrincipal;
+import com.github.zmancometh90.familyhub.service.HouseholdService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/households")
+public class HouseholdController {
+
+    private final HouseholdService householdService;
+
+    public HouseholdController(HouseholdService householdService) {
+        this.householdService = householdService;
+    }
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<HouseholdDTO>> createHousehold(@RequestBody HouseholdRequest request) {
+        ApiResponse<HouseholdDTO> response = new ApiResponse<>();
+        try {
+            HouseholdDTO household = householdService.createHousehold(request);
+            response.setData(household);
+            response.setMessage("Household created successfully");
+            response.setSuccess(true);
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (RuntimeException e) {
+            response.setData(null);
+            response.setMessage(e.getMessage());
+            response.setSuccess(false);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        }
+    }
+
+    @GetMapping("/current")
+    public ResponseEntity<ApiResponse<HouseholdDTO>> getCurrentHousehold(Authentication authentication) {
+        ApiResponse<HouseholdDTO> response = new ApiResponse<>();
+        UserPrincipal currentUser = (UserPrincipal) authentication.getPrincipal();
+
+        HouseholdDTO household = householdService.findHouseholdById(currentUser.getHouseholdId());
+        if (household == null) {
+            response.setData(null);
+            response.setMessage("Household not found");
+            response.setSuccess(false);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+
+        response.setData(household);
+        response.setMessage("Household retrieved successfully");
+        response.setSuccess(true);
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,44 @@
+package com.github.zmancometh90.familyhub.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Mapping a list of entities to DTOs, which is where lazy associations are loaded. Services map
+ * lists through {@link #mapAll(Collection, Function)}; without a recording the event is never
+ * committed and the JIT removes it.
+ */
+@Name("familyhub.DtoMapping")
+@Label("DTO Mapping")
+@Description("Entities mapped to DTOs in one service call")
+@Category({"FamilyHub", "Service"})
+@StackTrace(false)
+public class DtoMappingEvent extends Event {
+
+    @Label("DTO Type")
+    String dtoType;
+
+    @Label("Entities")
+    int entities;
+
+    public static <E, D> List<D> mapAll(Collection<E> entities, Function<? super E, ? extends D> mapper) {
+        DtoMappingEvent event = new DtoMappingEvent();
+        event.begin();
+        List<D> dtos = entities.stream().<D>map(mapper).toList();
+        event.end();
+        if (event.shouldCommit()) {
+            event.dtoType = dtos.isEmpty() ? "none" : dtos.getFirst().getClass().getSimpleName();
+            event.entities = entities.size();
+            event.commit();
+        }
+        return dtos;
+    }
+}
@@ -0,0 +1,30 @@
+package com.github.zmancometh90.familyhub.diagnostics;
+
+import com.github.zmancometh90.familyhub.security.HouseholdContext;
+import io.micrometer.core.instrument.Tag;
+import org.springframework.boot.actuate.metrics.data.DefaultRepositoryTagsProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener.RepositoryMethodInvocation;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Adds the household to Spring Data's {@code spring.data.repository.invocations} timers when
+ * {@code familyhub.metrics.household-tag=true}, matching {@link ServiceTimingAspect}.
+ */
+@Component
+@ConditionalOnProperty(name = "familyhub.metrics.household-tag", havingValue = "true")
+public class HouseholdRepositoryTagsProvider extends DefaultRepositoryTagsProvider {
+
+    @Override
+    public Iterable<Tag> repositoryTags(RepositoryMethodInvocation invocation) {
+        List<Tag> tags = new ArrayList<>();
+        super.repositoryTags(invocation).forEach(tags::add);
+        UUID householdId = HouseholdContext.currentHouseholdId();
+        tags.add(Tag.of("household", householdId != null ? householdId.toString() : "none"));
+        return tags;
+    }
+}
@@ -0,0 +1,105 @@
+package com.github.zmancometh90.familyhub.diagnostics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.stream.Collectors;
+
+/**
+ * Emits {@link RequestEvent} around REST controller methods and {@link ServiceCallEvent} around
+ * public service methods, so JFR samples and allocations can be matched to an endpoint. Nothing is
+ * filled in unless a recording has the event enabled, so with no recording running the cost is the
+ * proxy call. Ordered inside the service timer and outside single-flight.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(name = "familyhub.diagnostics.jfr.enabled", havingValue = "true", matchIfMissing = true)
+public class JfrEventAspect {
+
+    @Around("@within(org.springframework.web.bind.annotation.RestController)"
+            + " && execution(public * com.github.zmancometh90.familyhub.controllers..*(..))")
+    public Object request(ProceedingJoinPoint joinPoint) throws Throwable {
+        RequestEvent event = new RequestEvent();
+        if (!event.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        event.begin();
+        Object result = null;
+        Throwable failure = null;
+        try {
+            result = joinPoint.proceed();
+            return result;
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.endpoint = endpoint(joinPoint);
+                event.role = role();
+                event.status = result instanceof ResponseEntity<?> response ? response.getStatusCode().value() : 0;
+                event.exception = failure != null ? failure.getClass().getSimpleName() : null;
+                event.commit();
+            }
+        }
+    }
+
+    @Around("execution(public * com.github.zmancometh90.familyhub.service..*(..))")
+    public Object serviceCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        ServiceCallEvent event = new ServiceCallEvent();
+        if (!event.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        event.begin();
+        Throwable failure = null;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.service = joinPoint.getSignature().getDeclaringType().getSimpleName();
+                event.method = joinPoint.getSignature().getName();
+                event.exception = failure != null ? failure.getClass().getSimpleName() : null;
+                event.commit();
+            }
+        }
+    }
+
+    private static String endpoint(ProceedingJoinPoint joinPoint) {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            HttpServletRequest request = attributes.getRequest();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (pattern != null) {
+                return request.getMethod() + " " + pattern;
+            }
+        }
+        return joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName();
+    }
+
+    private static String role() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return "anonymous";
+        }
+        return authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,100 @@
+package com.github.zmancometh90.familyhub.diagnostics;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code /actuator/jfr}: POST starts a flight recording with the JDK's {@code profile} (or
+ * {@code default}) settings plus the {@code familyhub.*} events, for at most
+ * {@code familyhub.diagnostics.jfr.max-duration}. JFR stops it and writes the file to
+ * {@code familyhub.diagnostics.jfr.dir} on its own; GET reports the state and the file. Only one
+ * recording runs at a time.
+ */
+@Component
+@Endpoint(id = "jfr")
+@ConditionalOnProperty(name = "familyhub.diagnostics.jfr.enabled", havingValue = "true", matchIfMissing = true)
+public class JfrRecordingEndpoint {
+
+    private static final Logger log = LoggerFactory.getLogger(JfrRecordingEndpoint.class);
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final Path directory;
+    private final Duration maxDuration;
+    private Recording recording;
+    private Path file;
+
+    public JfrRecordingEndpoint(@Value("${familyhub.diagnostics.jfr.dir}") Path directory,
+                                @Value("${familyhub.diagnostics.jfr.max-duration:PT5M}") Duration maxDuration) {
+        this.directory = directory;
+        this.maxDuration = maxDuration;
+    }
+
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("state", recording != null ? recording.getState().name() : "NONE");
+        status.put("file", file != null ? file.toString() : null);
+        return status;
+    }
+
+    @WriteOperation
+    public synchronized Map<String, Object> start(@Nullable Integer seconds, @Nullable String settings)
+            throws IOException, ParseException {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new IllegalStateException("A recording is already running until its duration elapses");
+        }
+        Duration duration = seconds != null ? Duration.ofSeconds(seconds) : Duration.ofMinutes(1);
+        if (duration.isNegative() || duration.isZero() || duration.compareTo(maxDuration) > 0) {
+            duration = maxDuration;
+        }
+        Configuration configuration = Configuration.getConfiguration("default".equals(settings) ? "default" : "profile");
+
+        Files.createDirectories(directory);
+        Path destination = directory.resolve("familyhub-" + LocalDateTime.now().format(FILE_TIME) + ".jfr");
+        Recording next = new Recording(configuration);
+        next.setName("familyhub-on-demand");
+        next.enable("familyhub.Request");
+        next.enable("familyhub.ServiceCall");
+        next.enable("familyhub.DtoMapping");
+        next.setToDisk(true);
+        next.setDestination(destination);
+        next.setDuration(duration);
+        next.start();
+
+        if (recording != null) {
+            recording.close();
+        }
+        recording = next;
+        file = destination;
+        log.info("Started JFR recording for {} s to {}", duration.toSeconds(), destination);
+        return status();
+    }
+
+    @PreDestroy
+    synchronized void stop() {
+        if (recording != null) {
+            recording.close();
+        }
+    }
+}
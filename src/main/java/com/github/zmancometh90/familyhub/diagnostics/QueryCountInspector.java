@@ -0,0 +1,27 @@
+package com.github.zmancometh90.familyhub.diagnostics;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Feeds every statement Hibernate prepares into the thread's {@link QueryCounter}. Statements
+ * served from the second-level or query cache never reach JDBC and are not counted.
+ */
+@Component
+public class QueryCountInspector implements StatementInspector, HibernatePropertiesCustomizer {
+
+    @Override
+    public String inspect(String sql) {
+        QueryCounter.record(sql);
+        return sql;
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+}
@@ -0,0 +1,108 @@
+package com.github.zmancometh90.familyhub.diagnostics;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread while it is open, in total
+ * and per normalized statement. Literals and IN lists are replaced by {@code ?}, so the same query
+ * issued for different ids counts as one statement repeated, which is how an N+1 shows up.
+ *
+ * <p>Counters nest: closing an inner one adds its counts to the outer one, so a test can wrap a
+ * whole request while the request filter opens its own. Work handed to another thread is only
+ * counted if it runs through {@link #propagate(Callable)}.
+ */
+public final class QueryCounter implements AutoCloseable {
+
+    private static final ThreadLocal<QueryCounter> CURRENT = new ThreadLocal<>();
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final QueryCounter parent;
+    private final LongAdder total = new LongAdder();
+    private final Map<String, AtomicInteger> statements = new ConcurrentHashMap<>();
+
+    private QueryCounter(QueryCounter parent) {
+        this.parent = parent;
+    }
+
+    /** Starts counting on this thread; close the returned counter to stop. */
+    public static QueryCounter open() {
+        QueryCounter counter = new QueryCounter(CURRENT.get());
+        CURRENT.set(counter);
+        return counter;
+    }
+
+    /** Wraps a task so that statements it runs on another thread count towards the current counter. */
+    public static <T> Callable<T> propagate(Callable<T> task) {
+        QueryCounter counter = CURRENT.get();
+        if (counter == null) {
+            return task;
+        }
+        return () -> {
+            QueryCounter previous = CURRENT.get();
+            CURRENT.set(counter);
+            try {
+                return task.call();
+            } finally {
+                if (previous != null) {
+                    CURRENT.set(previous);
+                } else {
+                    CURRENT.remove();
+                }
+            }
+        };
+    }
+
+    static void record(String sql) {
+        QueryCounter counter = CURRENT.get();
+        if (counter != null) {
+            counter.add(normalize(sql), 1);
+        }
+    }
+
+    static String normalize(String sql) {
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = IN_LIST.matcher(normalized).replaceAll("(?)");
+        return WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+    }
+
+    private void add(String statement, int count) {
+        total.add(count);
+        statements.computeIfAbsent(statement, key -> new AtomicInteger()).addAndGet(count);
+    }
+
+    public int total() {
+        return total.intValue();
+    }
+
+    /** Statements executed at least {@code minCount} times, most repeated first. */
+    public Map<String, Integer> repeated(int minCount) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        statements.entrySet().stream()
+                .filter(entry -> entry.getValue().get() >= minCount)
+                .sorted(Comparator.comparingInt((Map.Entry<String, AtomicInteger> entry) -> entry.getValue().get()).reversed())
+                .forEach(entry -> repeated.put(entry.getKey(), entry.getValue().get()));
+        return repeated;
+    }
+
+    @Override
+    public void close() {
+        if (parent != null) {
+            CURRENT.set(parent);
+            statements.forEach((statement, count) -> parent.add(statement, count.get()));
+        } else {
+            CURRENT.remove();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.github.zmancometh90.familyhub.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("familyhub.Request")
+@Label("Request")
+@Description("A REST controller call, from dispatch to the controller until it returned")
+@Category({"FamilyHub", "Web"})
+@StackTrace(false)
+class RequestEvent extends Event {
+
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("Role")
+    String role;
+
+    @Label("Status")
+    int status;
+
+    @Label("Exception")
+    String exception;
+}
@@ -0,0 +1,87 @@
+package com.github.zmancometh90.familyhub.diagnostics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements of each HTTP request, including the user lookup done by
+ * authentication, and records them per endpoint in {@code familyhub.request.queries}. A statement
+ * run {@code repeat-threshold} times or more in one request is counted in
+ * {@code familyhub.request.repeated.statements} and logged, as is a request over
+ * {@code max-per-request} statements. The endpoint is the matched route, e.g.
+ * {@code GET /api/v1/chores/{id}}, so the number of series stays bounded.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestQueryCountFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestQueryCountFilter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final int maxPerRequest;
+    private final int repeatThreshold;
+
+    public RequestQueryCountFilter(MeterRegistry meterRegistry,
+                                   @Value("${familyhub.diagnostics.queries.max-per-request:20}") int maxPerRequest,
+                                   @Value("${familyhub.diagnostics.queries.repeat-threshold:5}") int repeatThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.maxPerRequest = maxPerRequest;
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        QueryCounter counter = QueryCounter.open();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            counter.close();
+            report(endpointOf(request), counter);
+        }
+    }
+
+    private void report(String endpoint, QueryCounter counter) {
+        int total = counter.total();
+        DistributionSummary.builder("familyhub.request.queries")
+                .description("SQL statements per HTTP request")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry)
+                .record(total);
+
+        Map<String, Integer> repeated = counter.repeated(repeatThreshold);
+        if (!repeated.isEmpty()) {
+            Counter.builder("familyhub.request.repeated.statements")
+                    .description("Statements repeated with different parameters within one request")
+                    .tag("endpoint", endpoint)
+                    .register(meterRegistry)
+                    .increment(repeated.size());
+            repeated.forEach((statement, count) ->
+                    log.warn("Possible N+1 in {}: statement ran {} times: {}", endpoint, count, statement));
+        }
+        if (total > maxPerRequest) {
+            log.warn("{} ran {} SQL statements (limit {})", endpoint, total, maxPerRequest);
+        }
+    }
+
+    private static String endpointOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : "unmapped");
+    }
+}
@@ -0,0 +1,25 @@
+package com.github.zmancometh90.familyhub.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("familyhub.ServiceCall")
+@Label("Service Call")
+@Description("A call to a public service method through its Spring proxy")
+@Category({"FamilyHub", "Service"})
+@StackTrace(false)
+class ServiceCallEvent extends Event {
+
+    @Label("Service")
+    String service;
+
+    @Label("Method")
+    String method;
+
+    @Label("Exception")
+    String exception;
+}
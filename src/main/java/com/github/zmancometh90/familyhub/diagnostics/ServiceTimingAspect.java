@@ -0,0 +1,73 @@
+package com.github.zmancometh90.familyhub.diagnostics;
+
+import com.github.zmancometh90.familyhub.security.HouseholdContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every public method of the domain services as {@code familyhub.service}, tagged with
+ * class, method, outcome and exception, with a percentile histogram so Prometheus can compute
+ * quantiles across instances. Calls a service makes to itself bypass the proxy and are part of the
+ * caller's time.
+ *
+ * <p>Outermost of the aspects, so the time includes waiting on a shared single-flight call and the
+ * transaction. With {@code familyhub.metrics.household-tag=true} the household is tagged as well;
+ * that is one series per household and method, so only turn it on for a bounded number of households.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServiceTimingAspect {
+
+    private final MeterRegistry meterRegistry;
+    private final boolean householdTag;
+
+    public ServiceTimingAspect(MeterRegistry meterRegistry,
+                               @Value("${familyhub.metrics.household-tag:false}") boolean householdTag) {
+        this.meterRegistry = meterRegistry;
+        this.householdTag = householdTag;
+    }
+
+    @Around("execution(public * com.github.zmancometh90.familyhub.service.ChoreService.*(..))"
+            + " || execution(public * com.github.zmancometh90.familyhub.service.EventService.*(..))"
+            + " || execution(public * com.github.zmancometh90.familyhub.service.GroceryService.*(..))"
+            + " || execution(public * com.github.zmancometh90.familyhub.service.FavoriteItemService.*(..))"
+            + " || execution(public * com.github.zmancometh90.familyhub.service.UserService.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        Throwable failure = null;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            Tags tags = Tags.of(
+                    "class", joinPoint.getSignature().getDeclaringType().getSimpleName(),
+                    "method", joinPoint.getSignature().getName(),
+                    "outcome", failure == null ? "success" : "error",
+                    "exception", failure == null ? "none" : failure.getClass().getSimpleName());
+            if (householdTag) {
+                UUID householdId = HouseholdContext.currentHouseholdId();
+                tags = tags.and("household", householdId != null ? householdId.toString() : "none");
+            }
+            Timer.builder("familyhub.service")
+                    .description("Domain service method calls")
+                    .tags(tags)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.github.zmancometh90.familyhub.diagnostics;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * {@code /actuator/slowqueries}: per-statement execution stats from {@link SlowQueryLog}, most
+ * total time first. DELETE clears them, e.g. before a load test. The statements come from every
+ * household, so {@code SecurityConfig} only lets platform admins in, and parameters are reported by
+ * type only.
+ */
+@Component
+@ConditionalOnProperty(name = "familyhub.diagnostics.slow-query.enabled", havingValue = "true", matchIfMissing = true)
+@Endpoint(id = "slowqueries")
+public class SlowQueryEndpoint {
+
+    private final SlowQueryLog slowQueryLog;
+
+    public SlowQueryEndpoint(SlowQueryLog slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @ReadOperation
+    public List<SlowQueryLog.Summary> statements() {
+        return slowQueryLog.summaries();
+    }
+
+    @DeleteOperation
+    public void reset() {
+        slowQueryLog.reset();
+    }
+}
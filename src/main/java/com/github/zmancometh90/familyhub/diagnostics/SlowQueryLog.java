@@ -0,0 +1,257 @@
+package com.github.zmancometh90.familyhub.diagnostics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregates execution time per normalized statement (see {@link QueryCounter}) and logs every
+ * execution slower than {@code familyhub.diagnostics.slow-query.threshold}, with its bound
+ * parameters and the repository method that issued it. The first slow execution of a SELECT also
+ * captures its plan with {@code EXPLAIN}, on a separate virtual thread and connection so the
+ * request that was slow does not wait for it. The stats are served by {@link SlowQueryEndpoint}.
+ *
+ * <p>Fast statements only cost a map lookup keyed by the SQL string, which Hibernate reuses per
+ * query; parameters and callers are only looked at once a statement is slow. At most
+ * {@code max-statements} normalized statements are aggregated, and a few SQL strings per statement
+ * are remembered for the lookup. Beyond that a statement is normalized on every execution, and a
+ * new one is not aggregated, but slow executions are still logged.
+ *
+ * <p>Statements from every household end up here, so bound values are neither logged nor kept for
+ * the endpoint; only their types are, e.g. {@code [UUID, String]}. Set
+ * {@code familyhub.diagnostics.slow-query.log-parameter-values} to log the values while
+ * investigating; the endpoint never shows them.
+ */
+@Component
+@ConditionalOnProperty(name = "familyhub.diagnostics.slow-query.enabled", havingValue = "true", matchIfMissing = true)
+public class SlowQueryLog implements QueryExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryLog.class);
+
+    private static final String APP_PACKAGE = "com.github.zmancometh90.familyhub.";
+    private static final String REPOSITORY_PACKAGE = "com.github.zmancometh90.familyhub.repository";
+    private static final int MAX_PARAMETER_LENGTH = 100;
+    private static final int SQL_STRINGS_PER_STATEMENT = 4;
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    private final long thresholdMillis;
+    private final int maxStatements;
+    private final boolean logParameterValues;
+    private final Map<String, StatementStats> bySql = new ConcurrentHashMap<>();
+    private final Map<String, StatementStats> byStatement = new ConcurrentHashMap<>();
+    private volatile DataSource explainDataSource;
+
+    public SlowQueryLog(@Value("${familyhub.diagnostics.slow-query.threshold:PT0.2S}") Duration threshold,
+                        @Value("${familyhub.diagnostics.slow-query.max-statements:500}") int maxStatements,
+                        @Value("${familyhub.diagnostics.slow-query.log-parameter-values:false}") boolean logParameterValues) {
+        this.thresholdMillis = threshold.toMillis();
+        this.maxStatements = maxStatements;
+        this.logParameterValues = logParameterValues;
+    }
+
+    /** The unproxied data source used for {@code EXPLAIN}, so plans are not timed themselves. */
+    public void explainWith(DataSource dataSource) {
+        this.explainDataSource = dataSource;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsedMillis = execInfo.getElapsedTime();
+        boolean slow = elapsedMillis >= thresholdMillis;
+        String caller = slow ? callerOf() : null;
+        for (QueryInfo queryInfo : queryInfoList) {
+            String sql = queryInfo.getQuery();
+            StatementStats stats = statsFor(sql);
+            if (stats != null) {
+                stats.record(elapsedMillis, slow);
+            }
+            if (!slow) {
+                continue;
+            }
+
+            List<Object> parameters = parametersOf(queryInfo);
+            String parameterTypes = typesOf(parameters);
+            log.warn("Slow query: {} ms in {}{}: {} parameters {}", elapsedMillis, caller,
+                    execInfo.isBatch() ? " (batch)" : "",
+                    stats != null ? stats.statement : QueryCounter.normalize(sql),
+                    logParameterValues ? parameters : parameterTypes);
+            if (stats != null) {
+                stats.lastSlowCaller = caller;
+                stats.lastSlowParameters = parameterTypes;
+                if (stats.planRequested.compareAndSet(false, true)) {
+                    explain(stats, sql, parameters);
+                }
+            }
+        }
+    }
+
+    public List<Summary> summaries() {
+        return byStatement.values().stream()
+                .map(StatementStats::summary)
+                .sorted(Comparator.comparingLong(Summary::totalMillis).reversed())
+                .toList();
+    }
+
+    public void reset() {
+        bySql.clear();
+        byStatement.clear();
+    }
+
+    // Null once max-statements statements are tracked and this is a new one
+    private StatementStats statsFor(String sql) {
+        StatementStats stats = bySql.get(sql);
+        if (stats != null) {
+            return stats;
+        }
+        String statement = QueryCounter.normalize(sql);
+        stats = byStatement.get(statement);
+        if (stats == null) {
+            if (byStatement.size() >= maxStatements) {
+                return null;
+            }
+            stats = byStatement.computeIfAbsent(statement, StatementStats::new);
+        }
+        // IN lists of every length normalize to one statement, so bound the raw strings separately
+        if (bySql.size() < maxStatements * SQL_STRINGS_PER_STATEMENT) {
+            bySql.putIfAbsent(sql, stats);
+        }
+        return stats;
+    }
+
+    private void explain(StatementStats stats, String sql, List<Object> parameters) {
+        DataSource dataSource = explainDataSource;
+        String verb = sql.stripLeading().toLowerCase(Locale.ROOT);
+        if (dataSource == null || !(verb.startsWith("select") || verb.startsWith("with"))) {
+            return;
+        }
+        Thread.ofVirtual().name("slow-query-explain").start(() -> {
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql)) {
+                for (int i = 0; i < parameters.size(); i++) {
+                    explain.setObject(i + 1, parameters.get(i));
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet rows = explain.executeQuery()) {
+                    while (rows.next()) {
+                        plan.append(rows.getString(1)).append('\n');
+                    }
+                }
+                stats.plan = plan.toString().strip();
+                log.warn("Plan for slow query {}:\n{}", stats.statement, stats.plan);
+            } catch (Exception e) {
+                stats.plan = "EXPLAIN failed: " + e.getMessage();
+                log.debug("EXPLAIN failed for {}", stats.statement, e);
+            }
+        });
+    }
+
+    private static List<Object> parametersOf(QueryInfo queryInfo) {
+        List<List<ParameterSetOperation>> parametersList = queryInfo.getParametersList();
+        if (parametersList.isEmpty()) {
+            return List.of();
+        }
+        // For a batch, the last parameter set is representative
+        List<ParameterSetOperation> operations = new ArrayList<>(parametersList.getLast());
+        operations.sort(Comparator.comparingInt(operation ->
+                operation.getArgs()[0] instanceof Number index ? index.intValue() : 0));
+        List<Object> parameters = new ArrayList<>(operations.size());
+        for (ParameterSetOperation operation : operations) {
+            Object value = ParameterSetOperation.isSetNullParameterOperation(operation) ? null : operation.getArgs()[1];
+            parameters.add(value instanceof String text && text.length() > MAX_PARAMETER_LENGTH
+                    ? text.substring(0, MAX_PARAMETER_LENGTH) + "..." : value);
+        }
+        return parameters;
+    }
+
+    private static String typesOf(List<Object> parameters) {
+        return parameters.stream()
+                .map(value -> value != null ? value.getClass().getSimpleName() : "null")
+                .toList()
+                .toString();
+    }
+
+    /**
+     * The repository method that issued the statement, found as the JDK proxy frame implementing
+     * one of our repository interfaces, or else the first frame in our own code.
+     */
+    private static String callerOf() {
+        return STACK_WALKER.walk(frames -> {
+            String firstAppFrame = null;
+            for (StackWalker.StackFrame frame : (Iterable<StackWalker.StackFrame>) frames::iterator) {
+                Class<?> type = frame.getDeclaringClass();
+                if (Proxy.isProxyClass(type)) {
+                    for (Class<?> repository : type.getInterfaces()) {
+                        if (repository.getPackageName().equals(REPOSITORY_PACKAGE)) {
+                            return repository.getSimpleName() + "." + frame.getMethodName();
+                        }
+                    }
+                } else if (firstAppFrame == null && type.getName().startsWith(APP_PACKAGE)
+                        && type != SlowQueryLog.class) {
+                    firstAppFrame = type.getSimpleName() + "." + frame.getMethodName();
+                }
+            }
+            return firstAppFrame != null ? firstAppFrame : "unknown";
+        });
+    }
+
+    public record Summary(String statement, long count, long slowCount, long totalMillis, long maxMillis,
+                          String lastSlowCaller, String lastSlowParameters, String plan) {
+    }
+
+    private static final class StatementStats {
+
+        private final String statement;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder slowCount = new LongAdder();
+        private final LongAdder totalMillis = new LongAdder();
+        private final LongAccumulator maxMillis = new LongAccumulator(Math::max, 0);
+        private final AtomicBoolean planRequested = new AtomicBoolean();
+        private volatile String lastSlowCaller;
+        private volatile String lastSlowParameters;
+        private volatile String plan;
+
+        StatementStats(String statement) {
+            this.statement = statement;
+        }
+
+        void record(long elapsedMillis, boolean slow) {
+            count.increment();
+            totalMillis.add(elapsedMillis);
+            maxMillis.accumulate(elapsedMillis);
+            if (slow) {
+                slowCount.increment();
+            }
+        }
+
+        Summary summary() {
+            return new Summary(statement, count.sum(), slowCount.sum(), totalMillis.sum(), maxMillis.get(),
+                    lastSlowCaller, lastSlowParameters, plan);
+        }
+    }
+}
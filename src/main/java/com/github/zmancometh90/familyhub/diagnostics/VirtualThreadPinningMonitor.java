@@ -0,0 +1,96 @@
+package com.github.zmancometh90.familyhub.diagnostics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Watches the in-process JFR stream for {@code jdk.VirtualThreadPinned}: a virtual thread that
+ * blocked while it could not unmount from its carrier, e.g. inside a native frame or a class
+ * initializer (and, before JDK 24, inside {@code synchronized}). Each pin longer than the threshold
+ * is logged with the frame that blocked and the first frame in our own code, and counted in
+ * {@code familyhub.virtual.pinned} tagged with that frame.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String APP_PACKAGE = "com.github.zmancometh90.familyhub.";
+    private static final int MAX_LOGGED_FRAMES = 12;
+
+    private final MeterRegistry meterRegistry;
+    private final Duration threshold;
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                       @Value("${familyhub.diagnostics.pinning.threshold:PT20MS}") Duration threshold) {
+        this.meterRegistry = meterRegistry;
+        this.threshold = threshold;
+    }
+
+    @PostConstruct
+    void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("Reporting virtual thread pinning longer than {} ms", threshold.toMillis());
+    }
+
+    @PreDestroy
+    void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        List<RecordedFrame> frames = stackTrace != null ? stackTrace.getFrames() : List.of();
+        // Tagged by method rather than line to keep the number of counters small
+        String appFrame = frames.stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .map(VirtualThreadPinningMonitor::methodOf)
+                .filter(method -> method.startsWith(APP_PACKAGE))
+                .findFirst()
+                .orElse("none");
+
+        Counter.builder("familyhub.virtual.pinned")
+                .description("Virtual threads pinned to their carrier longer than the threshold")
+                .tag("frame", appFrame)
+                .register(meterRegistry)
+                .increment();
+
+        StringBuilder trace = new StringBuilder();
+        frames.stream()
+                .limit(MAX_LOGGED_FRAMES)
+                .forEach(frame -> trace.append("\n\tat ").append(describe(frame)));
+        log.warn("Virtual thread {} pinned for {} ms (first app frame: {}){}",
+                event.getThread() != null ? event.getThread().getJavaName() : "?",
+                event.getDuration().toMillis(), appFrame, trace);
+    }
+
+    private static String methodOf(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return methodOf(frame) + ":" + frame.getLineNumber();
+    }
+}
@@ -0,0 +1,447 @@
+package com.github.zmancometh90.familyhub.journal;
+
+import com.github.zmancometh90.familyhub.security.UserPrincipal;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of committed domain changes, stored as fixed-size binary records in
+ * memory-mapped segment files under {@code familyhub.journal.dir}.
+ *
+ * <p>Appends are queued and written by a single writer thread. The writer takes everything that
+ * queued up while the previous flush was running, writes it into the mapped segment and forces it
+ * to disk once for the whole group. A record's future completes, and readers can see it, only after
+ * that flush. A segment that fills up is flushed and a new one named after its first offset is
+ * started. Listeners are then handed the group's records on the writer thread.
+ *
+ * <p>Record layout (72 bytes, big-endian): entity type and op as 1-based ordinals (a zero type byte
+ * marks unused space), two reserved bytes, version, epoch millis, household id, entity id, actor id,
+ * and a CRC32C of the preceding 68 bytes.
+ */
+@Component
+public class ChangeJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeJournal.class);
+
+    static final int RECORD_SIZE = 72;
+    private static final int HOUSEHOLD_OFFSET = 20;
+    private static final int CRC_OFFSET = 68;
+    private static final int MAX_GROUP_SIZE = 1024;
+    private static final Pattern SEGMENT_NAME = Pattern.compile("\\d{20}\\.journal");
+    private static final PendingAppend SHUTDOWN = new PendingAppend(null, null);
+    private static final ThreadLocal<Map<UUID, UUID>> ACTORS = new ThreadLocal<>();
+
+    private final Path directory;
+    private final boolean ephemeral;
+    private final long recordsPerSegment;
+    private final FileChannel lockChannel;
+    private final FileLock directoryLock;
+    private final Map<Long, Segment> segments = new ConcurrentHashMap<>();
+    private final BlockingQueue<PendingAppend> queue = new LinkedBlockingQueue<>();
+    private final List<Consumer<List<ChangeRecord>>> listeners = new CopyOnWriteArrayList<>();
+    private final Thread writer;
+
+    // Owned by the writer thread
+    private Segment activeSegment;
+    private long nextOffset;
+
+    // Offset one past the last record that has been forced to disk
+    private volatile long committedOffset;
+    private volatile Instant lastCommitTime = Instant.EPOCH;
+    private volatile boolean closed;
+
+    /**
+     * @param ephemeral delete the directory on close, for a journal that only lives as long as an
+     *                  in-memory database (dev runs and test contexts)
+     */
+    public ChangeJournal(@Value("${familyhub.journal.dir}") Path directory,
+                         @Value("${familyhub.journal.segment-size:64MB}") DataSize segmentSize,
+                         @Value("${familyhub.journal.ephemeral:false}") boolean ephemeral) throws IOException {
+        this.directory = directory;
+        this.ephemeral = ephemeral;
+        this.recordsPerSegment = segmentSize.toBytes() / RECORD_SIZE;
+        if (recordsPerSegment < 1 || recordsPerSegment * RECORD_SIZE > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Journal segment size must be between "
+                    + RECORD_SIZE + " bytes and 2GB: " + segmentSize);
+        }
+
+        Files.createDirectories(directory);
+        this.lockChannel = FileChannel.open(directory.resolve("journal.lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        this.directoryLock = lockChannel.tryLock();
+        if (directoryLock == null) {
+            lockChannel.close();
+            throw new IllegalStateException("Change journal " + directory + " is in use by another process");
+        }
+
+        recover();
+        this.writer = Thread.ofPlatform()
+                .name("change-journal-writer")
+                .daemon()
+                .start(this::writeLoop);
+    }
+
+    /**
+     * Queues a change made by the current user to an entity of the given household. The returned
+     * future completes with the record's offset once it is durable; callers that only need ordering
+     * can ignore it.
+     */
+    public CompletableFuture<Long> append(UUID householdId, ChangeRecord.EntityType entityType, UUID entityId,
+                                          ChangeRecord.Op op, long version) {
+        ChangeRecord record = new ChangeRecord(-1, householdId, entityType, entityId, op, version, Instant.now(),
+                actorOf(entityId));
+        CompletableFuture<Long> future = new CompletableFuture<>();
+        if (closed) {
+            future.completeExceptionally(new IllegalStateException("Change journal is closed"));
+            return future;
+        }
+        queue.add(new PendingAppend(record, future));
+        return future;
+    }
+
+    /**
+     * Runs {@code task} with changes to the given entities attributed to the given users instead of
+     * the authenticated one, for work done on users' behalf outside their requests, such as a batch
+     * of their edits applied by a scheduled job. Not inherited by other threads.
+     */
+    public static <T> T callAs(Map<UUID, UUID> actorsByEntityId, Supplier<T> task) {
+        Map<UUID, UUID> previous = ACTORS.get();
+        ACTORS.set(actorsByEntityId);
+        try {
+            return task.get();
+        } finally {
+            if (previous != null) {
+                ACTORS.set(previous);
+            } else {
+                ACTORS.remove();
+            }
+        }
+    }
+
+    /**
+     * Returns up to {@code maxRecords} durable records starting at {@code fromOffset}, or an empty
+     * list if the reader has caught up.
+     */
+    public List<ChangeRecord> read(long fromOffset, int maxRecords) {
+        if (fromOffset < 0) {
+            throw new IllegalArgumentException("Offset must not be negative: " + fromOffset);
+        }
+        long end = Math.min(committedOffset, fromOffset + maxRecords);
+        List<ChangeRecord> records = new ArrayList<>((int) Math.max(0, end - fromOffset));
+        byte[] bytes = new byte[RECORD_SIZE];
+        for (long offset = fromOffset; offset < end; offset++) {
+            Segment segment = segmentFor(offset);
+            segment.buffer.get(slotPosition(offset), bytes);
+            records.add(decode(offset, bytes));
+        }
+        return records;
+    }
+
+    /**
+     * Returns up to {@code maxRecords} durable records of one household, looking at no more than
+     * {@code maxScanned} records from {@code fromOffset}. Only the household id of a skipped record
+     * is read. The page says where to resume, so a quiet household does not rescan the same range.
+     */
+    public ChangePage read(UUID householdId, long fromOffset, int maxRecords, int maxScanned) {
+        if (fromOffset < 0) {
+            throw new IllegalArgumentException("Offset must not be negative: " + fromOffset);
+        }
+        long end = Math.min(committedOffset, fromOffset + maxScanned);
+        List<ChangeRecord> records = new ArrayList<>();
+        byte[] bytes = new byte[RECORD_SIZE];
+        long offset = fromOffset;
+        while (offset < end && records.size() < maxRecords) {
+            Segment segment = segmentFor(offset);
+            int position = slotPosition(offset);
+            if (segment.buffer.getLong(position + HOUSEHOLD_OFFSET) == householdId.getMostSignificantBits()
+                    && segment.buffer.getLong(position + HOUSEHOLD_OFFSET + 8) == householdId.getLeastSignificantBits()) {
+                segment.buffer.get(position, bytes);
+                records.add(decode(offset, bytes));
+            }
+            offset++;
+        }
+        return new ChangePage(records, offset);
+    }
+
+    /**
+     * Registers a listener for newly committed records. It is called on the writer thread after
+     * every flush, so it must hand the records off without blocking.
+     */
+    public void addListener(Consumer<List<ChangeRecord>> listener) {
+        listeners.add(listener);
+    }
+
+    // Offset the next durable record will get; a reader that is caught up polls from here
+    public long getCommittedOffset() {
+        return committedOffset;
+    }
+
+    // When the last change was committed, or the epoch if none since startup
+    public Instant getLastCommitTime() {
+        return lastCommitTime;
+    }
+
+    @PreDestroy
+    public void close() throws IOException, InterruptedException {
+        closed = true;
+        queue.add(SHUTDOWN);
+        writer.join(10_000);
+        for (Segment segment : segments.values()) {
+            segment.channel.close();
+        }
+        directoryLock.release();
+        lockChannel.close();
+        if (ephemeral) {
+            deleteDirectory();
+        }
+    }
+
+    private void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    private void writeLoop() {
+        List<PendingAppend> group = new ArrayList<>(MAX_GROUP_SIZE);
+        boolean running = true;
+        while (running) {
+            try {
+                group.add(queue.take());
+                queue.drainTo(group, MAX_GROUP_SIZE - 1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+
+            List<Long> offsets = new ArrayList<>(group.size());
+            try {
+                for (PendingAppend pending : group) {
+                    if (pending == SHUTDOWN) {
+                        running = false;
+                        continue;
+                    }
+                    offsets.add(write(pending.record()));
+                }
+                activeSegment.buffer.force();
+                committedOffset = nextOffset;
+                if (!offsets.isEmpty()) {
+                    lastCommitTime = Instant.now();
+                }
+
+                List<ChangeRecord> committed = new ArrayList<>(offsets.size());
+                int i = 0;
+                for (PendingAppend pending : group) {
+                    if (pending != SHUTDOWN) {
+                        long offset = offsets.get(i++);
+                        pending.future().complete(offset);
+                        committed.add(pending.record().withOffset(offset));
+                    }
+                }
+                notifyListeners(committed);
+            } catch (RuntimeException e) {
+                log.error("Failed to write {} change journal records", group.size(), e);
+                for (PendingAppend pending : group) {
+                    if (pending != SHUTDOWN) {
+                        pending.future().completeExceptionally(e);
+                    }
+                }
+            }
+            group.clear();
+        }
+    }
+
+    private void notifyListeners(List<ChangeRecord> committed) {
+        if (committed.isEmpty()) {
+            return;
+        }
+        for (Consumer<List<ChangeRecord>> listener : listeners) {
+            try {
+                listener.accept(committed);
+            } catch (RuntimeException e) {
+                log.warn("Change journal listener failed", e);
+            }
+        }
+    }
+
+    private long write(ChangeRecord record) {
+        if (nextOffset - activeSegment.firstOffset == recordsPerSegment) {
+            activeSegment.buffer.force();
+            activeSegment = openSegment(nextOffset);
+        }
+        long offset = nextOffset;
+        activeSegment.buffer.put(slotPosition(offset), encode(record));
+        nextOffset++;
+        return offset;
+    }
+
+    private void recover() throws IOException {
+        List<Long> firstOffsets;
+        try (Stream<Path> files = Files.list(directory)) {
+            firstOffsets = files
+                    .map(path -> path.getFileName().toString())
+                    .filter(name -> SEGMENT_NAME.matcher(name).matches())
+                    .map(name -> Long.parseLong(name.substring(0, 20)))
+                    .sorted()
+                    .toList();
+        }
+
+        long lastFirstOffset = firstOffsets.isEmpty() ? 0 : firstOffsets.getLast();
+        activeSegment = openSegment(lastFirstOffset);
+
+        // Find the end of the last segment: the first unused or torn slot
+        byte[] bytes = new byte[RECORD_SIZE];
+        long slot = 0;
+        while (slot < recordsPerSegment) {
+            activeSegment.buffer.get((int) (slot * RECORD_SIZE), bytes);
+            if (bytes[0] == 0 || !hasValidChecksum(bytes)) {
+                break;
+            }
+            slot++;
+        }
+
+        // A crash mid-flush can leave complete records behind a torn one. Clear them so they are
+        // not mistaken for new records once the slots before them are reused.
+        for (long i = slot; i < recordsPerSegment; i++) {
+            int position = (int) (i * RECORD_SIZE);
+            if (activeSegment.buffer.get(position) == 0) {
+                break;
+            }
+            activeSegment.buffer.put(position, new byte[RECORD_SIZE]);
+        }
+        activeSegment.buffer.force();
+
+        nextOffset = lastFirstOffset + slot;
+        committedOffset = nextOffset;
+        log.info("Change journal at {} opened with {} records", directory, nextOffset);
+    }
+
+    private Segment segmentFor(long offset) {
+        long firstOffset = offset - offset % recordsPerSegment;
+        return segments.computeIfAbsent(firstOffset, this::mapSegment);
+    }
+
+    private Segment openSegment(long firstOffset) {
+        Segment segment = mapSegment(firstOffset);
+        segments.put(firstOffset, segment);
+        return segment;
+    }
+
+    private Segment mapSegment(long firstOffset) {
+        Path path = directory.resolve(String.format("%020d.journal", firstOffset));
+        try {
+            FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            // Mapping past the end grows the file; the unwritten tail reads as zeros
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, recordsPerSegment * RECORD_SIZE);
+            return new Segment(firstOffset, channel, buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not map journal segment " + path, e);
+        }
+    }
+
+    private int slotPosition(long offset) {
+        return (int) ((offset % recordsPerSegment) * RECORD_SIZE);
+    }
+
+    private static byte[] encode(ChangeRecord record) {
+        byte[] bytes = new byte[RECORD_SIZE];
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        buffer.put((byte) (record.entityType().ordinal() + 1));
+        buffer.put((byte) (record.op().ordinal() + 1));
+        buffer.putShort((short) 0);
+        buffer.putLong(record.version());
+        buffer.putLong(record.timestamp().toEpochMilli());
+        putUuid(buffer, record.householdId());
+        putUuid(buffer, record.entityId());
+        putUuid(buffer, record.actorId());
+        buffer.putInt(checksum(bytes));
+        return bytes;
+    }
+
+    private static ChangeRecord decode(long offset, byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        ChangeRecord.EntityType entityType = ChangeRecord.EntityType.values()[buffer.get() - 1];
+        ChangeRecord.Op op = ChangeRecord.Op.values()[buffer.get() - 1];
+        buffer.getShort();
+        long version = buffer.getLong();
+        Instant timestamp = Instant.ofEpochMilli(buffer.getLong());
+        UUID householdId = getUuid(buffer);
+        UUID entityId = getUuid(buffer);
+        UUID actorId = getUuid(buffer);
+        return new ChangeRecord(offset, householdId, entityType, entityId, op, version, timestamp, actorId);
+    }
+
+    private static void putUuid(ByteBuffer buffer, UUID uuid) {
+        buffer.putLong(uuid != null ? uuid.getMostSignificantBits() : 0);
+        buffer.putLong(uuid != null ? uuid.getLeastSignificantBits() : 0);
+    }
+
+    private static UUID getUuid(ByteBuffer buffer) {
+        long msb = buffer.getLong();
+        long lsb = buffer.getLong();
+        return msb == 0 && lsb == 0 ? null : new UUID(msb, lsb);
+    }
+
+    private static int checksum(byte[] bytes) {
+        CRC32C crc = new CRC32C();
+        crc.update(bytes, 0, CRC_OFFSET);
+        return (int) crc.getValue();
+    }
+
+    private static boolean hasValidChecksum(byte[] bytes) {
+        return ByteBuffer.wrap(bytes).getInt(CRC_OFFSET) == checksum(bytes);
+    }
+
+    private static UUID actorOf(UUID entityId) {
+        Map<UUID, UUID> actors = ACTORS.get();
+        if (actors != null && actors.containsKey(entityId)) {
+            return actors.get(entityId);
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.getId();
+        }
+        return null;
+    }
+
+    private record Segment(long firstOffset, FileChannel channel, MappedByteBuffer buffer) {
+    }
+
+    private record PendingAppend(ChangeRecord record, CompletableFuture<Long> future) {
+    }
+}
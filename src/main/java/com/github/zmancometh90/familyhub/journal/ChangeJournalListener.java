@@ -0,0 +1,112 @@
+package com.github.zmancometh90.familyhub.journal;
+
+import com.github.zmancometh90.familyhub.models.Chore;
+import com.github.zmancometh90.familyhub.models.Event;
+import com.github.zmancometh90.familyhub.models.FavoriteItem;
+import com.github.zmancometh90.familyhub.models.GroceryItem;
+import com.github.zmancometh90.familyhub.models.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Appends a journal record for every committed insert, update and delete of a domain entity,
+ * whichever service made it. Hibernate calls the post-commit listeners only once the transaction
+ * has committed, so rolled-back changes never reach the journal. Bulk JPQL and batch deletes
+ * bypass Hibernate events; code using them appends to the {@link ChangeJournal} itself.
+ */
+@Component
+public class ChangeJournalListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+    private static final Map<Class<?>, ChangeRecord.EntityType> ENTITY_TYPES = Map.of(
+            Chore.class, ChangeRecord.EntityType.CHORE,
+            Event.class, ChangeRecord.EntityType.EVENT,
+            GroceryItem.class, ChangeRecord.EntityType.GROCERY_ITEM,
+            FavoriteItem.class, ChangeRecord.EntityType.FAVORITE_ITEM,
+            User.class, ChangeRecord.EntityType.USER
+    );
+
+    private final ChangeJournal changeJournal;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public ChangeJournalListener(ChangeJournal changeJournal, EntityManagerFactory entityManagerFactory) {
+        this.changeJournal = changeJournal;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        append(event.getPersister(), event.getEntity(), event.getId(), ChangeRecord.Op.CREATE);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        append(event.getPersister(), event.getEntity(), event.getId(), ChangeRecord.Op.UPDATE);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        append(event.getPersister(), event.getEntity(), event.getId(), ChangeRecord.Op.DELETE);
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return ENTITY_TYPES.containsKey(persister.getMappedClass());
+    }
+
+    private void append(EntityPersister persister, Object entity, Object id, ChangeRecord.Op op) {
+        ChangeRecord.EntityType entityType = ENTITY_TYPES.get(persister.getMappedClass());
+        if (entityType == null) {
+            return;
+        }
+        long version = persister.isVersioned() && persister.getVersion(entity) instanceof Long v ? v : 0;
+        changeJournal.append(householdOf(entity), entityType, (UUID) id, op, version);
+    }
+
+    private static UUID householdOf(Object entity) {
+        return switch (entity) {
+            case Chore chore -> chore.getHouseholdId();
+            case Event event -> event.getHouseholdId();
+            case GroceryItem item -> item.getHouseholdId();
+            case FavoriteItem item -> item.getHouseholdId();
+            case User user -> user.getHouseholdId();
+            default -> null;
+        };
+    }
+}
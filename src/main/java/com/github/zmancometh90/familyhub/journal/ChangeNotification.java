@@ -0,0 +1,19 @@
+package com.github.zmancometh90.familyhub.journal;
+
+import java.util.UUID;
+
+// What a change stream subscriber is told about one committed change; enough to patch or refetch one row
+public record ChangeNotification(
+        long offset,
+        ChangeRecord.EntityType type,
+        UUID id,
+        ChangeRecord.Op op,
+        long version,
+        UUID actorId
+) {
+
+    static ChangeNotification of(ChangeRecord record) {
+        return new ChangeNotification(record.offset(), record.entityType(), record.entityId(), record.op(),
+                record.version(), record.actorId());
+    }
+}
@@ -0,0 +1,13 @@
+package com.github.zmancometh90.familyhub.journal;
+
+import java.util.List;
+
+/**
+ * A household's records from one journal read. {@code nextOffset} is where the next read should
+ * start; it can be past the last returned record when other households' records were skipped.
+ */
+public record ChangePage(
+        List<ChangeRecord> changes,
+        long nextOffset
+) {
+}
@@ -0,0 +1,40 @@
+package com.github.zmancometh90.familyhub.journal;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One committed change as stored in the journal. {@code offset} is the record's position in the
+ * journal; a reader that has seen offset n resumes from n + 1. {@code householdId} is the household
+ * the entity belongs to. {@code actorId} is null for changes
+ * made outside a user request, such as scheduled jobs.
+ */
+public record ChangeRecord(
+        long offset,
+        UUID householdId,
+        EntityType entityType,
+        UUID entityId,
+        Op op,
+        long version,
+        Instant timestamp,
+        UUID actorId
+) {
+
+    public ChangeRecord withOffset(long offset) {
+        return new ChangeRecord(offset, householdId, entityType, entityId, op, version, timestamp, actorId);
+    }
+
+    public enum EntityType {
+        CHORE,
+        EVENT,
+        GROCERY_ITEM,
+        FAVORITE_ITEM,
+        USER
+    }
+
+    public enum Op {
+        CREATE,
+        UPDATE,
+        DELETE
+    }
+}
@@ -0,0 +1,283 @@
+package com.github.zmancometh90.familyhub.journal;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pushes committed changes from the {@link ChangeJournal} to Server-Sent Events subscribers, per
+ * household and topic.
+ *
+ * <p>An idle subscriber is only an {@link SseEmitter} on an async servlet request, so it holds no
+ * thread. New changes go into the subscriber's bounded buffer and a virtual thread is started to
+ * send them if none is sending already; it exits once the buffer is empty. When a slow client lets
+ * the buffer fill up, the buffered changes are dropped and replaced by a single
+ * {@code resync} event carrying the first offset it missed, after which the client refetches the
+ * list and keeps listening.
+ */
+@Component
+public class ChangeStreamBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeStreamBroadcaster.class);
+
+    public enum Topic {
+        GROCERY(ChangeRecord.EntityType.GROCERY_ITEM),
+        CHORES(ChangeRecord.EntityType.CHORE),
+        EVENTS(ChangeRecord.EntityType.EVENT);
+
+        private final ChangeRecord.EntityType entityType;
+
+        Topic(ChangeRecord.EntityType entityType) {
+            this.entityType = entityType;
+        }
+
+        static Topic of(ChangeRecord.EntityType entityType) {
+            for (Topic topic : values()) {
+                if (topic.entityType == entityType) {
+                    return topic;
+                }
+            }
+            return null;
+        }
+    }
+
+    private final ChangeJournal changeJournal;
+    private final int bufferSize;
+    private final Duration timeout;
+    private final Map<SubscriptionKey, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    public ChangeStreamBroadcaster(ChangeJournal changeJournal,
+                                   @Value("${familyhub.changes.stream.buffer-size:64}") int bufferSize,
+                                   @Value("${familyhub.changes.stream.timeout:PT30M}") Duration timeout) {
+        this.changeJournal = changeJournal;
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+    }
+
+    @PostConstruct
+    void register() {
+        changeJournal.addListener(this::publish);
+    }
+
+    /**
+     * Opens a stream for one household and topic. The first event is {@code ready} with the
+     * journal offset the stream starts at, so a client can tell which changes its list already has.
+     */
+    public SseEmitter subscribe(UUID householdId, Topic topic) {
+        SubscriptionKey key = new SubscriptionKey(householdId, topic);
+        SseEmitter emitter = createEmitter();
+        Subscriber subscriber = new Subscriber(emitter, bufferSize);
+
+        // Added and removed inside compute, so a group emptied concurrently is not reused after removal
+        subscribers.compute(key, (k, group) -> {
+            Set<Subscriber> members = group != null ? group : ConcurrentHashMap.<Subscriber>newKeySet();
+            members.add(subscriber);
+            return members;
+        });
+        Runnable remove = () -> subscribers.computeIfPresent(key, (k, group) -> {
+            group.remove(subscriber);
+            return group.isEmpty() ? null : group;
+        });
+        emitter.onCompletion(remove);
+        emitter.onTimeout(() -> {
+            remove.run();
+            emitter.complete();
+        });
+        emitter.onError(e -> remove.run());
+
+        // Read once the subscriber is in the group, so every later change reaches it. Changes it
+        // was handed before this are already in the list as of the ready offset and are dropped.
+        subscriber.start(changeJournal.getCommittedOffset());
+        return emitter;
+    }
+
+    // Overridden in tests to control how fast the client reads
+    SseEmitter createEmitter() {
+        return new SseEmitter(timeout.toMillis());
+    }
+
+    // Keeps idle connections open through proxies that drop silent ones
+    @Scheduled(fixedDelayString = "${familyhub.changes.stream.heartbeat:PT30S}")
+    public void heartbeat() {
+        for (Set<Subscriber> group : subscribers.values()) {
+            for (Subscriber subscriber : group) {
+                subscriber.heartbeat();
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    // Households and topics with at least one open stream
+    int getGroupCount() {
+        return subscribers.size();
+    }
+
+    // Called on the journal writer thread; only buffers and starts senders
+    private void publish(List<ChangeRecord> records) {
+        for (ChangeRecord record : records) {
+            Topic topic = Topic.of(record.entityType());
+            if (topic == null || record.householdId() == null) {
+                continue;
+            }
+            Set<Subscriber> group = subscribers.get(new SubscriptionKey(record.householdId(), topic));
+            if (group == null) {
+                continue;
+            }
+            for (Subscriber subscriber : group) {
+                subscriber.offer(record);
+            }
+        }
+    }
+
+    private record SubscriptionKey(UUID householdId, Topic topic) {
+    }
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final int capacity;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final ArrayDeque<Outbound> buffer;
+        // First offset the client missed while its buffer was collapsed, or -1
+        private long resyncFrom = -1;
+        // Nothing is sent until the ready event is at the head of the buffer; a collapse keeps it
+        private Outbound ready;
+        private long readyOffset;
+        private boolean started;
+        private boolean sending;
+
+        private Subscriber(SseEmitter emitter, int capacity) {
+            this.emitter = emitter;
+            this.capacity = capacity;
+            this.buffer = new ArrayDeque<>(capacity);
+        }
+
+        private void offer(ChangeRecord record) {
+            lock.lock();
+            try {
+                if (record.offset() < readyOffset) {
+                    // Committed before the stream started, but only announced now
+                    return;
+                }
+                if (resyncFrom >= 0) {
+                    // Already collapsed; the pending resync covers this change too
+                    return;
+                }
+                if (buffer.size() < capacity) {
+                    buffer.add(new Outbound(record.offset(), SseEmitter.event()
+                            .id(Long.toString(record.offset()))
+                            .name("change")
+                            .data(ChangeNotification.of(record))));
+                } else {
+                    resyncFrom = buffer.stream()
+                            .mapToLong(Outbound::offset)
+                            .filter(offset -> offset >= 0)
+                            .min()
+                            .orElse(record.offset());
+                    buffer.removeIf(outbound -> outbound != ready);
+                    buffer.add(new Outbound(-1, SseEmitter.event()
+                            .name("resync")
+                            .data(Map.of("since", resyncFrom))));
+                }
+            } finally {
+                lock.unlock();
+            }
+            startSending();
+        }
+
+        private void start(long readyOffset) {
+            lock.lock();
+            try {
+                buffer.removeIf(outbound -> outbound.offset() >= 0 && outbound.offset() < readyOffset);
+                ready = new Outbound(-1, SseEmitter.event().name("ready").data(readyOffset));
+                buffer.addFirst(ready);
+                this.readyOffset = readyOffset;
+                started = true;
+            } finally {
+                lock.unlock();
+            }
+            startSending();
+        }
+
+        private void heartbeat() {
+            lock.lock();
+            try {
+                if (!started || !buffer.isEmpty()) {
+                    return;
+                }
+                buffer.add(new Outbound(-1, SseEmitter.event().comment("heartbeat")));
+            } finally {
+                lock.unlock();
+            }
+            startSending();
+        }
+
+        private void startSending() {
+            lock.lock();
+            try {
+                if (!started || sending) {
+                    return;
+                }
+                sending = true;
+            } finally {
+                lock.unlock();
+            }
+            Thread.ofVirtual().name("change-stream-sender").start(this::sendAll);
+        }
+
+        private void sendAll() {
+            while (true) {
+                Outbound next;
+                lock.lock();
+                try {
+                    next = buffer.pollFirst();
+                    if (next == null) {
+                        // Everything up to here, including any resync, has been sent
+                        resyncFrom = -1;
+                        sending = false;
+                        return;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+
+                try {
+                    emitter.send(next.event());
+                } catch (IOException | IllegalStateException e) {
+                    // The client went away; the emitter callbacks remove the subscriber. sending
+                    // stays set, so no new sender is started for it.
+                    log.debug("Dropping change stream subscriber: {}", e.getMessage());
+                    lock.lock();
+                    try {
+                        buffer.clear();
+                    } finally {
+                        lock.unlock();
+                    }
+                    emitter.completeWithError(e);
+                    return;
+                }
+            }
+        }
+    }
+
+    // offset is -1 for events that are not a single change
+    private record Outbound(long offset, SseEmitter.SseEventBuilder event) {
+    }
+}
@@ -0,0 +1,113 @@
+package com.github.zmancometh90.familyhub.models;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.TenantId;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Compact, append-only copy of a completed grocery item. Rows are written once by the archiver
+ * and never updated, and user references are kept as plain ids so the table carries no joins.
+ */
+@Entity
+@Immutable
+@Table(name = "grocery_item_archive")
+public class ArchivedGroceryItem implements Persistable<UUID> {
+
+    @Id
+    private UUID id;
+
+    // Set from the current household on insert; Hibernate adds it to every query and load
+    @TenantId
+    @Column(name = "household_id", nullable = false, updatable = false)
+    private UUID householdId;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false)
+    private String category;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(name = "added_by_id", nullable = false)
+    private UUID addedById;
+
+    @Column(name = "completed_by_id")
+    private UUID completedById;
+
+    @Column(name = "completed_at", nullable = false)
+    private LocalDateTime completedAt;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    protected ArchivedGroceryItem() {}
+
+    public ArchivedGroceryItem(GroceryItem item, LocalDateTime archivedAt) {
+        this.id = item.getId();
+        this.name = item.getName();
+        this.category = item.getCategory();
+        this.quantity = item.getQuantity();
+        this.addedById = item.getAddedBy().getId();
+        this.completedById = item.getCompletedBy() != null ? item.getCompletedBy().getId() : null;
+        this.completedAt = item.getCompletedAt();
+        this.createdAt = item.getCreatedAt();
+        this.archivedAt = archivedAt;
+        this.householdId = item.getHouseholdId();
+    }
+
+    @Override
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getHouseholdId() {
+        return householdId;
+    }
+
+    // The id is copied from the live item, so tell Spring Data to persist rather than merge
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public UUID getAddedById() {
+        return addedById;
+    }
+
+    public UUID getCompletedById() {
+        return completedById;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+}
@@ -0,0 +1,103 @@
+package com.github.zmancometh90.familyhub.models;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public class ArchivedGroceryItemDTO {
+
+    private UUID id;
+    private String name;
+    private String category;
+    private Integer quantity;
+    private UUID addedById;
+    private UUID completedById;
+    private LocalDateTime completedAt;
+    private LocalDateTime createdAt;
+    private LocalDateTime archivedAt;
+
+    public ArchivedGroceryItemDTO() {}
+
+    public ArchivedGroceryItemDTO(ArchivedGroceryItem item) {
+        this.id = item.getId();
+        this.name = item.getName();
+        this.category = item.getCategory();
+        this.quantity = item.getQuantity();
+        this.addedById = item.getAddedById();
+        this.completedById = item.getCompletedById();
+        this.completedAt = item.getCompletedAt();
+        this.createdAt = item.getCreatedAt();
+        this.archivedAt = item.getArchivedAt();
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public UUID getAddedById() {
+        return addedById;
+    }
+
+    public void setAddedById(UUID addedById) {
+        this.addedById = addedById;
+    }
+
+    public UUID getCompletedById() {
+        return completedById;
+    }
+
+    public void setCompletedById(UUID completedById) {
+        this.completedById = completedById;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+
+    public void setArchivedAt(LocalDateTime archivedAt) {
+        this.archivedAt = archivedAt;
+    }
+}
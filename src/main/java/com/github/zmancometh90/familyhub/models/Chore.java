@@ -1,7 +1,11 @@
 package com.github.zmancometh90.familyhub.models;
 
+import com.github.zmancometh90.familyhub.persistence.FamilyHubUuid;
 import jakarta.persistence.*;
-import org.hibernate.annotations.UuidGenerator;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.SQLRestriction;
+import org.hibernate.annotations.TenantId;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -9,13 +13,21 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "chores")
+@SQLRestriction("deleted_at IS NULL")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "chores")
 public class Chore {
 
     @Id
     @GeneratedValue
-    @UuidGenerator
+    @FamilyHubUuid
     private UUID id;
 
+    // Set from the current household on insert; Hibernate adds it to every query and load
+    @TenantId
+    @Column(name = "household_id", nullable = false, updatable = false)
+    private UUID householdId;
+
     @Column(nullable = false)
     private String title;
 
@@ -58,6 +70,13 @@ public class Chore {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @Version
+    private Long version;
+
+    // Set by soft delete; rows with a deleted_at are invisible to entity queries until purged
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
     private boolean isRecurring = false;
 
     @Column(name = "recurrence_pattern")
@@ -107,6 +126,7 @@ public class Chore {
         this.title = title;
         this.description = description;
         this.createdBy = createdBy;
+        this.householdId = createdBy.getHouseholdId();
     }
 
     // Getters and Setters
@@ -118,6 +138,14 @@ public class Chore {
         this.id = id;
     }
 
+    public UUID getHouseholdId() {
+        return householdId;
+    }
+
+    public void setHouseholdId(UUID householdId) {
+        this.householdId = householdId;
+    }
+
     public String getTitle() {
         return title;
     }
@@ -225,6 +253,22 @@ public class Chore {
         this.updatedAt = updatedAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+
     public boolean isRecurring() {
         return isRecurring;
     }
@@ -20,6 +20,7 @@ public class ChoreDTO {
     private LocalDateTime updatedAt;
     private boolean isRecurring;
     private String recurrencePattern;
+    private Long version;
 
     public ChoreDTO() {}
 
@@ -40,6 +41,7 @@ public class ChoreDTO {
         this.updatedAt = chore.getUpdatedAt();
         this.isRecurring = chore.isRecurring();
         this.recurrencePattern = chore.getRecurrencePattern();
+        this.version = chore.getVersion();
     }
 
     // Getters and Setters
@@ -163,6 +165,14 @@ public class ChoreDTO {
         this.recurrencePattern = recurrencePattern;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public Object getCompletedBy() {
         return completedBy;
     }
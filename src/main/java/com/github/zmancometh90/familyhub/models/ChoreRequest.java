@@ -11,7 +11,8 @@ public record ChoreRequest(
     String priority,
     String assignedToId,
     boolean isRecurring,
-    String recurrencePattern
+    String recurrencePattern,
+    Long version
 ) {
     public ChoreRequest {
         if (title == null || title.trim().isEmpty()) {
@@ -0,0 +1,71 @@
+package com.github.zmancometh90.familyhub.models;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Everything the dashboard shows on load. A section that failed or missed the deadline is null
+// and has an entry in errors keyed by the section name.
+public class DashboardDTO {
+
+    private UserDTO user;
+    private List<ChoreDTO> myChores;
+    private List<ChoreDTO> overdueChores;
+    private List<GroceryItemDTO> activeGroceryItems;
+    private List<EventDTO> upcomingEvents;
+    private Map<String, String> errors = new LinkedHashMap<>();
+
+    public DashboardDTO() {}
+
+    public UserDTO getUser() {
+        return user;
+    }
+
+    public void setUser(UserDTO user) {
+        this.user = user;
+    }
+
+    public List<ChoreDTO> getMyChores() {
+        return myChores;
+    }
+
+    public void setMyChores(List<ChoreDTO> myChores) {
+        this.myChores = myChores;
+    }
+
+    public List<ChoreDTO> getOverdueChores() {
+        return overdueChores;
+    }
+
+    public void setOverdueChores(List<ChoreDTO> overdueChores) {
+        this.overdueChores = overdueChores;
+    }
+
+    public List<GroceryItemDTO> getActiveGroceryItems() {
+        return activeGroceryItems;
+    }
+
+    public void setActiveGroceryItems(List<GroceryItemDTO> activeGroceryItems) {
+        this.activeGroceryItems = activeGroceryItems;
+    }
+
+    public List<EventDTO> getUpcomingEvents() {
+        return upcomingEvents;
+    }
+
+    public void setUpcomingEvents(List<EventDTO> upcomingEvents) {
+        this.upcomingEvents = upcomingEvents;
+    }
+
+    public Map<String, String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(Map<String, String> errors) {
+        this.errors = errors;
+    }
+
+    public boolean isComplete() {
+        return errors.isEmpty();
+    }
+}
@@ -1,21 +1,30 @@
 package com.github.zmancometh90.familyhub.models;
 
+import com.github.zmancometh90.familyhub.persistence.FamilyHubUuid;
 import jakarta.persistence.*;
-import org.hibernate.annotations.UuidGenerator;
+import org.hibernate.annotations.SQLRestriction;
+import org.hibernate.annotations.TenantId;
 
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.UUID;
 
 @Entity
 @Table(name = "events")
+@SQLRestriction("deleted_at IS NULL")
 public class Event {
 
     @Id
     @GeneratedValue
-    @UuidGenerator
+    @FamilyHubUuid
     private UUID id;
 
+    // Set from the current household on insert; Hibernate adds it to every query and load
+    @TenantId
+    @Column(name = "household_id", nullable = false, updatable = false)
+    private UUID householdId;
+
     @Column(nullable = false)
     private String title;
 
@@ -51,7 +60,8 @@ public class Event {
         joinColumns = @JoinColumn(name = "event_id"),
         inverseJoinColumns = @JoinColumn(name = "user_id")
     )
-    private List<User> attendees;
+    // A set rather than a bag, so removing one attendee deletes one join row instead of rewriting them all
+    private Set<User> attendees = new HashSet<>();
 
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
@@ -59,6 +69,13 @@ public class Event {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @Version
+    private Long version;
+
+    // Set by soft delete; rows with a deleted_at are invisible to entity queries until purged
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -99,6 +116,7 @@ public class Event {
         this.startTime = startTime;
         this.endTime = endTime;
         this.createdBy = createdBy;
+        this.householdId = createdBy.getHouseholdId();
     }
 
     public UUID getId() {
@@ -109,6 +127,14 @@ public class Event {
         this.id = id;
     }
 
+    public UUID getHouseholdId() {
+        return householdId;
+    }
+
+    public void setHouseholdId(UUID householdId) {
+        this.householdId = householdId;
+    }
+
     public String getTitle() {
         return title;
     }
@@ -189,11 +215,11 @@ public class Event {
         this.createdBy = createdBy;
     }
 
-    public List<User> getAttendees() {
+    public Set<User> getAttendees() {
         return attendees;
     }
 
-    public void setAttendees(List<User> attendees) {
+    public void setAttendees(Set<User> attendees) {
         this.attendees = attendees;
     }
 
@@ -212,4 +238,20 @@ public class Event {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
 }
\ No newline at end of file
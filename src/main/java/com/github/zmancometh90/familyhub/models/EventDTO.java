@@ -20,13 +20,14 @@ public class EventDTO {
     private List<UserDTO> attendees;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
 
     public EventDTO() {}
 
     public EventDTO(UUID id, String title, String description, LocalDateTime startTime, LocalDateTime endTime,
                    String location, Event.EventType eventType, Event.EventStatus status,
                    boolean isRecurring, String recurrencePattern, UserDTO createdBy,
-                   List<UserDTO> attendees, LocalDateTime createdAt, LocalDateTime updatedAt) {
+                   List<UserDTO> attendees, LocalDateTime createdAt, LocalDateTime updatedAt, Long version) {
         this.id = id;
         this.title = title;
         this.description = description;
@@ -41,6 +42,7 @@ public class EventDTO {
         this.attendees = attendees;
         this.createdAt = createdAt;
         this.updatedAt = updatedAt;
+        this.version = version;
     }
 
     public UUID getId() {
@@ -154,4 +156,12 @@ public class EventDTO {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
-}
\ No newline at end of file
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -1,7 +1,8 @@
 package com.github.zmancometh90.familyhub.models;
 
+import com.github.zmancometh90.familyhub.persistence.FamilyHubUuid;
 import jakarta.persistence.*;
-import org.hibernate.annotations.UuidGenerator;
+import org.hibernate.annotations.TenantId;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -14,9 +15,14 @@ public class FavoriteItem {
 
     @Id
     @GeneratedValue
-    @UuidGenerator
+    @FamilyHubUuid
     private UUID id;
 
+    // Set from the current household on insert; Hibernate adds it to every query and load
+    @TenantId
+    @Column(name = "household_id", nullable = false, updatable = false)
+    private UUID householdId;
+
     @Column(nullable = false)
     private String name;
 
@@ -39,6 +45,9 @@ public class FavoriteItem {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @Version
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -57,6 +66,7 @@ public class FavoriteItem {
         this.category = category;
         this.defaultQuantity = defaultQuantity;
         this.user = user;
+        this.householdId = user.getHouseholdId();
     }
 
     public UUID getId() {
@@ -67,6 +77,14 @@ public class FavoriteItem {
         this.id = id;
     }
 
+    public UUID getHouseholdId() {
+        return householdId;
+    }
+
+    public void setHouseholdId(UUID householdId) {
+        this.householdId = householdId;
+    }
+
     public String getName() {
         return name;
     }
@@ -122,4 +140,12 @@ public class FavoriteItem {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
\ No newline at end of file
@@ -13,11 +13,13 @@ public class FavoriteItemDTO {
     private UserDTO user;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
 
     public FavoriteItemDTO() {}
 
     public FavoriteItemDTO(UUID id, String name, String description, String category,
-                          Integer defaultQuantity, UserDTO user, LocalDateTime createdAt, LocalDateTime updatedAt) {
+                          Integer defaultQuantity, UserDTO user, LocalDateTime createdAt, LocalDateTime updatedAt,
+                          Long version) {
         this.id = id;
         this.name = name;
         this.description = description;
@@ -26,6 +28,7 @@ public class FavoriteItemDTO {
         this.user = user;
         this.createdAt = createdAt;
         this.updatedAt = updatedAt;
+        this.version = version;
     }
 
     public UUID getId() {
@@ -91,4 +94,12 @@ public class FavoriteItemDTO {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
-}
\ No newline at end of file
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
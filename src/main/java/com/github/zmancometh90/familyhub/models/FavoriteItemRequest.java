@@ -4,6 +4,7 @@ public record FavoriteItemRequest(
         String name,
         String description,
         String category,
-        Integer defaultQuantity
+        Integer defaultQuantity,
+        Long version
 ) {
 }
\ No newline at end of file
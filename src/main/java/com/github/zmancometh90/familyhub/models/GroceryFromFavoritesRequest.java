@@ -0,0 +1,10 @@
+package com.github.zmancometh90.familyhub.models;
+
+import java.util.List;
+import java.util.UUID;
+
+public record GroceryFromFavoritesRequest(
+        List<UUID> favoriteIds,
+        String category
+) {
+}
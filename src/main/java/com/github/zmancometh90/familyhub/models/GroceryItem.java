@@ -1,20 +1,28 @@
 package com.github.zmancometh90.familyhub.models;
 
+import com.github.zmancometh90.familyhub.persistence.FamilyHubUuid;
 import jakarta.persistence.*;
-import org.hibernate.annotations.UuidGenerator;
+import org.hibernate.annotations.SQLRestriction;
+import org.hibernate.annotations.TenantId;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
 @Table(name = "grocery_items")
+@SQLRestriction("deleted_at IS NULL")
 public class GroceryItem {
 
     @Id
     @GeneratedValue
-    @UuidGenerator
+    @FamilyHubUuid
     private UUID id;
 
+    // Set from the current household on insert; Hibernate adds it to every query and load
+    @TenantId
+    @Column(name = "household_id", nullable = false, updatable = false)
+    private UUID householdId;
+
     @Column(nullable = false)
     private String name;
 
@@ -47,6 +55,20 @@ public class GroceryItem {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @Version
+    private Long version;
+
+    // When name and completed were last written; last-writer-wins registers for live editing
+    @Column(name = "name_updated_at")
+    private LocalDateTime nameUpdatedAt;
+
+    @Column(name = "completed_updated_at")
+    private LocalDateTime completedUpdatedAt;
+
+    // Set by soft delete; rows with a deleted_at are invisible to entity queries until purged
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -65,6 +87,7 @@ public class GroceryItem {
         this.category = category;
         this.quantity = quantity;
         this.addedBy = addedBy;
+        this.householdId = addedBy.getHouseholdId();
     }
 
     public UUID getId() {
@@ -75,6 +98,14 @@ public class GroceryItem {
         this.id = id;
     }
 
+    public UUID getHouseholdId() {
+        return householdId;
+    }
+
+    public void setHouseholdId(UUID householdId) {
+        this.householdId = householdId;
+    }
+
     public String getName() {
         return name;
     }
@@ -154,4 +185,36 @@ public class GroceryItem {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
-}
\ No newline at end of file
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+
+    public LocalDateTime getNameUpdatedAt() {
+        return nameUpdatedAt;
+    }
+
+    public void setNameUpdatedAt(LocalDateTime nameUpdatedAt) {
+        this.nameUpdatedAt = nameUpdatedAt;
+    }
+
+    public LocalDateTime getCompletedUpdatedAt() {
+        return completedUpdatedAt;
+    }
+
+    public void setCompletedUpdatedAt(LocalDateTime completedUpdatedAt) {
+        this.completedUpdatedAt = completedUpdatedAt;
+    }
+}
@@ -0,0 +1,29 @@
+package com.github.zmancometh90.familyhub.models;
+
+import java.util.Locale;
+
+/**
+ * Identity of a grocery item for duplicate detection: "Milk", "milk " and " MILK"
+ * in the same category all map to the same key.
+ */
+public record GroceryItemKey(String name, String category) {
+
+    public static GroceryItemKey of(String name, String category) {
+        return new GroceryItemKey(normalize(name), normalize(category));
+    }
+
+    public static GroceryItemKey of(GroceryItem item) {
+        return of(item.getName(), item.getCategory());
+    }
+
+    public static GroceryItemKey of(FavoriteItem item) {
+        return of(item.getName(), item.getCategory());
+    }
+
+    private static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
@@ -4,6 +4,7 @@ public record GroceryItemRequest(
         String name,
         String description,
         String category,
-        Integer quantity
+        Integer quantity,
+        Long version
 ) {
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.github.zmancometh90.familyhub.models;
+
+import java.util.UUID;
+
+/**
+ * One fine-grained edit sent over the grocery WebSocket. {@code opId} is chosen by the client and
+ * echoed back in the acknowledgement. INCREMENT uses {@code delta}, SET_COMPLETED uses
+ * {@code completed} and RENAME uses {@code name}.
+ */
+public record GroceryOperation(
+        String opId,
+        Type op,
+        UUID itemId,
+        Integer delta,
+        Boolean completed,
+        String name
+) {
+
+    public enum Type {
+        INCREMENT,
+        SET_COMPLETED,
+        RENAME
+    }
+}
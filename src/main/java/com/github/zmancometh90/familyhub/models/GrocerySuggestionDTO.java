@@ -0,0 +1,83 @@
+package com.github.zmancometh90.familyhub.models;
+
+import java.time.LocalDateTime;
+
+public class GrocerySuggestionDTO {
+
+    private String name;
+    private String category;
+    private Integer suggestedQuantity;
+    private long purchaseCount;
+    private double averageIntervalDays;
+    private LocalDateTime lastPurchasedAt;
+    private LocalDateTime dueAt;
+
+    public GrocerySuggestionDTO() {}
+
+    public GrocerySuggestionDTO(String name, String category, Integer suggestedQuantity, long purchaseCount,
+                                double averageIntervalDays, LocalDateTime lastPurchasedAt, LocalDateTime dueAt) {
+        this.name = name;
+        this.category = category;
+        this.suggestedQuantity = suggestedQuantity;
+        this.purchaseCount = purchaseCount;
+        this.averageIntervalDays = averageIntervalDays;
+        this.lastPurchasedAt = lastPurchasedAt;
+        this.dueAt = dueAt;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public Integer getSuggestedQuantity() {
+        return suggestedQuantity;
+    }
+
+    public void setSuggestedQuantity(Integer suggestedQuantity) {
+        this.suggestedQuantity = suggestedQuantity;
+    }
+
+    public long getPurchaseCount() {
+        return purchaseCount;
+    }
+
+    public void setPurchaseCount(long purchaseCount) {
+        this.purchaseCount = purchaseCount;
+    }
+
+    public double getAverageIntervalDays() {
+        return averageIntervalDays;
+    }
+
+    public void setAverageIntervalDays(double averageIntervalDays) {
+        this.averageIntervalDays = averageIntervalDays;
+    }
+
+    public LocalDateTime getLastPurchasedAt() {
+        return lastPurchasedAt;
+    }
+
+    public void setLastPurchasedAt(LocalDateTime lastPurchasedAt) {
+        this.lastPurchasedAt = lastPurchasedAt;
+    }
+
+    public LocalDateTime getDueAt() {
+        return dueAt;
+    }
+
+    public void setDueAt(LocalDateTime dueAt) {
+        this.dueAt = dueAt;
+    }
+}
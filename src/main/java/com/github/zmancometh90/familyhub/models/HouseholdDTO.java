@@ -0,0 +1,43 @@
+package com.github.zmancometh90.familyhub.models;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public class HouseholdDTO {
+
+    private UUID id;
+    private String name;
+    private LocalDateTime createdAt;
+
+    public HouseholdDTO() {}
+
+    public HouseholdDTO(Household household) {
+        this.id = household.getId();
+        this.name = household.getName();
+        this.createdAt = household.getCreatedAt();
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
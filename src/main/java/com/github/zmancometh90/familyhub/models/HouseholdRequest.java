@@ -0,0 +1,10 @@
+package com.github.zmancometh90.familyhub.models;
+
+// A new household and the admin account that will manage it
+public record HouseholdRequest(
+        String name,
+        String adminUsername,
+        String adminPassword,
+        String adminName
+) {
+}
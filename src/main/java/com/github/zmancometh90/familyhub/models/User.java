@@ -1,7 +1,10 @@
 package com.github.zmancometh90.familyhub.models;
 
+import com.github.zmancometh90.familyhub.persistence.FamilyHubUuid;
 import jakarta.persistence.*;
-import org.hibernate.annotations.UuidGenerator;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.TenantId;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -9,13 +12,20 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "app_users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 public class User {
 
     @Id
     @GeneratedValue
-    @UuidGenerator
+    @FamilyHubUuid
     private UUID id;
 
+    // Set from the current household on insert; Hibernate adds it to every query and load
+    @TenantId
+    @Column(name = "household_id", nullable = false, updatable = false)
+    private UUID householdId;
+
     @Column(nullable = false, unique = true)
     private String username;
 
@@ -72,6 +82,14 @@ public class User {
         this.id = id;
     }
 
+    public UUID getHouseholdId() {
+        return householdId;
+    }
+
+    public void setHouseholdId(UUID householdId) {
+        this.householdId = householdId;
+    }
+
     public String getName() {
         return name;
     }
@@ -0,0 +1,18 @@
+package com.github.zmancometh90.familyhub.persistence;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Drop-in replacement for {@code @UuidGenerator} whose strategy is chosen by the
+ * {@code familyhub.uuid-strategy} Hibernate setting: {@code random} (default) or {@code time-ordered}.
+ */
+@IdGeneratorType(FamilyHubUuidGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface FamilyHubUuid {
+}
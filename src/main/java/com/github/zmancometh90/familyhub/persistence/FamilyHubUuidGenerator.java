@@ -0,0 +1,43 @@
+package com.github.zmancometh90.familyhub.persistence;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import org.hibernate.generator.GeneratorCreationContext;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.reflect.Member;
+import java.util.EnumSet;
+import java.util.UUID;
+
+public class FamilyHubUuidGenerator implements BeforeExecutionGenerator {
+
+    public static final String STRATEGY_SETTING = "familyhub.uuid-strategy";
+    public static final String TIME_ORDERED = "time-ordered";
+
+    private final boolean timeOrdered;
+
+    public FamilyHubUuidGenerator(FamilyHubUuid config, Member idMember, CustomIdGeneratorCreationContext context) {
+        this(config, idMember, (GeneratorCreationContext) context);
+    }
+
+    public FamilyHubUuidGenerator(FamilyHubUuid config, Member idMember, GeneratorCreationContext context) {
+        Object strategy = context.getServiceRegistry()
+                .requireService(ConfigurationService.class)
+                .getSettings()
+                .get(STRATEGY_SETTING);
+        this.timeOrdered = strategy != null && TIME_ORDERED.equalsIgnoreCase(strategy.toString().trim());
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        return timeOrdered ? TimeOrderedUuids.next() : UUID.randomUUID();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
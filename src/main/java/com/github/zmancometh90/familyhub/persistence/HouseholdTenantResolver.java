@@ -0,0 +1,55 @@
+package com.github.zmancometh90.familyhub.persistence;
+
+import com.github.zmancometh90.familyhub.security.HouseholdContext;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Tells Hibernate which household a new session belongs to. Entities carry the household id as a
+ * {@code @TenantId}, so Hibernate filters every query and load by it and stamps it on inserts.
+ *
+ * <p>Sessions opened inside {@link HouseholdContext#runAsRoot(Runnable)} (login, scheduled jobs,
+ * startup) get the root tenant, which sees every household. Code running as root must set the
+ * household id on new entities itself; the zero UUID has no households row, so a forgotten one
+ * fails on the foreign key.
+ *
+ * <p>Any other session without a household, e.g. on a thread the security context was not carried
+ * to, gets {@link #NO_HOUSEHOLD}: its queries match no rows and its inserts fail on the foreign key.
+ * It is not an exception because Spring opens sessions for every request, including unauthenticated
+ * error dispatches that never touch data.
+ */
+@Component
+public class HouseholdTenantResolver implements CurrentTenantIdentifierResolver<UUID>, HibernatePropertiesCustomizer {
+
+    public static final UUID ROOT_TENANT = new UUID(0L, 0L);
+    public static final UUID NO_HOUSEHOLD = new UUID(0L, 1L);
+
+    @Override
+    public UUID resolveCurrentTenantIdentifier() {
+        if (HouseholdContext.isRoot()) {
+            return ROOT_TENANT;
+        }
+        UUID householdId = HouseholdContext.currentHouseholdId();
+        return householdId != null ? householdId : NO_HOUSEHOLD;
+    }
+
+    @Override
+    public boolean validateExistingCurrentSessions() {
+        return false;
+    }
+
+    @Override
+    public boolean isRoot(UUID tenantId) {
+        return ROOT_TENANT.equals(tenantId);
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER, this);
+    }
+}
@@ -0,0 +1,150 @@
+package com.github.zmancometh90.familyhub.persistence;
+
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps how many threads can hold or wait for a JDBC connection at once. With virtual threads there
+ * is no request thread pool in front of the connection pool any more, so a burst of requests would
+ * otherwise all pile into the pool's wait queue and time out together. Threads beyond the limit
+ * park on a fair semaphore instead, which is cheap for virtual threads, and fail with a transient
+ * connection error if no permit frees up in time.
+ *
+ * <p>Permits are per thread. A thread takes one with its first connection and gives it back when
+ * its last open connection is closed. A thread that already holds a connection, for instance
+ * through the request's open-in-view EntityManager, gets a second one without waiting. If nested
+ * connections needed permits of their own, threads holding every permit would wait for each other
+ * until the acquire timeout. The limit therefore counts threads, and a thread may briefly hold
+ * more than one pool connection.
+ */
+public class JdbcPermitDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+    // Open connections of each thread; closed ones count down the opening thread's counter
+    private final ThreadLocal<AtomicInteger> openByThread = ThreadLocal.withInitial(AtomicInteger::new);
+
+    public JdbcPermitDataSource(DataSource target, int maxConcurrency, Duration acquireTimeout) {
+        super(target);
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        AtomicInteger open = acquire();
+        try {
+            return withPermit(obtainTargetDataSource().getConnection(), open);
+        } catch (SQLException | RuntimeException e) {
+            release(open);
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        AtomicInteger open = acquire();
+        try {
+            return withPermit(obtainTargetDataSource().getConnection(username, password), open);
+        } catch (SQLException | RuntimeException e) {
+            release(open);
+            throw e;
+        }
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    public int getQueueLength() {
+        return permits.getQueueLength();
+    }
+
+    // Counts the connection against the current thread, taking a permit if it is the thread's first
+    private AtomicInteger acquire() throws SQLException {
+        AtomicInteger open = openByThread.get();
+        if (open.getAndIncrement() > 0) {
+            return open;
+        }
+        try {
+            if (!permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                open.decrementAndGet();
+                throw new SQLTransientConnectionException("No JDBC permit available within "
+                        + Duration.ofNanos(acquireTimeoutNanos) + " (" + permits.getQueueLength() + " waiting)");
+            }
+        } catch (InterruptedException e) {
+            open.decrementAndGet();
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a JDBC permit", e);
+        }
+        return open;
+    }
+
+    // The permit goes back with the opening thread's last connection, whichever thread closes it
+    private void release(AtomicInteger open) {
+        if (open.decrementAndGet() == 0) {
+            permits.release();
+        }
+    }
+
+    private Connection withPermit(Connection target, AtomicInteger open) {
+        return (Connection) Proxy.newProxyInstance(
+                ConnectionProxy.class.getClassLoader(),
+                new Class<?>[]{ConnectionProxy.class},
+                new PermitReleasingHandler(target, open));
+    }
+
+    private final class PermitReleasingHandler implements InvocationHandler {
+
+        private final Connection target;
+        private final AtomicInteger open;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private PermitReleasingHandler(Connection target, AtomicInteger open) {
+            this.target = target;
+            this.open = open;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "getTargetConnection":
+                    return target;
+                case "close":
+                    try {
+                        target.close();
+                    } finally {
+                        // Closing twice is allowed by JDBC, but must only count down once
+                        if (released.compareAndSet(false, true)) {
+                            release(open);
+                        }
+                    }
+                    return null;
+                default:
+                    try {
+                        return method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+            }
+        }
+    }
+}
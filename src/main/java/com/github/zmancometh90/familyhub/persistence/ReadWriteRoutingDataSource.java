@@ -0,0 +1,89 @@
+package com.github.zmancometh90.familyhub.persistence;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sends connections for {@code @Transactional(readOnly = true)} service methods to the replica and
+ * everything else to the primary. After a user commits a write, their reads stay on the primary for
+ * the stickiness window so they always see their own changes despite replica lag.
+ * <p>
+ * Only read-only transactions started by a method under {@code replicaTransactionPrefix} (the
+ * service package) qualify, going by the transaction name Spring gives the outermost transaction.
+ * Spring Data's repositories are read-only by default, so a write path that loads an entity with
+ * {@code findById} outside a service transaction would otherwise read a stale row from the
+ * replica and save it back to the primary.
+ * <p>
+ * Must be wrapped in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * so the read-only flag is known by the time the physical connection is chosen.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final String replicaTransactionPrefix;
+    private final long stickinessNanos;
+    private final Map<String, Long> lastWriteByUser = new ConcurrentHashMap<>();
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, String replicaTransactionPrefix,
+                                      Duration stickinessWindow) {
+        this.replicaTransactionPrefix = replicaTransactionPrefix;
+        this.stickinessNanos = stickinessWindow.toNanos();
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String user = currentUser();
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            String transaction = TransactionSynchronizationManager.getCurrentTransactionName();
+            boolean replicaEligible = transaction != null && transaction.startsWith(replicaTransactionPrefix);
+            return replicaEligible && (user == null || !wroteRecently(user)) ? Route.REPLICA : Route.PRIMARY;
+        }
+
+        if (user != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    lastWriteByUser.put(user, System.nanoTime());
+                }
+            });
+        }
+        return Route.PRIMARY;
+    }
+
+    // Whether the current user's reads go to the primary because they wrote within the window
+    public boolean isCurrentUserPinnedToPrimary() {
+        String user = currentUser();
+        return user != null && wroteRecently(user);
+    }
+
+    private boolean wroteRecently(String user) {
+        Long lastWrite = lastWriteByUser.get(user);
+        if (lastWrite == null) {
+            return false;
+        }
+        if (System.nanoTime() - lastWrite < stickinessNanos) {
+            return true;
+        }
+        lastWriteByUser.remove(user, lastWrite);
+        return false;
+    }
+
+    private String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+}
@@ -0,0 +1,32 @@
+package com.github.zmancometh90.familyhub.persistence;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * UUIDv7 (RFC 9562) factory: a 48-bit Unix millisecond timestamp followed by a 12-bit counter
+ * and 62 random bits. Ids created by this JVM are strictly increasing, so new rows land at the
+ * right-hand edge of the primary-key index instead of on random pages.
+ */
+public final class TimeOrderedUuids {
+
+    // Last issued (timestamp << 12 | counter); the counter carries into the timestamp on overflow
+    private static final AtomicLong lastTimestampAndCounter = new AtomicLong();
+
+    private TimeOrderedUuids() {}
+
+    public static UUID next() {
+        long now = System.currentTimeMillis();
+        long previous;
+        long next;
+        do {
+            previous = lastTimestampAndCounter.get();
+            next = (previous >>> 12) < now ? now << 12 : previous + 1;
+        } while (!lastTimestampAndCounter.compareAndSet(previous, next));
+
+        long mostSignificant = ((next >>> 12) << 16) | 0x7000L | (next & 0xFFFL);
+        long leastSignificant = (ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSignificant, leastSignificant);
+    }
+}
@@ -0,0 +1,19 @@
+package com.github.zmancometh90.familyhub.repository;
+
+import com.github.zmancometh90.familyhub.models.ArchivedGroceryItem;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface ArchivedGroceryItemRepository extends JpaRepository<ArchivedGroceryItem, UUID> {
+
+    Page<ArchivedGroceryItem> findAllByOrderByCompletedAtDesc(Pageable pageable);
+
+    // Explicit household so the purchase model can replay a household from a root session too
+    Slice<ArchivedGroceryItem> findByHouseholdIdOrderByCompletedAtAsc(UUID householdId, Pageable pageable);
+}
@@ -2,14 +2,21 @@ package com.github.zmancometh90.familyhub.repository;
 
 import com.github.zmancometh90.familyhub.models.Chore;
 import com.github.zmancometh90.familyhub.models.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -21,6 +28,8 @@ public interface ChoreRepository extends JpaRepository<Chore, UUID> {
 
     List<Chore> findByStatus(Chore.ChoreStatus status);
 
+    List<Chore> findByStatusIn(Collection<Chore.ChoreStatus> statuses);
+
     List<Chore> findByAssignedToAndStatus(User assignedTo, Chore.ChoreStatus status);
 
     @Query("SELECT c FROM Chore c WHERE c.dueDate BETWEEN :startDate AND :endDate")
@@ -35,4 +44,29 @@ public interface ChoreRepository extends JpaRepository<Chore, UUID> {
     List<Chore> findByPriority(Chore.ChorePriority priority);
 
     List<Chore> findByChoreType(Chore.ChoreType choreType);
-}
\ No newline at end of file
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Chore c SET c.deletedAt = :deletedAt, c.version = c.version + 1 WHERE c.id = :id AND c.deletedAt IS NULL")
+    int softDeleteById(@Param("id") UUID id, @Param("deletedAt") LocalDateTime deletedAt);
+
+    // Native so the deleted_at restriction does not hide a row tombstoned earlier in the same
+    // transaction, which still holds its row lock, so this is the version the delete wrote
+    @Query(value = "SELECT version FROM chores WHERE id = :id", nativeQuery = true)
+    Optional<Long> findVersionIncludingDeletedById(@Param("id") UUID id);
+
+    // Native so the deleted_at restriction on the entity does not hide the tombstones
+    @Query(value = "SELECT id FROM chores WHERE deleted_at < :cutoff LIMIT :limit", nativeQuery = true)
+    List<UUID> findPurgeableIds(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "chores"))
+    @Query(value = "DELETE FROM chores WHERE id IN (:ids)", nativeQuery = true)
+    int purgeByIds(@Param("ids") Collection<UUID> ids);
+
+    // Tombstones still reference their users, so they go before the user does
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "chores"))
+    @Query(value = "DELETE FROM chores WHERE deleted_at IS NOT NULL AND (assigned_to_id = :userId OR created_by_id = :userId OR completed_by_id = :userId)", nativeQuery = true)
+    int purgeDeletedReferencingUser(@Param("userId") UUID userId);
+}
@@ -2,13 +2,20 @@ package com.github.zmancometh90.familyhub.repository;
 
 import com.github.zmancometh90.familyhub.models.Event;
 import com.github.zmancometh90.familyhub.models.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -32,4 +39,40 @@ public interface EventRepository extends JpaRepository<Event, UUID> {
     
     @Query("SELECT e FROM Event e WHERE LOWER(e.title) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR LOWER(e.description) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
     List<Event> findByTitleOrDescriptionContainingIgnoreCase(@Param("searchTerm") String searchTerm);
-}
\ No newline at end of file
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Event e SET e.deletedAt = :deletedAt, e.version = e.version + 1 WHERE e.id = :id AND e.deletedAt IS NULL")
+    int softDeleteById(@Param("id") UUID id, @Param("deletedAt") LocalDateTime deletedAt);
+
+    // Native so the deleted_at restriction does not hide a row tombstoned earlier in the same
+    // transaction, which still holds its row lock, so this is the version the delete wrote
+    @Query(value = "SELECT version FROM events WHERE id = :id", nativeQuery = true)
+    Optional<Long> findVersionIncludingDeletedById(@Param("id") UUID id);
+
+    // Native so the deleted_at restriction on the entity does not hide the tombstones
+    @Query(value = "SELECT id FROM events WHERE deleted_at < :cutoff LIMIT :limit", nativeQuery = true)
+    List<UUID> findPurgeableIds(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "event_attendees"))
+    @Query(value = "DELETE FROM event_attendees WHERE event_id IN (:ids)", nativeQuery = true)
+    int purgeAttendeesByEventIds(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "events"))
+    @Query(value = "DELETE FROM events WHERE id IN (:ids)", nativeQuery = true)
+    int purgeByIds(@Param("ids") Collection<UUID> ids);
+
+    // Tombstones still reference their users, so they go before the user does: the user's own
+    // deleted events with all their attendees, and the user's place on other deleted events
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "event_attendees"))
+    @Query(value = "DELETE FROM event_attendees WHERE event_id IN (SELECT id FROM events WHERE deleted_at IS NOT NULL AND created_by_id = :userId) OR (user_id = :userId AND event_id IN (SELECT id FROM events WHERE deleted_at IS NOT NULL))", nativeQuery = true)
+    int purgeDeletedAttendeesReferencingUser(@Param("userId") UUID userId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "events"))
+    @Query(value = "DELETE FROM events WHERE deleted_at IS NOT NULL AND created_by_id = :userId", nativeQuery = true)
+    int purgeDeletedReferencingUser(@Param("userId") UUID userId);
+}
@@ -19,8 +19,8 @@ public interface FavoriteItemRepository extends JpaRepository<FavoriteItem, UUID
     
     List<FavoriteItem> findByUserAndCategoryOrderByNameAsc(User user, String category);
     
-    @Query("SELECT DISTINCT f.category FROM FavoriteItem f WHERE f.user = :user ORDER BY f.category")
-    List<String> findDistinctCategoriesByUser(@Param("user") User user);
+    @Query("SELECT f.id, f.user.id, f.category FROM FavoriteItem f WHERE f.householdId = :householdId")
+    List<Object[]> findCategoriesByHouseholdId(@Param("householdId") UUID householdId);
     
     @Query("SELECT f FROM FavoriteItem f WHERE f.user = :user AND (LOWER(f.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR LOWER(f.description) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
     List<FavoriteItem> findByUserAndNameOrDescriptionContainingIgnoreCase(@Param("user") User user, @Param("searchTerm") String searchTerm);
@@ -2,13 +2,23 @@ package com.github.zmancometh90.familyhub.repository;
 
 import com.github.zmancometh90.familyhub.models.GroceryItem;
 import com.github.zmancometh90.familyhub.models.User;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -26,11 +36,54 @@ public interface GroceryItemRepository extends JpaRepository<GroceryItem, UUID>
     
     List<GroceryItem> findByCategoryAndIsCompleted(String category, boolean completed);
     
-    @Query("SELECT DISTINCT g.category FROM GroceryItem g ORDER BY g.category")
-    List<String> findDistinctCategories();
+    // The cache loaders below name the household explicitly, since they can run from a root session
+
+    @Query("SELECT g.id, g.category FROM GroceryItem g WHERE g.householdId = :householdId")
+    List<Object[]> findCategoriesByHouseholdId(@Param("householdId") UUID householdId);
+
+    List<GroceryItem> findByHouseholdIdAndIsCompletedFalseOrderByCreatedAtDesc(UUID householdId);
+
+    // What the duplicate index locks on, without putting the entity in the persistence context
+    @Query("SELECT g.householdId, g.name, g.category FROM GroceryItem g WHERE g.id = :id")
+    List<Object[]> findKeyColumnsById(@Param("id") UUID id);
+
+    List<GroceryItem> findByHouseholdIdAndIsCompletedTrueOrderByCompletedAtAsc(UUID householdId);
     
     @Query("SELECT g FROM GroceryItem g WHERE LOWER(g.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR LOWER(g.description) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
     List<GroceryItem> findByNameOrDescriptionContainingIgnoreCase(@Param("searchTerm") String searchTerm);
     
     List<GroceryItem> findByCompletedAtBetween(LocalDateTime start, LocalDateTime end);
-}
\ No newline at end of file
+
+    // Locked so nothing can change or un-complete the rows between archiving and deleting them
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<GroceryItem> findByIsCompletedTrueAndCompletedAtBefore(LocalDateTime cutoff, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM GroceryItem g WHERE g.id IN :ids AND g.isCompleted = true AND g.completedAt < :cutoff")
+    int deleteArchivable(@Param("ids") Collection<UUID> ids, @Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE GroceryItem g SET g.deletedAt = :deletedAt, g.version = g.version + 1 WHERE g.id = :id AND g.deletedAt IS NULL")
+    int softDeleteById(@Param("id") UUID id, @Param("deletedAt") LocalDateTime deletedAt);
+
+    // Native so the deleted_at restriction does not hide a row tombstoned earlier in the same
+    // transaction, which still holds its row lock, so this is the version the delete wrote
+    @Query(value = "SELECT version FROM grocery_items WHERE id = :id", nativeQuery = true)
+    Optional<Long> findVersionIncludingDeletedById(@Param("id") UUID id);
+
+    // Native so the deleted_at restriction on the entity does not hide the tombstones
+    @Query(value = "SELECT id FROM grocery_items WHERE deleted_at < :cutoff LIMIT :limit", nativeQuery = true)
+    List<UUID> findPurgeableIds(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "grocery_items"))
+    @Query(value = "DELETE FROM grocery_items WHERE id IN (:ids)", nativeQuery = true)
+    int purgeByIds(@Param("ids") Collection<UUID> ids);
+
+    // Tombstones still reference their users, so they go before the user does
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "grocery_items"))
+    @Query(value = "DELETE FROM grocery_items WHERE deleted_at IS NOT NULL AND (added_by_id = :userId OR completed_by_id = :userId)", nativeQuery = true)
+    int purgeDeletedReferencingUser(@Param("userId") UUID userId);
+}
@@ -0,0 +1,11 @@
+package com.github.zmancometh90.familyhub.repository;
+
+import com.github.zmancometh90.familyhub.models.Household;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface HouseholdRepository extends JpaRepository<Household, UUID> {
+}
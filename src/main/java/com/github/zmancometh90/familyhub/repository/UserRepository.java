@@ -1,7 +1,10 @@
 package com.github.zmancometh90.familyhub.repository;
 
 import com.github.zmancometh90.familyhub.models.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -12,7 +15,16 @@ public interface UserRepository extends JpaRepository<User, UUID> {
 
     Optional<User> findByName(String name);
     
+    // Hit on every authenticated request, so results live in the query cache
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "users.by-username")
+    })
     Optional<User> findByUsername(String username);
-    
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "users.by-username")
+    })
     boolean existsByUsername(String username);
 }
@@ -2,25 +2,32 @@ package com.github.zmancometh90.familyhub.security;
 
 import com.github.zmancometh90.familyhub.models.User;
 import com.github.zmancometh90.familyhub.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.Set;
+
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
     
     private final UserRepository userRepository;
+    private final Set<String> platformAdmins;
 
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository,
+                                    @Value("${familyhub.platform.admins:}") Set<String> platformAdmins) {
         this.userRepository = userRepository;
+        this.platformAdmins = platformAdmins;
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
+        // Login happens before there is a household, and usernames are unique across households
+        User user = HouseholdContext.callAsRoot(() -> userRepository.findByUsername(username))
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
         
-        return new UserPrincipal(user);
+        return new UserPrincipal(user, platformAdmins.contains(user.getUsername()));
     }
 }
\ No newline at end of file
@@ -0,0 +1,97 @@
+package com.github.zmancometh90.familyhub.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * The household of the user behind the current request, taken from the authenticated
+ * {@link UserPrincipal}. Outside a request (login, scheduled jobs, startup) there is none; code that
+ * must see every household says so with {@link #runAsRoot(Runnable)}, and code that works on one
+ * household without a user says which with {@link #callAsHousehold(UUID, Supplier)}. Anything else
+ * without a household gets no tenant at all rather than root, so a forgotten context fails closed.
+ */
+public final class HouseholdContext {
+
+    private static final ThreadLocal<Boolean> ROOT = new ThreadLocal<>();
+    private static final ThreadLocal<UUID> HOUSEHOLD = new ThreadLocal<>();
+
+    private HouseholdContext() {
+    }
+
+    /**
+     * Runs {@code task} as the root tenant, which sees every household. Only for work that is
+     * not done on behalf of a user: login, startup, scheduled jobs. Not inherited by other threads.
+     */
+    public static void runAsRoot(Runnable task) {
+        callAsRoot(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    public static <T> T callAsRoot(Supplier<T> task) {
+        Boolean previous = ROOT.get();
+        ROOT.set(Boolean.TRUE);
+        try {
+            return task.get();
+        } finally {
+            if (previous != null) {
+                ROOT.set(previous);
+            } else {
+                ROOT.remove();
+            }
+        }
+    }
+
+    /**
+     * Runs {@code task} as {@code householdId}, even inside {@link #runAsRoot(Runnable)}, so the
+     * sessions it opens see and cache only that household. Only for work no user asked for, such as
+     * startup. Not inherited by other threads.
+     */
+    public static <T> T callAsHousehold(UUID householdId, Supplier<T> task) {
+        Boolean previousRoot = ROOT.get();
+        UUID previousHousehold = HOUSEHOLD.get();
+        ROOT.remove();
+        HOUSEHOLD.set(householdId);
+        try {
+            return task.get();
+        } finally {
+            if (previousHousehold != null) {
+                HOUSEHOLD.set(previousHousehold);
+            } else {
+                HOUSEHOLD.remove();
+            }
+            if (previousRoot != null) {
+                ROOT.set(previousRoot);
+            }
+        }
+    }
+
+    public static boolean isRoot() {
+        return ROOT.get() != null;
+    }
+
+    // Null when no user is authenticated on this thread and no household was set for it
+    public static UUID currentHouseholdId() {
+        UUID household = HOUSEHOLD.get();
+        if (household != null) {
+            return household;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.getHouseholdId();
+        }
+        return null;
+    }
+
+    public static UUID requireHouseholdId() {
+        UUID householdId = currentHouseholdId();
+        if (householdId == null) {
+            throw new RuntimeException("No household for the current request");
+        }
+        return householdId;
+    }
+}
@@ -7,28 +7,45 @@ import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
 
 public class UserPrincipal implements UserDetails {
     
     private final UUID id;
+    private final UUID householdId;
     private final String username;
     private final String password;
     private final String name;
     private final User.Role role;
     private final boolean active;
+    private final boolean platformAdmin;
 
     public UserPrincipal(User user) {
+        this(user, false);
+    }
+
+    /**
+     * @param platformAdmin whether the user may also act across households, e.g. provision new
+     *                      ones; granted from configuration, never by a household's own admin
+     */
+    public UserPrincipal(User user, boolean platformAdmin) {
         this.id = user.getId();
+        this.householdId = user.getHouseholdId();
         this.username = user.getUsername();
         this.password = user.getPassword();
         this.name = user.getName();
         this.role = user.getRole();
         this.active = user.isActive();
+        this.platformAdmin = platformAdmin;
     }
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
+        if (platformAdmin) {
+            return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()),
+                    new SimpleGrantedAuthority("ROLE_PLATFORM_ADMIN"));
+        }
         return Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role.name()));
     }
 
@@ -66,6 +83,10 @@ public class UserPrincipal implements UserDetails {
         return id;
     }
 
+    public UUID getHouseholdId() {
+        return householdId;
+    }
+
     public String getName() {
         return name;
     }
@@ -1,17 +1,23 @@
 package com.github.zmancometh90.familyhub.service;
 
+import com.github.zmancometh90.familyhub.cache.SingleFlight;
+import com.github.zmancometh90.familyhub.diagnostics.DtoMappingEvent;
+import com.github.zmancometh90.familyhub.journal.ChangeJournal;
+import com.github.zmancometh90.familyhub.journal.ChangeRecord;
 import com.github.zmancometh90.familyhub.models.*;
 import com.github.zmancometh90.familyhub.repository.ChoreRepository;
 import com.github.zmancometh90.familyhub.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 public class ChoreService {
@@ -22,12 +28,18 @@ public class ChoreService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ChangeJournal changeJournal;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Transactional(readOnly = true)
     public List<ChoreDTO> getAllChores() {
-        return choreRepository.findAll().stream()
-                .map(ChoreDTO::new)
-                .collect(Collectors.toList());
+        return DtoMappingEvent.mapAll(choreRepository.findAll(), ChoreDTO::new);
     }
 
+    @Transactional(readOnly = true)
     public Optional<ChoreDTO> getChoreById(UUID id) {
         return choreRepository.findById(id)
                 .map(ChoreDTO::new);
@@ -76,8 +88,16 @@ public class ChoreService {
         return new ChoreDTO(savedChore);
     }
 
+    /**
+     * Overwrites the chore with the request. A request carrying a version older than the stored
+     * one cannot be merged and fails with a ConflictException instead of silently winning.
+     */
     public Optional<ChoreDTO> updateChore(UUID id, ChoreRequest request, User updatedBy) {
         return choreRepository.findById(id).map(chore -> {
+            if (request.version() != null && !request.version().equals(chore.getVersion())) {
+                throw new ConflictException("Chore was changed by someone else");
+            }
+
             chore.setTitle(request.title());
             chore.setDescription(request.description());
             chore.setDueDate(request.dueDate());
@@ -116,48 +136,59 @@ public class ChoreService {
                 chore.setAssignedTo(null);
             }
 
-            Chore updatedChore = choreRepository.save(chore);
-            return new ChoreDTO(updatedChore);
+            try {
+                return new ChoreDTO(choreRepository.save(chore));
+            } catch (ObjectOptimisticLockingFailureException e) {
+                throw new ConflictException("Chore was changed by someone else");
+            }
         });
     }
 
+    // Tombstones the chore with a single-row update; SoftDeletePurgeService removes it later
     public boolean deleteChore(UUID id) {
-        if (choreRepository.existsById(id)) {
-            choreRepository.deleteById(id);
-            return true;
+        Optional<Chore> chore = choreRepository.findById(id);
+        if (chore.isEmpty()) {
+            return false;
+        }
+        // Read back in the deleting transaction, so the journal gets the version the delete wrote
+        Long version = transactionTemplate.execute(status -> choreRepository.softDeleteById(id, LocalDateTime.now()) == 0
+                ? null : choreRepository.findVersionIncludingDeletedById(id).orElseThrow());
+        if (version == null) {
+            return false;
         }
-        return false;
+        // Bulk updates bypass the journal's entity listener
+        changeJournal.append(chore.get().getHouseholdId(), ChangeRecord.EntityType.CHORE, id, ChangeRecord.Op.DELETE,
+                version);
+        return true;
     }
 
+    @Transactional(readOnly = true)
     public List<ChoreDTO> getChoresByAssignedUser(UUID userId) {
         Optional<User> user = userRepository.findById(userId);
         if (user.isPresent()) {
-            return choreRepository.findByAssignedTo(user.get()).stream()
-                    .map(ChoreDTO::new)
-                    .collect(Collectors.toList());
+            return DtoMappingEvent.mapAll(choreRepository.findByAssignedTo(user.get()), ChoreDTO::new);
         }
         return List.of();
     }
 
+    @Transactional(readOnly = true)
     public List<ChoreDTO> getChoresByStatus(String status) {
         try {
             Chore.ChoreStatus choreStatus = Chore.ChoreStatus.valueOf(status.toUpperCase());
-            return choreRepository.findByStatus(choreStatus).stream()
-                    .map(ChoreDTO::new)
-                    .collect(Collectors.toList());
+            return DtoMappingEvent.mapAll(choreRepository.findByStatus(choreStatus), ChoreDTO::new);
         } catch (IllegalArgumentException e) {
             return List.of();
         }
     }
 
+    @Transactional(readOnly = true)
     public List<ChoreDTO> getChoresByDateRange(LocalDate startDate, LocalDate endDate) {
-        return choreRepository.findByDueDateBetween(startDate, endDate).stream()
-                .map(ChoreDTO::new)
-                .collect(Collectors.toList());
+        return DtoMappingEvent.mapAll(choreRepository.findByDueDateBetween(startDate, endDate), ChoreDTO::new);
     }
 
     public Optional<ChoreDTO> updateChoreStatus(UUID id, String status) {
-        return choreRepository.findById(id).map(chore -> {
+        // Setting a status is idempotent, so a lost race just re-reads and applies it again
+        return OptimisticRetry.run(() -> choreRepository.findById(id).map(chore -> {
             try {
                 Chore.ChoreStatus choreStatus = Chore.ChoreStatus.valueOf(status.toUpperCase());
                 chore.setStatus(choreStatus);
@@ -166,11 +197,12 @@ public class ChoreService {
             } catch (IllegalArgumentException e) {
                 return new ChoreDTO(chore); // Return unchanged if invalid status
             }
-        });
+        }));
     }
 
     public Optional<ChoreDTO> updateChoreStatus(UUID id, String status, User completingUser) {
-        return choreRepository.findById(id).map(chore -> {
+        // Setting a status is idempotent, so a lost race just re-reads and applies it again
+        return OptimisticRetry.run(() -> choreRepository.findById(id).map(chore -> {
             try {
                 Chore.ChoreStatus choreStatus = Chore.ChoreStatus.valueOf(status.toUpperCase());
                 chore.setStatus(choreStatus);
@@ -192,12 +224,12 @@ public class ChoreService {
             } catch (IllegalArgumentException e) {
                 return new ChoreDTO(chore); // Return unchanged if invalid status
             }
-        });
+        }));
     }
 
+    @SingleFlight
+    @Transactional(readOnly = true)
     public List<ChoreDTO> getOverdueChores() {
-        return choreRepository.findOverdueChores(LocalDate.now()).stream()
-                .map(ChoreDTO::new)
-                .collect(Collectors.toList());
+        return DtoMappingEvent.mapAll(choreRepository.findOverdueChores(LocalDate.now()), ChoreDTO::new);
     }
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.github.zmancometh90.familyhub.service;
+
+/**
+ * Thrown when a write was based on a stale version of an entity and cannot be merged into the
+ * current one. Controllers answer it with 409 and the current state so the client can reapply.
+ */
+public class ConflictException extends RuntimeException {
+
+    public ConflictException(String message) {
+        super(message);
+    }
+}
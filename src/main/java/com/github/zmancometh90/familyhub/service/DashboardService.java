@@ -0,0 +1,149 @@
+package com.github.zmancometh90.familyhub.service;
+
+import com.github.zmancometh90.familyhub.diagnostics.QueryCounter;
+import com.github.zmancometh90.familyhub.models.ChoreDTO;
+import com.github.zmancometh90.familyhub.models.DashboardDTO;
+import com.github.zmancometh90.familyhub.models.EventDTO;
+import com.github.zmancometh90.familyhub.models.GroceryItemDTO;
+import com.github.zmancometh90.familyhub.models.UserDTO;
+import com.github.zmancometh90.familyhub.security.UserPrincipal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.concurrent.DelegatingSecurityContextCallable;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Loads the dashboard sections concurrently, one virtual thread each, under a single deadline for
+ * the whole request. Every section runs as the calling user: the caller's security context, and
+ * with it the household tenant and replica stickiness, is handed to each subtask, and all sections
+ * see the same user id and clock.
+ *
+ * <p>A section that fails or is not done by the deadline is reported in
+ * {@link DashboardDTO#getErrors()} and the others are still returned. Late sections are not
+ * interrupted, since an interrupt during a file read can close H2's file channel. Instead each
+ * section runs in a read-only transaction that times out at the deadline (rounded up to whole
+ * seconds), so Hibernate gives its statements a query timeout and a late section gives its
+ * connection back instead of running on after the response is sent.
+ *
+ * <p>Sections that are a single {@link com.github.zmancometh90.familyhub.cache.SingleFlight} read
+ * run without a section transaction. A section that joins another request's call then waits
+ * without a connection or JDBC permit, so concurrent dashboards cannot starve the call they are
+ * waiting for. A call such a section runs itself uses the method's own read-only transaction,
+ * without the deadline.
+ */
+@Service
+public class DashboardService {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardService.class);
+
+    private final UserService userService;
+    private final ChoreService choreService;
+    private final GroceryService groceryService;
+    private final EventService eventService;
+    private final PlatformTransactionManager transactionManager;
+    private final Duration deadline;
+
+    public DashboardService(UserService userService, ChoreService choreService, GroceryService groceryService,
+                            EventService eventService, PlatformTransactionManager transactionManager,
+                            @Value("${familyhub.dashboard.deadline:PT2S}") Duration deadline) {
+        this.userService = userService;
+        this.choreService = choreService;
+        this.groceryService = groceryService;
+        this.eventService = eventService;
+        this.transactionManager = transactionManager;
+        this.deadline = deadline;
+    }
+
+    public DashboardDTO getDashboard(UserPrincipal principal, int eventDays) {
+        SecurityContext securityContext = SecurityContextHolder.getContext();
+        UUID userId = principal.getId();
+        LocalDateTime now = LocalDateTime.now();
+        long deadlineNanos = System.nanoTime() + deadline.toNanos();
+
+        DashboardDTO dashboard = new DashboardDTO();
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            Future<UserDTO> user = fork(executor, securityContext, "user", deadlineNanos,
+                    () -> userService.findUserById(userId));
+            Future<List<ChoreDTO>> myChores = fork(executor, securityContext, "myChores", deadlineNanos,
+                    () -> choreService.getChoresByAssignedUser(userId));
+            Future<List<ChoreDTO>> overdueChores = forkSingleFlight(executor, securityContext,
+                    choreService::getOverdueChores);
+            Future<List<GroceryItemDTO>> groceries = forkSingleFlight(executor, securityContext,
+                    groceryService::getActiveGroceryItems);
+            Future<List<EventDTO>> events = fork(executor, securityContext, "upcomingEvents", deadlineNanos,
+                    () -> eventService.getEventsByUserAndDateRange(userId, now, now.plusDays(eventDays)));
+
+            join(dashboard, "user", user, deadlineNanos, dashboard::setUser);
+            join(dashboard, "myChores", myChores, deadlineNanos, dashboard::setMyChores);
+            join(dashboard, "overdueChores", overdueChores, deadlineNanos, dashboard::setOverdueChores);
+            join(dashboard, "activeGroceryItems", groceries, deadlineNanos, dashboard::setActiveGroceryItems);
+            join(dashboard, "upcomingEvents", events, deadlineNanos, dashboard::setUpcomingEvents);
+        } finally {
+            // Stop accepting work but do not wait for abandoned sections
+            executor.shutdown();
+        }
+        return dashboard;
+    }
+
+    private <T> Future<T> fork(ExecutorService executor, SecurityContext securityContext, String name,
+                               long deadlineNanos, Supplier<T> section) {
+        Callable<T> bounded = () -> {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            // Named like a service method, which keeps it eligible for the read replica
+            transaction.setName(DashboardService.class.getName() + "." + name);
+            transaction.setReadOnly(true);
+            long remainingNanos = Math.max(0, deadlineNanos - System.nanoTime());
+            transaction.setTimeout((int) Math.max(1, TimeUnit.NANOSECONDS.toSeconds(remainingNanos + 999_999_999L)));
+            return transaction.execute(status -> section.get());
+        };
+        return submit(executor, securityContext, bounded);
+    }
+
+    // A section transaction would hold a connection while the section waits on a shared call
+    private <T> Future<T> forkSingleFlight(ExecutorService executor, SecurityContext securityContext, Supplier<T> section) {
+        return submit(executor, securityContext, section::get);
+    }
+
+    private static <T> Future<T> submit(ExecutorService executor, SecurityContext securityContext, Callable<T> section) {
+        // Count the section's statements towards the request that asked for the dashboard
+        return executor.submit(new DelegatingSecurityContextCallable<>(QueryCounter.propagate(section), securityContext));
+    }
+
+    private static <T> void join(DashboardDTO dashboard, String name, Future<T> section, long deadlineNanos,
+                                 Consumer<? super T> setter) {
+        try {
+            long remaining = Math.max(0, deadlineNanos - System.nanoTime());
+            setter.accept(section.get(remaining, TimeUnit.NANOSECONDS));
+        } catch (TimeoutException e) {
+            section.cancel(false);
+            dashboard.getErrors().put(name, "Timed out");
+        } catch (ExecutionException e) {
+            log.warn("Dashboard section {} failed", name, e.getCause());
+            dashboard.getErrors().put(name, e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            section.cancel(false);
+            dashboard.getErrors().put(name, "Interrupted");
+        }
+    }
+}
@@ -1,11 +1,20 @@
 package com.github.zmancometh90.familyhub.service;
 
+import com.github.zmancometh90.familyhub.cache.SingleFlight;
+import com.github.zmancometh90.familyhub.diagnostics.DtoMappingEvent;
+import com.github.zmancometh90.familyhub.journal.ChangeJournal;
+import com.github.zmancometh90.familyhub.journal.ChangeRecord;
 import com.github.zmancometh90.familyhub.models.*;
 import com.github.zmancometh90.familyhub.repository.EventRepository;
 import com.github.zmancometh90.familyhub.repository.UserRepository;
+import com.github.zmancometh90.familyhub.security.HouseholdContext;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -17,11 +26,16 @@ public class EventService {
     private final EventRepository eventRepository;
     private final UserRepository userRepository;
     private final UserService userService;
+    private final ChangeJournal changeJournal;
+    private final TransactionTemplate transactionTemplate;
 
-    public EventService(EventRepository eventRepository, UserRepository userRepository, UserService userService) {
+    public EventService(EventRepository eventRepository, UserRepository userRepository, UserService userService,
+                        ChangeJournal changeJournal, TransactionTemplate transactionTemplate) {
         this.eventRepository = eventRepository;
         this.userRepository = userRepository;
         this.userService = userService;
+        this.changeJournal = changeJournal;
+        this.transactionTemplate = transactionTemplate;
     }
 
     private EventDTO toDTO(Event event) {
@@ -47,7 +61,8 @@ public class EventService {
                 createdByDTO,
                 attendeeDTOs,
                 event.getCreatedAt(),
-                event.getUpdatedAt()
+                event.getUpdatedAt(),
+                event.getVersion()
         );
     }
 
@@ -65,13 +80,17 @@ public class EventService {
 
         if (request.attendeeIds() != null && !request.attendeeIds().isEmpty()) {
             List<User> attendees = userRepository.findAllById(request.attendeeIds());
-            event.setAttendees(attendees);
+            event.setAttendees(new HashSet<>(attendees));
         }
 
         eventRepository.save(event);
         return toDTO(event);
     }
 
+    /**
+     * Overwrites the event with the DTO. A DTO carrying a version older than the stored one cannot
+     * be merged and fails with a ConflictException instead of silently winning.
+     */
     public EventDTO updateEvent(UUID id, EventDTO eventDTO) {
         Optional<Event> foundEvent = eventRepository.findById(id);
         if (foundEvent.isEmpty()) {
@@ -79,6 +98,9 @@ public class EventService {
         }
 
         Event eventToUpdate = foundEvent.get();
+        if (eventDTO.getVersion() != null && !eventDTO.getVersion().equals(eventToUpdate.getVersion())) {
+            throw new ConflictException("Event was changed by someone else");
+        }
         eventToUpdate.setTitle(eventDTO.getTitle());
         eventToUpdate.setDescription(eventDTO.getDescription());
         eventToUpdate.setStartTime(eventDTO.getStartTime());
@@ -89,119 +111,130 @@ public class EventService {
         eventToUpdate.setRecurring(eventDTO.isRecurring());
         eventToUpdate.setRecurrencePattern(eventDTO.getRecurrencePattern());
 
-        eventRepository.save(eventToUpdate);
+        try {
+            eventRepository.save(eventToUpdate);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new ConflictException("Event was changed by someone else");
+        }
         return toDTO(eventToUpdate);
     }
 
+    @Transactional(readOnly = true)
     public EventDTO findEventById(UUID id) {
         Optional<Event> foundEvent = eventRepository.findById(id);
         return foundEvent.map(this::toDTO).orElse(null);
     }
 
+    @SingleFlight
+    @Transactional(readOnly = true)
     public List<EventDTO> getAllEvents() {
-        return eventRepository.findAll().stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return DtoMappingEvent.mapAll(eventRepository.findAll(), this::toDTO);
     }
 
+    @Transactional(readOnly = true)
     public List<EventDTO> getEventsByUser(UUID userId) {
         Optional<User> user = userRepository.findById(userId);
         if (user.isEmpty()) {
             throw new RuntimeException("User not found with id: " + userId);
         }
 
-        return eventRepository.findEventsByUserParticipation(user.get()).stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return DtoMappingEvent.mapAll(eventRepository.findEventsByUserParticipation(user.get()), this::toDTO);
     }
 
+    @Transactional(readOnly = true)
     public List<EventDTO> getEventsByDateRange(LocalDateTime start, LocalDateTime end) {
-        return eventRepository.findByStartTimeBetween(start, end).stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return DtoMappingEvent.mapAll(eventRepository.findByStartTimeBetween(start, end), this::toDTO);
     }
 
+    @Transactional(readOnly = true)
     public List<EventDTO> getEventsByUserAndDateRange(UUID userId, LocalDateTime start, LocalDateTime end) {
         Optional<User> user = userRepository.findById(userId);
         if (user.isEmpty()) {
             throw new RuntimeException("User not found with id: " + userId);
         }
 
-        return eventRepository.findEventsByUserAndDateRange(user.get(), start, end).stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return DtoMappingEvent.mapAll(eventRepository.findEventsByUserAndDateRange(user.get(), start, end), this::toDTO);
     }
 
+    @Transactional(readOnly = true)
     public List<EventDTO> getEventsByType(Event.EventType eventType) {
-        return eventRepository.findByEventType(eventType).stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return DtoMappingEvent.mapAll(eventRepository.findByEventType(eventType), this::toDTO);
     }
 
+    @Transactional(readOnly = true)
     public List<EventDTO> getEventsByStatus(Event.EventStatus status) {
-        return eventRepository.findByStatus(status).stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return DtoMappingEvent.mapAll(eventRepository.findByStatus(status), this::toDTO);
     }
 
+    @Transactional(readOnly = true)
     public List<EventDTO> searchEvents(String searchTerm) {
-        return eventRepository.findByTitleOrDescriptionContainingIgnoreCase(searchTerm).stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return DtoMappingEvent.mapAll(eventRepository.findByTitleOrDescriptionContainingIgnoreCase(searchTerm), this::toDTO);
     }
 
+    @Transactional(readOnly = true)
     public List<EventDTO> getRecurringEvents() {
-        return eventRepository.findByIsRecurringTrue().stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return DtoMappingEvent.mapAll(eventRepository.findByIsRecurringTrue(), this::toDTO);
     }
 
+    // Tombstones the event with a single-row update. Its event_attendees rows stay until
+    // SoftDeletePurgeService removes the event, so the request does not pay for the cascade.
     public void deleteEvent(UUID id) {
-        if (!eventRepository.existsById(id)) {
+        // Read back in the deleting transaction, so the journal gets the version the delete wrote
+        Long version = transactionTemplate.execute(status -> eventRepository.softDeleteById(id, LocalDateTime.now()) == 0
+                ? null : eventRepository.findVersionIncludingDeletedById(id).orElseThrow());
+        if (version == null) {
             throw new RuntimeException("Event not found with id: " + id);
         }
-        eventRepository.deleteById(id);
+        // Bulk updates bypass the journal's entity listener. The update is tenant-filtered, so the
+        // event belongs to the caller's household.
+        changeJournal.append(HouseholdContext.currentHouseholdId(), ChangeRecord.EntityType.EVENT, id,
+                ChangeRecord.Op.DELETE, version);
     }
 
+    // Adding and removing an attendee is idempotent, so a lost race is simply retried
     public EventDTO addAttendeeToEvent(UUID eventId, UUID userId) {
-        Optional<Event> event = eventRepository.findById(eventId);
-        Optional<User> user = userRepository.findById(userId);
-        
-        if (event.isEmpty()) {
-            throw new RuntimeException("Event not found with id: " + eventId);
-        }
-        if (user.isEmpty()) {
-            throw new RuntimeException("User not found with id: " + userId);
-        }
+        return OptimisticRetry.run(() -> {
+            Optional<Event> event = eventRepository.findById(eventId);
+            Optional<User> user = userRepository.findById(userId);
+
+            if (event.isEmpty()) {
+                throw new RuntimeException("Event not found with id: " + eventId);
+            }
+            if (user.isEmpty()) {
+                throw new RuntimeException("User not found with id: " + userId);
+            }
+
+            Event eventToUpdate = event.get();
+            if (eventToUpdate.getAttendees() == null) {
+                eventToUpdate.setAttendees(new HashSet<>(List.of(user.get())));
+            } else if (!eventToUpdate.getAttendees().contains(user.get())) {
+                eventToUpdate.getAttendees().add(user.get());
+            }
 
-        Event eventToUpdate = event.get();
-        if (eventToUpdate.getAttendees() == null) {
-            eventToUpdate.setAttendees(List.of(user.get()));
-        } else if (!eventToUpdate.getAttendees().contains(user.get())) {
-            eventToUpdate.getAttendees().add(user.get());
-        }
-
-        eventRepository.save(eventToUpdate);
-        return toDTO(eventToUpdate);
+            eventRepository.save(eventToUpdate);
+            return toDTO(eventToUpdate);
+        });
     }
 
     public EventDTO removeAttendeeFromEvent(UUID eventId, UUID userId) {
-        Optional<Event> event = eventRepository.findById(eventId);
-        Optional<User> user = userRepository.findById(userId);
-        
-        if (event.isEmpty()) {
-            throw new RuntimeException("Event not found with id: " + eventId);
-        }
-        if (user.isEmpty()) {
-            throw new RuntimeException("User not found with id: " + userId);
-        }
-
-        Event eventToUpdate = event.get();
-        if (eventToUpdate.getAttendees() != null) {
-            eventToUpdate.getAttendees().remove(user.get());
-            eventRepository.save(eventToUpdate);
-        }
-
-        return toDTO(eventToUpdate);
+        return OptimisticRetry.run(() -> {
+            Optional<Event> event = eventRepository.findById(eventId);
+            Optional<User> user = userRepository.findById(userId);
+
+            if (event.isEmpty()) {
+                throw new RuntimeException("Event not found with id: " + eventId);
+            }
+            if (user.isEmpty()) {
+                throw new RuntimeException("User not found with id: " + userId);
+            }
+
+            Event eventToUpdate = event.get();
+            if (eventToUpdate.getAttendees() != null) {
+                eventToUpdate.getAttendees().remove(user.get());
+                eventRepository.save(eventToUpdate);
+            }
+
+            return toDTO(eventToUpdate);
+        });
     }
 }
\ No newline at end of file
@@ -1,14 +1,17 @@
 package com.github.zmancometh90.familyhub.service;
 
+import com.github.zmancometh90.familyhub.cache.CategoryCache;
+import com.github.zmancometh90.familyhub.diagnostics.DtoMappingEvent;
 import com.github.zmancometh90.familyhub.models.*;
 import com.github.zmancometh90.familyhub.repository.FavoriteItemRepository;
 import com.github.zmancometh90.familyhub.repository.UserRepository;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 public class FavoriteItemService {
@@ -16,11 +19,14 @@ public class FavoriteItemService {
     private final FavoriteItemRepository favoriteItemRepository;
     private final UserRepository userRepository;
     private final UserService userService;
+    private final CategoryCache categoryCache;
 
-    public FavoriteItemService(FavoriteItemRepository favoriteItemRepository, UserRepository userRepository, UserService userService) {
+    public FavoriteItemService(FavoriteItemRepository favoriteItemRepository, UserRepository userRepository,
+                               UserService userService, CategoryCache categoryCache) {
         this.favoriteItemRepository = favoriteItemRepository;
         this.userRepository = userRepository;
         this.userService = userService;
+        this.categoryCache = categoryCache;
     }
 
     private FavoriteItemDTO toDTO(FavoriteItem item) {
@@ -34,7 +40,8 @@ public class FavoriteItemService {
                 item.getDefaultQuantity(),
                 userDTO,
                 item.getCreatedAt(),
-                item.getUpdatedAt()
+                item.getUpdatedAt(),
+                item.getVersion()
         );
     }
 
@@ -55,9 +62,14 @@ public class FavoriteItemService {
         item.setDescription(request.description());
 
         favoriteItemRepository.save(item);
+        categoryCache.favoriteSaved(item.getHouseholdId(), userId, item.getId(), item.getCategory());
         return toDTO(item);
     }
 
+    /**
+     * Overwrites the favorite with the request. A request carrying a version older than the stored
+     * one cannot be merged and fails with a ConflictException instead of silently winning.
+     */
     public FavoriteItemDTO updateFavoriteItem(UUID id, FavoriteItemRequest request, UUID userId) {
         Optional<FavoriteItem> foundItem = favoriteItemRepository.findById(id);
         if (foundItem.isEmpty()) {
@@ -70,16 +82,25 @@ public class FavoriteItemService {
         if (!item.getUser().getId().equals(userId)) {
             throw new RuntimeException("You can only update your own favorite items");
         }
+        if (request.version() != null && !request.version().equals(item.getVersion())) {
+            throw new ConflictException("Favorite item was changed by someone else");
+        }
 
         item.setName(request.name());
         item.setDescription(request.description());
         item.setCategory(request.category());
         item.setDefaultQuantity(request.defaultQuantity());
 
-        favoriteItemRepository.save(item);
+        try {
+            favoriteItemRepository.save(item);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new ConflictException("Favorite item was changed by someone else");
+        }
+        categoryCache.favoriteSaved(item.getHouseholdId(), userId, item.getId(), item.getCategory());
         return toDTO(item);
     }
 
+    @Transactional(readOnly = true)
     public FavoriteItemDTO findFavoriteItemById(UUID id, UUID userId) {
         Optional<FavoriteItem> foundItem = favoriteItemRepository.findById(id);
         if (foundItem.isEmpty()) {
@@ -97,46 +118,45 @@ public class FavoriteItemService {
     }
 
     // Only return favorites for the specific user
+    @Transactional(readOnly = true)
     public List<FavoriteItemDTO> getUserFavoriteItems(UUID userId) {
         Optional<User> user = userRepository.findById(userId);
         if (user.isEmpty()) {
             throw new RuntimeException("User not found with id: " + userId);
         }
 
-        return favoriteItemRepository.findByUserOrderByNameAsc(user.get()).stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return DtoMappingEvent.mapAll(favoriteItemRepository.findByUserOrderByNameAsc(user.get()), this::toDTO);
     }
 
+    @Transactional(readOnly = true)
     public List<FavoriteItemDTO> getUserFavoriteItemsByCategory(UUID userId, String category) {
         Optional<User> user = userRepository.findById(userId);
         if (user.isEmpty()) {
             throw new RuntimeException("User not found with id: " + userId);
         }
 
-        return favoriteItemRepository.findByUserAndCategoryOrderByNameAsc(user.get(), category).stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return DtoMappingEvent.mapAll(favoriteItemRepository.findByUserAndCategoryOrderByNameAsc(user.get(), category), this::toDTO);
     }
 
+    // Served from the category cache; a user without favorites simply has no categories
+    @Transactional(readOnly = true)
     public List<String> getUserFavoriteCategories(UUID userId) {
         Optional<User> user = userRepository.findById(userId);
         if (user.isEmpty()) {
             throw new RuntimeException("User not found with id: " + userId);
         }
 
-        return favoriteItemRepository.findDistinctCategoriesByUser(user.get());
+        return categoryCache.getFavoriteCategories(user.get().getHouseholdId(), userId);
     }
 
+    @Transactional(readOnly = true)
     public List<FavoriteItemDTO> searchUserFavoriteItems(UUID userId, String searchTerm) {
         Optional<User> user = userRepository.findById(userId);
         if (user.isEmpty()) {
             throw new RuntimeException("User not found with id: " + userId);
         }
 
-        return favoriteItemRepository.findByUserAndNameOrDescriptionContainingIgnoreCase(user.get(), searchTerm).stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return DtoMappingEvent.mapAll(favoriteItemRepository.findByUserAndNameOrDescriptionContainingIgnoreCase(user.get(), searchTerm), this::toDTO);
     }
 
     public void deleteFavoriteItem(UUID id, UUID userId) {
@@ -152,6 +172,11 @@ public class FavoriteItemService {
             throw new RuntimeException("You can only delete your own favorite items");
         }
 
-        favoriteItemRepository.deleteById(id);
+        try {
+            favoriteItemRepository.deleteById(id);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new ConflictException("Favorite item was changed by someone else");
+        }
+        categoryCache.favoriteRemoved(item.getHouseholdId(), userId, id);
     }
 }
\ No newline at end of file
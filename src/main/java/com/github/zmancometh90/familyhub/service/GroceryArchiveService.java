@@ -0,0 +1,122 @@
+package com.github.zmancometh90.familyhub.service;
+
+import com.github.zmancometh90.familyhub.cache.CategoryCache;
+import com.github.zmancometh90.familyhub.journal.ChangeJournal;
+import com.github.zmancometh90.familyhub.journal.ChangeRecord;
+import com.github.zmancometh90.familyhub.models.ArchivedGroceryItem;
+import com.github.zmancometh90.familyhub.models.ArchivedGroceryItemDTO;
+import com.github.zmancometh90.familyhub.models.GroceryItem;
+import com.github.zmancometh90.familyhub.models.PageDTO;
+import com.github.zmancometh90.familyhub.repository.ArchivedGroceryItemRepository;
+import com.github.zmancometh90.familyhub.repository.GroceryItemRepository;
+import com.github.zmancometh90.familyhub.security.HouseholdContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves grocery items completed more than {@code familyhub.grocery.archive.after-days} ago out of
+ * {@code grocery_items} into the append-only {@code grocery_item_archive} table, one batch per
+ * transaction, so the hot table only holds the active list and recent history.
+ */
+@Service
+public class GroceryArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(GroceryArchiveService.class);
+
+    private final GroceryItemRepository groceryItemRepository;
+    private final ArchivedGroceryItemRepository archivedGroceryItemRepository;
+    private final CategoryCache categoryCache;
+    private final ChangeJournal changeJournal;
+    private final TransactionTemplate transactionTemplate;
+    private final int archiveAfterDays;
+    private final int batchSize;
+
+    public GroceryArchiveService(GroceryItemRepository groceryItemRepository,
+                                 ArchivedGroceryItemRepository archivedGroceryItemRepository,
+                                 CategoryCache categoryCache,
+                                 ChangeJournal changeJournal,
+                                 TransactionTemplate transactionTemplate,
+                                 @Value("${familyhub.grocery.archive.after-days:30}") int archiveAfterDays,
+                                 @Value("${familyhub.grocery.archive.batch-size:500}") int batchSize) {
+        this.groceryItemRepository = groceryItemRepository;
+        this.archivedGroceryItemRepository = archivedGroceryItemRepository;
+        this.categoryCache = categoryCache;
+        this.changeJournal = changeJournal;
+        this.transactionTemplate = transactionTemplate;
+        this.archiveAfterDays = archiveAfterDays;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${familyhub.grocery.archive.interval:PT1H}",
+               initialDelayString = "${familyhub.grocery.archive.interval:PT1H}")
+    public void archiveCompletedItems() {
+        HouseholdContext.runAsRoot(this::archiveAllHouseholds);
+    }
+
+    private void archiveAllHouseholds() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(archiveAfterDays);
+        int total = 0;
+        int archived;
+        do {
+            archived = archiveBatch(cutoff);
+            total += archived;
+        } while (archived == batchSize);
+
+        if (total > 0) {
+            log.info("Archived {} grocery items completed before {}", total, cutoff);
+        }
+    }
+
+    private int archiveBatch(LocalDateTime cutoff) {
+        List<GroceryItem> archivedItems = transactionTemplate.execute(status -> {
+            List<GroceryItem> items = groceryItemRepository.findByIsCompletedTrueAndCompletedAtBefore(
+                    cutoff, PageRequest.of(0, batchSize));
+            if (items.isEmpty()) {
+                return List.of();
+            }
+
+            // The rows are locked, so all of them still qualify; if not, archive nothing this time
+            int deleted = groceryItemRepository.deleteArchivable(items.stream()
+                    .map(GroceryItem::getId)
+                    .toList(), cutoff);
+            if (deleted != items.size()) {
+                throw new IllegalStateException("Deleted " + deleted + " of " + items.size()
+                        + " grocery items selected for archiving");
+            }
+
+            LocalDateTime archivedAt = LocalDateTime.now();
+            archivedGroceryItemRepository.saveAll(items.stream()
+                    .map(item -> new ArchivedGroceryItem(item, archivedAt))
+                    .toList());
+            return items;
+        });
+        if (archivedItems == null) {
+            return 0;
+        }
+
+        for (GroceryItem item : archivedItems) {
+            // The rows have left grocery_items, so they no longer count towards its categories
+            categoryCache.groceryRemoved(item.getHouseholdId(), item.getId());
+            // The batch delete bypasses Hibernate's entity events, so journal it here
+            changeJournal.append(item.getHouseholdId(), ChangeRecord.EntityType.GROCERY_ITEM, item.getId(), ChangeRecord.Op.DELETE,
+                    item.getVersion());
+        }
+        return archivedItems.size();
+    }
+
+    @Transactional(readOnly = true)
+    public PageDTO<ArchivedGroceryItemDTO> getArchivedGroceryItems(int page, int size) {
+        return new PageDTO<>(archivedGroceryItemRepository
+                .findAllByOrderByCompletedAtDesc(PageRequest.of(page, size))
+                .map(ArchivedGroceryItemDTO::new));
+    }
+}
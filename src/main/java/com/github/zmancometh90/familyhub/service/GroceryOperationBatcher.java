@@ -0,0 +1,440 @@
+package com.github.zmancometh90.familyhub.service;
+
+import com.github.zmancometh90.familyhub.cache.CategoryCache;
+import com.github.zmancometh90.familyhub.cache.GroceryDuplicateIndex;
+import com.github.zmancometh90.familyhub.cache.PurchaseFrequencyModel;
+import com.github.zmancometh90.familyhub.journal.ChangeJournal;
+import com.github.zmancometh90.familyhub.journal.ChangeRecord;
+import com.github.zmancometh90.familyhub.models.GroceryItem;
+import com.github.zmancometh90.familyhub.models.GroceryItemKey;
+import com.github.zmancometh90.familyhub.models.GroceryOperation;
+import com.github.zmancometh90.familyhub.models.User;
+import com.github.zmancometh90.familyhub.repository.GroceryItemRepository;
+import com.github.zmancometh90.familyhub.repository.UserRepository;
+import com.github.zmancometh90.familyhub.security.HouseholdContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Merges live grocery edits and applies them in micro-batches. Operations on the same item that
+ * arrive between two flushes are folded into one pending change: quantity increments are summed
+ * (they commute), while completed and name are last-writer-wins registers stamped with the time
+ * the server received the operation. Every {@code familyhub.grocery.live.flush-interval} the
+ * pending changes of each household are written in one transaction, and listeners get the new
+ * item states to broadcast.
+ *
+ * <p>A register only overwrites the stored value if it is newer than that field's
+ * {@code nameUpdatedAt}/{@code completedUpdatedAt}, so a full edit over REST that landed after the
+ * operation was received wins over it.
+ *
+ * <p>Quantities never drop below one when a flush is applied. Increments therefore only commute
+ * while the running total stays at one or more: -5 and +5 on a quantity of 3 give 3 if they land
+ * in the same flush, but 6 if the decrement is applied first on its own. Removing an item is a
+ * delete, not a decrement to zero, so clients should not rely on decrements below one. A single
+ * increment is limited to {@value #MAX_DELTA} either way, and sums saturate instead of wrapping.
+ *
+ * <p>Putting an item back on the list while the same item was added again is handled like
+ * {@code GroceryService.uncompleteGroceryItem}: the active item gets this one's quantity and this
+ * one is deleted, so the list never holds two active items with the same key.
+ *
+ * <p>The journal records each item's change as made by the user whose operation on it was
+ * merged last.
+ */
+@Service
+public class GroceryOperationBatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(GroceryOperationBatcher.class);
+
+    static final int MAX_DELTA = 10_000;
+
+    private final GroceryItemRepository groceryItemRepository;
+    private final UserRepository userRepository;
+    private final GroceryDuplicateIndex groceryDuplicateIndex;
+    private final PurchaseFrequencyModel purchaseFrequencyModel;
+    private final CategoryCache categoryCache;
+    private final ChangeJournal changeJournal;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<ItemRef, PendingChange> pending = new ConcurrentHashMap<>();
+    private final List<Consumer<FlushResult>> listeners = new CopyOnWriteArrayList<>();
+
+    public GroceryOperationBatcher(GroceryItemRepository groceryItemRepository, UserRepository userRepository,
+                                   GroceryDuplicateIndex groceryDuplicateIndex,
+                                   PurchaseFrequencyModel purchaseFrequencyModel, CategoryCache categoryCache,
+                                   ChangeJournal changeJournal, TransactionTemplate transactionTemplate) {
+        this.groceryItemRepository = groceryItemRepository;
+        this.userRepository = userRepository;
+        this.groceryDuplicateIndex = groceryDuplicateIndex;
+        this.purchaseFrequencyModel = purchaseFrequencyModel;
+        this.categoryCache = categoryCache;
+        this.changeJournal = changeJournal;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    // Results are delivered on the flushing thread
+    public void addListener(Consumer<FlushResult> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Queues an operation from a user of the given household. Malformed operations are rejected
+     * here; an unknown item or one of another household is rejected at the next flush.
+     */
+    public void submit(UUID householdId, UUID userId, String sessionId, GroceryOperation operation) {
+        if (operation.itemId() == null || operation.op() == null) {
+            throw new IllegalArgumentException("Operation needs an op and an itemId");
+        }
+        switch (operation.op()) {
+            case INCREMENT -> {
+                if (operation.delta() == null || operation.delta() == 0) {
+                    throw new IllegalArgumentException("INCREMENT needs a non-zero delta");
+                }
+                if (operation.delta() < -MAX_DELTA || operation.delta() > MAX_DELTA) {
+                    throw new IllegalArgumentException("INCREMENT delta must be between -" + MAX_DELTA + " and " + MAX_DELTA);
+                }
+            }
+            case SET_COMPLETED -> {
+                if (operation.completed() == null) {
+                    throw new IllegalArgumentException("SET_COMPLETED needs completed");
+                }
+            }
+            case RENAME -> {
+                if (operation.name() == null || operation.name().trim().isEmpty()) {
+                    throw new IllegalArgumentException("RENAME needs a name");
+                }
+            }
+        }
+
+        LocalDateTime receivedAt = LocalDateTime.now();
+        pending.compute(new ItemRef(householdId, operation.itemId()), (ref, change) -> {
+            PendingChange merged = change != null ? change : new PendingChange();
+            merged.merge(operation, userId, sessionId, receivedAt);
+            return merged;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${familyhub.grocery.live.flush-interval:PT0.02S}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        // Take each item's change atomically; operations arriving meanwhile start a new one
+        Map<UUID, Map<UUID, PendingChange>> byHousehold = new HashMap<>();
+        for (ItemRef ref : new ArrayList<>(pending.keySet())) {
+            PendingChange change = pending.remove(ref);
+            if (change != null) {
+                byHousehold.computeIfAbsent(ref.householdId(), id -> new HashMap<>()).put(ref.itemId(), change);
+            }
+        }
+
+        for (Map.Entry<UUID, Map<UUID, PendingChange>> household : byHousehold.entrySet()) {
+            try {
+                FlushResult result = HouseholdContext.callAsRoot(() -> apply(household.getKey(), household.getValue()));
+                for (Consumer<FlushResult> listener : listeners) {
+                    listener.accept(result);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not apply {} live grocery changes for household {}",
+                        household.getValue().size(), household.getKey(), e);
+                FlushResult failed = new FlushResult(household.getKey(), List.of(), List.of(), List.of(),
+                        rejectAll(household.getValue(), e.getMessage()));
+                for (Consumer<FlushResult> listener : listeners) {
+                    listener.accept(failed);
+                }
+            }
+        }
+    }
+
+    private FlushResult apply(UUID householdId, Map<UUID, PendingChange> changes) {
+        // Runs as the root tenant, so the household is checked by hand
+        List<GroceryItem> loaded = groceryItemRepository.findAllById(changes.keySet());
+        List<GroceryItem> items = new ArrayList<>();
+        List<Rejection> rejections = new ArrayList<>();
+        Set<UUID> found = new HashSet<>();
+        for (GroceryItem item : loaded) {
+            if (householdId.equals(item.getHouseholdId())) {
+                items.add(item);
+                found.add(item.getId());
+            }
+        }
+        for (Map.Entry<UUID, PendingChange> entry : changes.entrySet()) {
+            if (!found.contains(entry.getKey())) {
+                rejections.addAll(entry.getValue().reject("Grocery item not found with id: " + entry.getKey()));
+            }
+        }
+        if (items.isEmpty()) {
+            return new FlushResult(householdId, List.of(), List.of(), List.of(), rejections);
+        }
+
+        // Lock the keys before and after any rename, like a REST update does
+        Set<GroceryItemKey> keys = new HashSet<>();
+        for (GroceryItem item : items) {
+            keys.add(GroceryItemKey.of(item));
+            PendingChange change = changes.get(item.getId());
+            if (change.name != null) {
+                keys.add(GroceryItemKey.of(change.name, item.getCategory()));
+            }
+        }
+
+        Map<UUID, UUID> actors = new HashMap<>();
+        for (GroceryItem item : items) {
+            actors.put(item.getId(), changes.get(item.getId()).lastUserId);
+        }
+
+        Batch batch = groceryDuplicateIndex.withLocks(householdId, keys, () -> ChangeJournal.callAs(actors, () -> {
+            Batch written = OptimisticRetry.run(() -> transactionTemplate.execute(status ->
+                    write(householdId, changes, found, actors)));
+
+            // Same cache upkeep as the single-item service paths, once the batch has committed
+            for (Applied change : written.applied()) {
+                GroceryItem item = change.item();
+                GroceryItemKey newKey = GroceryItemKey.of(item);
+                if (change.wasCompleted() != item.isCompleted() || !change.oldKey().equals(newKey)) {
+                    groceryDuplicateIndex.remove(householdId, change.oldKey(), item.getId());
+                    if (!item.isCompleted()) {
+                        groceryDuplicateIndex.put(householdId, newKey, item.getId());
+                    }
+                }
+            }
+            for (Merged merged : written.merged()) {
+                groceryDuplicateIndex.remove(householdId, merged.oldKey(), merged.deletedId());
+                categoryCache.groceryRemoved(householdId, merged.deletedId());
+                // Bulk updates bypass the journal's entity listener
+                changeJournal.append(householdId, ChangeRecord.EntityType.GROCERY_ITEM, merged.deletedId(),
+                        ChangeRecord.Op.DELETE, merged.deletedVersion());
+            }
+            return written;
+        }));
+
+        for (Applied change : batch.applied()) {
+            if (!change.wasCompleted() && change.item().isCompleted()) {
+                purchaseFrequencyModel.recordPurchase(change.item());
+            }
+        }
+
+        return new FlushResult(householdId, batch.applied().stream().map(Applied::item).toList(),
+                batch.merged().stream().map(Merged::deletedId).toList(), acknowledgements(items, changes), rejections);
+    }
+
+    // Runs in the flush transaction, holding the index locks for every key the batch touches
+    private Batch write(UUID householdId, Map<UUID, PendingChange> changes, Set<UUID> found, Map<UUID, UUID> actors) {
+        Map<UUID, GroceryItem> inBatch = new HashMap<>();
+        List<Applied> applied = new ArrayList<>();
+        List<GroceryItem> uncompleting = new ArrayList<>();
+        for (GroceryItem current : groceryItemRepository.findAllById(found)) {
+            inBatch.put(current.getId(), current);
+            PendingChange change = changes.get(current.getId());
+            if (change.uncompletes(current)) {
+                // Left until every other change is applied, since it may merge into one of them
+                uncompleting.add(current);
+                continue;
+            }
+            GroceryItemKey oldKey = GroceryItemKey.of(current);
+            boolean wasCompleted = current.isCompleted();
+            change.applyTo(current, userRepository);
+            applied.add(new Applied(current, oldKey, wasCompleted));
+        }
+
+        Map<GroceryItemKey, GroceryItem> activeInBatch = new HashMap<>();
+        for (Applied change : applied) {
+            if (!change.item().isCompleted()) {
+                activeInBatch.putIfAbsent(GroceryItemKey.of(change.item()), change.item());
+            }
+        }
+
+        List<Merged> merged = new ArrayList<>();
+        for (GroceryItem current : uncompleting) {
+            PendingChange change = changes.get(current.getId());
+            GroceryItemKey oldKey = GroceryItemKey.of(current);
+            GroceryItemKey newKey = GroceryItemKey.of(change.nameFor(current), current.getCategory());
+            GroceryItem active = activeInBatch.get(newKey);
+            if (active == null) {
+                active = findActiveItem(householdId, newKey, inBatch.keySet());
+                if (active != null) {
+                    // Written with the batch from here on, so later merges into it add up
+                    inBatch.put(active.getId(), active);
+                    activeInBatch.put(newKey, active);
+                    applied.add(new Applied(active, newKey, false));
+                    actors.put(active.getId(), change.lastUserId);
+                }
+            }
+            if (active == null) {
+                change.applyTo(current, userRepository);
+                applied.add(new Applied(current, oldKey, true));
+                activeInBatch.putIfAbsent(newKey, current);
+                continue;
+            }
+
+            // Merge like GroceryService.mergeInto: the active item takes this one's quantity
+            active.setQuantity(saturatedAdd(active.getQuantity(), change.quantityFor(current)));
+            if (groceryItemRepository.softDeleteById(current.getId(), LocalDateTime.now()) == 0) {
+                throw new ConflictException("Grocery item was deleted by someone else");
+            }
+            // Read back in the same transaction, so the journal gets the version the delete wrote
+            merged.add(new Merged(current.getId(), oldKey,
+                    groceryItemRepository.findVersionIncludingDeletedById(current.getId()).orElseThrow()));
+        }
+
+        groceryItemRepository.saveAll(applied.stream().map(Applied::item).toList());
+        return new Batch(applied, merged);
+    }
+
+    // The active item outside the batch that owns the key, as GroceryService.findActiveItem finds it
+    private GroceryItem findActiveItem(UUID householdId, GroceryItemKey key, Set<UUID> inBatch) {
+        UUID id = groceryDuplicateIndex.find(householdId, key);
+        if (id == null || inBatch.contains(id)) {
+            // An item in the batch only counts with its new state, which activeInBatch has
+            return null;
+        }
+        return groceryItemRepository.findById(id)
+                .filter(item -> householdId.equals(item.getHouseholdId()))
+                .filter(item -> !item.isCompleted() && GroceryItemKey.of(item).equals(key))
+                .orElse(null);
+    }
+
+    private static int saturatedAdd(int a, int b) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, (long) a + b));
+    }
+
+    private static List<Acknowledgement> acknowledgements(List<GroceryItem> items, Map<UUID, PendingChange> changes) {
+        List<Acknowledgement> acknowledgements = new ArrayList<>();
+        for (GroceryItem item : items) {
+            for (SourceOp source : changes.get(item.getId()).sources) {
+                acknowledgements.add(new Acknowledgement(source.sessionId(), source.opId()));
+            }
+        }
+        return acknowledgements;
+    }
+
+    private static List<Rejection> rejectAll(Map<UUID, PendingChange> changes, String reason) {
+        List<Rejection> rejections = new ArrayList<>();
+        for (PendingChange change : changes.values()) {
+            rejections.addAll(change.reject(reason));
+        }
+        return rejections;
+    }
+
+    public record Acknowledgement(String sessionId, String opId) {
+    }
+
+    public record Rejection(String sessionId, String opId, String reason) {
+    }
+
+    // What one household's flush did: the items as written, the ids of items merged into another
+    // and deleted, and the outcome of each operation
+    public record FlushResult(UUID householdId, List<GroceryItem> items, List<UUID> deleted,
+                              List<Acknowledgement> acknowledged, List<Rejection> rejected) {
+    }
+
+    private record ItemRef(UUID householdId, UUID itemId) {
+    }
+
+    private record SourceOp(String sessionId, String opId) {
+    }
+
+    private record Applied(GroceryItem item, GroceryItemKey oldKey, boolean wasCompleted) {
+    }
+
+    private record Merged(UUID deletedId, GroceryItemKey oldKey, long deletedVersion) {
+    }
+
+    private record Batch(List<Applied> applied, List<Merged> merged) {
+    }
+
+    // Accessed only inside ConcurrentHashMap.compute, or after being removed from the map
+    private static final class PendingChange {
+
+        private int quantityDelta;
+        private Boolean completed;
+        private UUID completedByUserId;
+        private LocalDateTime completedAt;
+        private String name;
+        private LocalDateTime nameAt;
+        private UUID lastUserId;
+        private final List<SourceOp> sources = new ArrayList<>();
+
+        private void merge(GroceryOperation operation, UUID userId, String sessionId, LocalDateTime receivedAt) {
+            lastUserId = userId;
+            switch (operation.op()) {
+                case INCREMENT -> quantityDelta = saturatedAdd(quantityDelta, operation.delta());
+                case SET_COMPLETED -> {
+                    if (completedAt == null || !receivedAt.isBefore(completedAt)) {
+                        completed = operation.completed();
+                        completedByUserId = userId;
+                        completedAt = receivedAt;
+                    }
+                }
+                case RENAME -> {
+                    if (nameAt == null || !receivedAt.isBefore(nameAt)) {
+                        name = operation.name().trim();
+                        nameAt = receivedAt;
+                    }
+                }
+            }
+            sources.add(new SourceOp(sessionId, operation.opId()));
+        }
+
+        private void applyTo(GroceryItem item, UserRepository userRepository) {
+            item.setQuantity(quantityFor(item));
+            if (changesCompleted(item)) {
+                item.setCompleted(completed);
+                if (completed) {
+                    User completedBy = userRepository.getReferenceById(completedByUserId);
+                    item.setCompletedBy(completedBy);
+                    item.setCompletedAt(completedAt);
+                } else {
+                    item.setCompletedBy(null);
+                    item.setCompletedAt(null);
+                }
+                item.setCompletedUpdatedAt(completedAt);
+            }
+            if (name != null && isNewer(nameAt, item.getNameUpdatedAt()) && !Objects.equals(name, item.getName())) {
+                item.setName(name);
+                item.setNameUpdatedAt(nameAt);
+            }
+        }
+
+        private boolean uncompletes(GroceryItem item) {
+            return changesCompleted(item) && !completed;
+        }
+
+        private boolean changesCompleted(GroceryItem item) {
+            return completed != null && isNewer(completedAt, item.getCompletedUpdatedAt()) && completed != item.isCompleted();
+        }
+
+        // Never below one, see the class comment
+        private int quantityFor(GroceryItem item) {
+            return quantityDelta != 0 ? Math.max(1, saturatedAdd(item.getQuantity(), quantityDelta)) : item.getQuantity();
+        }
+
+        private String nameFor(GroceryItem item) {
+            return name != null && isNewer(nameAt, item.getNameUpdatedAt()) ? name : item.getName();
+        }
+
+        private List<Rejection> reject(String reason) {
+            return sources.stream()
+                    .map(source -> new Rejection(source.sessionId(), source.opId(), reason))
+                    .toList();
+        }
+
+        private static boolean isNewer(LocalDateTime candidate, LocalDateTime stored) {
+            return stored == null || candidate.isAfter(stored);
+        }
+    }
+}
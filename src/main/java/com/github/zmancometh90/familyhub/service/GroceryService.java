@@ -1,27 +1,56 @@
 package com.github.zmancometh90.familyhub.service;
 
+import com.github.zmancometh90.familyhub.cache.CategoryCache;
+import com.github.zmancometh90.familyhub.cache.GroceryDuplicateIndex;
+import com.github.zmancometh90.familyhub.cache.PurchaseFrequencyModel;
+import com.github.zmancometh90.familyhub.cache.PurchaseStats;
+import com.github.zmancometh90.familyhub.cache.SingleFlight;
+import com.github.zmancometh90.familyhub.diagnostics.DtoMappingEvent;
+import com.github.zmancometh90.familyhub.journal.ChangeJournal;
+import com.github.zmancometh90.familyhub.journal.ChangeRecord;
 import com.github.zmancometh90.familyhub.models.*;
+import com.github.zmancometh90.familyhub.repository.FavoriteItemRepository;
 import com.github.zmancometh90.familyhub.repository.GroceryItemRepository;
 import com.github.zmancometh90.familyhub.repository.UserRepository;
+import com.github.zmancometh90.familyhub.security.HouseholdContext;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.Optional;
-import java.util.UUID;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class GroceryService {
     
     private final GroceryItemRepository groceryItemRepository;
+    private final FavoriteItemRepository favoriteItemRepository;
     private final UserRepository userRepository;
     private final UserService userService;
+    private final GroceryDuplicateIndex groceryDuplicateIndex;
+    private final PurchaseFrequencyModel purchaseFrequencyModel;
+    private final CategoryCache categoryCache;
+    private final ChangeJournal changeJournal;
+    private final TransactionTemplate transactionTemplate;
 
-    public GroceryService(GroceryItemRepository groceryItemRepository, UserRepository userRepository, UserService userService) {
+    public GroceryService(GroceryItemRepository groceryItemRepository, FavoriteItemRepository favoriteItemRepository,
+                          UserRepository userRepository, UserService userService,
+                          GroceryDuplicateIndex groceryDuplicateIndex, PurchaseFrequencyModel purchaseFrequencyModel,
+                          CategoryCache categoryCache, ChangeJournal changeJournal,
+                          TransactionTemplate transactionTemplate) {
         this.groceryItemRepository = groceryItemRepository;
+        this.favoriteItemRepository = favoriteItemRepository;
         this.userRepository = userRepository;
         this.userService = userService;
+        this.groceryDuplicateIndex = groceryDuplicateIndex;
+        this.purchaseFrequencyModel = purchaseFrequencyModel;
+        this.categoryCache = categoryCache;
+        this.changeJournal = changeJournal;
+        this.transactionTemplate = transactionTemplate;
     }
 
     private GroceryItemDTO toDTO(GroceryItem item) {
@@ -29,7 +58,7 @@ public class GroceryService {
         UserDTO completedByDTO = item.getCompletedBy() != null ? 
             userService.findUserById(item.getCompletedBy().getId()) : null;
 
-        return new GroceryItemDTO(
+        GroceryItemDTO dto = new GroceryItemDTO(
                 item.getId(),
                 item.getName(),
                 item.getDescription(),
@@ -42,6 +71,8 @@ public class GroceryService {
                 item.getCreatedAt(),
                 item.getUpdatedAt()
         );
+        dto.setVersion(item.getVersion());
+        return dto;
     }
 
     public GroceryItemDTO createGroceryItem(GroceryItemRequest request, UUID addedByUserId) {
@@ -50,104 +81,356 @@ public class GroceryService {
             throw new RuntimeException("User not found with id: " + addedByUserId);
         }
 
-        GroceryItem item = new GroceryItem(request.name(), request.category(), request.quantity(), addedBy.get());
-        item.setDescription(request.description());
+        UUID householdId = addedBy.get().getHouseholdId();
+        int quantity = request.quantity() != null ? request.quantity() : 1;
+        GroceryItemKey key = GroceryItemKey.of(request.name(), request.category());
 
-        groceryItemRepository.save(item);
+        GroceryItem item = groceryDuplicateIndex.withLock(householdId, key, () -> {
+            // Someone already has this on the active list, so just bump the quantity. Increments
+            // commute, so losing a race to another writer only means re-reading and adding again.
+            GroceryItem existing = OptimisticRetry.run(() -> {
+                GroceryItem active = findActiveItem(householdId, key);
+                if (active == null) {
+                    return null;
+                }
+                active.setQuantity(active.getQuantity() + quantity);
+                return groceryItemRepository.save(active);
+            });
+            if (existing != null) {
+                return existing;
+            }
+
+            GroceryItem created = new GroceryItem(request.name(), request.category(), quantity, addedBy.get());
+            created.setDescription(request.description());
+            groceryItemRepository.save(created);
+            groceryDuplicateIndex.put(householdId, key, created.getId());
+            categoryCache.grocerySaved(householdId, created.getId(), created.getCategory());
+            return created;
+        });
         return toDTO(item);
     }
 
-    public GroceryItemDTO completeGroceryItem(UUID id, UUID completedByUserId) {
-        Optional<GroceryItem> foundItem = groceryItemRepository.findById(id);
-        if (foundItem.isEmpty()) {
-            throw new RuntimeException("Grocery item not found with id: " + id);
+    /**
+     * Puts the given favorites (or every favorite in a category) on the grocery list. Favorites
+     * that match an active item by normalized name and category add to its quantity; the rest are
+     * inserted together with a single saveAll so Hibernate can send them as one JDBC batch.
+     */
+    public List<GroceryItemDTO> addGroceryItemsFromFavorites(GroceryFromFavoritesRequest request, UUID addedByUserId) {
+        Optional<User> addedBy = userRepository.findById(addedByUserId);
+        if (addedBy.isEmpty()) {
+            throw new RuntimeException("User not found with id: " + addedByUserId);
+        }
+
+        UUID householdId = addedBy.get().getHouseholdId();
+        List<FavoriteItem> favorites = resolveFavorites(request, addedBy.get());
+        List<GroceryItemKey> keys = favorites.stream()
+                .map(GroceryItemKey::of)
+                .toList();
+
+        // Quantity increments commute, so a lost optimistic race just reruns the whole batch
+        List<GroceryItem> touchedItems = groceryDuplicateIndex.withLocks(householdId, keys, () -> OptimisticRetry.run(() -> {
+            List<GroceryItem> newItems = new ArrayList<>();
+            List<GroceryItem> items = transactionTemplate.execute(status -> {
+                Map<GroceryItemKey, GroceryItem> itemsByKey = new HashMap<>();
+                Set<GroceryItem> touched = new LinkedHashSet<>();
+                for (FavoriteItem favorite : favorites) {
+                    GroceryItemKey key = GroceryItemKey.of(favorite);
+                    int quantity = favorite.getDefaultQuantity() != null ? favorite.getDefaultQuantity() : 1;
+                    GroceryItem item = itemsByKey.computeIfAbsent(key, k -> findActiveItem(householdId, k));
+                    if (item != null) {
+                        item.setQuantity(item.getQuantity() + quantity);
+                    } else {
+                        item = new GroceryItem(favorite.getName(), favorite.getCategory(), quantity, addedBy.get());
+                        item.setDescription(favorite.getDescription());
+                        itemsByKey.put(key, item);
+                        newItems.add(item);
+                    }
+                    touched.add(item);
+                }
+
+                groceryItemRepository.saveAll(newItems);
+                return new ArrayList<>(touched);
+            });
+
+            // Only index the new items once the transaction has committed
+            for (GroceryItem item : newItems) {
+                groceryDuplicateIndex.put(householdId, GroceryItemKey.of(item), item.getId());
+                categoryCache.grocerySaved(householdId, item.getId(), item.getCategory());
+            }
+            return items;
+        }));
+
+        return DtoMappingEvent.mapAll(touchedItems, this::toDTO);
+    }
+
+    private List<FavoriteItem> resolveFavorites(GroceryFromFavoritesRequest request, User user) {
+        if (request.category() != null && !request.category().trim().isEmpty()) {
+            return favoriteItemRepository.findByUserAndCategoryOrderByNameAsc(user, request.category());
+        }
+        if (request.favoriteIds() == null || request.favoriteIds().isEmpty()) {
+            throw new RuntimeException("Either favoriteIds or category must be provided");
+        }
+
+        List<FavoriteItem> favorites = favoriteItemRepository.findAllById(request.favoriteIds());
+        if (favorites.size() != new HashSet<>(request.favoriteIds()).size()) {
+            throw new RuntimeException("One or more favorite items were not found");
+        }
+        for (FavoriteItem favorite : favorites) {
+            // Users can only add from their own favorites
+            if (!favorite.getUser().getId().equals(user.getId())) {
+                throw new RuntimeException("You can only add your own favorite items");
+            }
+        }
+        return favorites;
+    }
+
+    // Must be called while holding the index lock for the key
+    private GroceryItem findActiveItem(UUID householdId, GroceryItemKey key) {
+        UUID id = groceryDuplicateIndex.find(householdId, key);
+        if (id == null) {
+            return null;
         }
 
+        Optional<GroceryItem> item = groceryItemRepository.findById(id);
+        if (item.isEmpty() || item.get().isCompleted()) {
+            groceryDuplicateIndex.remove(householdId, key, id);
+            return null;
+        }
+        return item.get();
+    }
+
+    public GroceryItemDTO completeGroceryItem(UUID id, UUID completedByUserId) {
         Optional<User> completedBy = userRepository.findById(completedByUserId);
         if (completedBy.isEmpty()) {
             throw new RuntimeException("User not found with id: " + completedByUserId);
         }
 
-        GroceryItem item = foundItem.get();
-        item.setCompleted(true);
-        item.setCompletedBy(completedBy.get());
-        item.setCompletedAt(LocalDateTime.now());
+        AtomicBoolean completedNow = new AtomicBoolean();
+        GroceryItem item = OptimisticRetry.run(() -> withItemLock(id, null, current -> {
+            // Already ticked off by someone else, which is the state we wanted anyway
+            if (current.isCompleted()) {
+                return current;
+            }
+
+            current.setCompleted(true);
+            current.setCompletedBy(completedBy.get());
+            current.setCompletedAt(LocalDateTime.now());
+            current.setCompletedUpdatedAt(current.getCompletedAt());
 
-        groceryItemRepository.save(item);
+            GroceryItem saved = groceryItemRepository.save(current);
+            groceryDuplicateIndex.remove(saved.getHouseholdId(), GroceryItemKey.of(saved), saved.getId());
+            completedNow.set(true);
+            return saved;
+        }));
+        if (completedNow.get()) {
+            purchaseFrequencyModel.recordPurchase(item);
+        }
         return toDTO(item);
     }
 
+    /**
+     * Puts a completed item back on the list. If the same item was added again while this one was
+     * ticked off, the two are merged like a duplicate add: the active item gets this one's
+     * quantity, this one is deleted and the active item is returned.
+     */
     public GroceryItemDTO uncompleteGroceryItem(UUID id) {
-        Optional<GroceryItem> foundItem = groceryItemRepository.findById(id);
-        if (foundItem.isEmpty()) {
-            throw new RuntimeException("Grocery item not found with id: " + id);
-        }
+        GroceryItem item = OptimisticRetry.run(() -> withItemLock(id, null, current -> {
+            if (!current.isCompleted()) {
+                return current;
+            }
 
-        GroceryItem item = foundItem.get();
-        item.setCompleted(false);
-        item.setCompletedBy(null);
-        item.setCompletedAt(null);
+            UUID householdId = current.getHouseholdId();
+            GroceryItemKey key = GroceryItemKey.of(current);
+            GroceryItem active = findActiveItem(householdId, key);
+            if (active != null) {
+                return mergeInto(active, current);
+            }
+
+            current.setCompleted(false);
+            current.setCompletedBy(null);
+            current.setCompletedAt(null);
+            current.setCompletedUpdatedAt(LocalDateTime.now());
 
-        groceryItemRepository.save(item);
+            GroceryItem saved = groceryItemRepository.save(current);
+            groceryDuplicateIndex.put(householdId, key, saved.getId());
+            return saved;
+        }));
         return toDTO(item);
     }
 
+    // Must be called while holding the index lock for the key both items share
+    private GroceryItem mergeInto(GroceryItem active, GroceryItem duplicate) {
+        record Merge(GroceryItem merged, long deletedVersion) {
+        }
+        Merge merge = transactionTemplate.execute(status -> {
+            active.setQuantity(active.getQuantity() + duplicate.getQuantity());
+            GroceryItem saved = groceryItemRepository.save(active);
+            if (groceryItemRepository.softDeleteById(duplicate.getId(), LocalDateTime.now()) == 0) {
+                throw new ConflictException("Grocery item was deleted by someone else");
+            }
+            // Read back in the same transaction, so the journal gets the version the delete wrote
+            return new Merge(saved, groceryItemRepository.findVersionIncludingDeletedById(duplicate.getId()).orElseThrow());
+        });
+
+        UUID householdId = duplicate.getHouseholdId();
+        categoryCache.groceryRemoved(householdId, duplicate.getId());
+        // Bulk updates bypass the journal's entity listener
+        changeJournal.append(householdId, ChangeRecord.EntityType.GROCERY_ITEM, duplicate.getId(), ChangeRecord.Op.DELETE,
+                merge.deletedVersion());
+        return merge.merged();
+    }
+
+    /**
+     * Overwrites the item with the request. When the request carries the version the client last
+     * saw and someone has changed the item since, nothing is written and a ConflictException is
+     * thrown, since a full overwrite cannot be merged with the other change.
+     */
     public GroceryItemDTO updateGroceryItem(UUID id, GroceryItemRequest request) {
-        Optional<GroceryItem> foundItem = groceryItemRepository.findById(id);
-        if (foundItem.isEmpty()) {
+        GroceryItemKey newKey = GroceryItemKey.of(request.name(), request.category());
+        GroceryItem item = withItemLock(id, newKey, current -> {
+            if (request.version() != null && !request.version().equals(current.getVersion())) {
+                throw new ConflictException("Grocery item was changed by someone else");
+            }
+
+            UUID householdId = current.getHouseholdId();
+            GroceryItemKey oldKey = GroceryItemKey.of(current);
+            if (!Objects.equals(current.getName(), request.name())) {
+                current.setNameUpdatedAt(LocalDateTime.now());
+            }
+            current.setName(request.name());
+            current.setDescription(request.description());
+            current.setCategory(request.category());
+            current.setQuantity(request.quantity());
+
+            try {
+                groceryItemRepository.save(current);
+            } catch (ObjectOptimisticLockingFailureException e) {
+                throw new ConflictException("Grocery item was changed by someone else");
+            }
+            if (!current.isCompleted() && !oldKey.equals(newKey)) {
+                groceryDuplicateIndex.remove(householdId, oldKey, current.getId());
+                groceryDuplicateIndex.put(householdId, newKey, current.getId());
+            }
+            categoryCache.grocerySaved(householdId, current.getId(), current.getCategory());
+            return current;
+        });
+        return toDTO(item);
+    }
+
+    /**
+     * Runs {@code action} on the item while holding the index locks for its key and for
+     * {@code otherKey}, if given. Only the key columns are read before locking; the entity itself is
+     * loaded under the lock, so the action sees every change another writer for that key committed.
+     * If the item was renamed between the two reads its lock was the wrong one, and the caller gets
+     * a ConflictException.
+     */
+    private <T> T withItemLock(UUID id, GroceryItemKey otherKey, Function<GroceryItem, T> action) {
+        List<Object[]> keyColumns = groceryItemRepository.findKeyColumnsById(id);
+        if (keyColumns.isEmpty()) {
             throw new RuntimeException("Grocery item not found with id: " + id);
         }
+        UUID householdId = (UUID) keyColumns.getFirst()[0];
+        GroceryItemKey key = GroceryItemKey.of((String) keyColumns.getFirst()[1], (String) keyColumns.getFirst()[2]);
+        List<GroceryItemKey> keys = otherKey != null ? List.of(key, otherKey) : List.of(key);
 
-        GroceryItem item = foundItem.get();
-        item.setName(request.name());
-        item.setDescription(request.description());
-        item.setCategory(request.category());
-        item.setQuantity(request.quantity());
+        return groceryDuplicateIndex.withLocks(householdId, keys, () -> {
+            GroceryItem current = getGroceryItem(id);
+            if (!GroceryItemKey.of(current).equals(key)) {
+                throw new ConflictException("Grocery item was changed by someone else");
+            }
+            return action.apply(current);
+        });
+    }
 
-        groceryItemRepository.save(item);
-        return toDTO(item);
+    private GroceryItem getGroceryItem(UUID id) {
+        Optional<GroceryItem> foundItem = groceryItemRepository.findById(id);
+        if (foundItem.isEmpty()) {
+            throw new RuntimeException("Grocery item not found with id: " + id);
+        }
+        return foundItem.get();
     }
 
+    @Transactional(readOnly = true)
     public GroceryItemDTO findGroceryItemById(UUID id) {
         Optional<GroceryItem> foundItem = groceryItemRepository.findById(id);
         return foundItem.map(this::toDTO).orElse(null);
     }
 
+    @Transactional(readOnly = true)
     public List<GroceryItemDTO> getAllGroceryItems() {
-        return groceryItemRepository.findAll().stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return DtoMappingEvent.mapAll(groceryItemRepository.findAll(), this::toDTO);
     }
 
+    // Every device polls this at once; concurrent callers share one query and one unmodifiable list
+    @SingleFlight
+    @Transactional(readOnly = true)
     public List<GroceryItemDTO> getActiveGroceryItems() {
-        return groceryItemRepository.findByIsCompletedFalseOrderByCreatedAtDesc().stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return DtoMappingEvent.mapAll(groceryItemRepository.findByIsCompletedFalseOrderByCreatedAtDesc(), this::toDTO);
     }
 
+    @Transactional(readOnly = true)
     public List<GroceryItemDTO> getCompletedGroceryItems() {
-        return groceryItemRepository.findByIsCompletedTrueOrderByCompletedAtDesc().stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return DtoMappingEvent.mapAll(groceryItemRepository.findByIsCompletedTrueOrderByCompletedAtDesc(), this::toDTO);
     }
 
+    @Transactional(readOnly = true)
     public List<GroceryItemDTO> getGroceryItemsByCategory(String category) {
-        return groceryItemRepository.findByCategory(category).stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return DtoMappingEvent.mapAll(groceryItemRepository.findByCategory(category), this::toDTO);
     }
 
     public List<String> getGroceryCategories() {
-        return groceryItemRepository.findDistinctCategories();
+        return categoryCache.getGroceryCategories(HouseholdContext.requireHouseholdId());
     }
 
-    public List<GroceryItemDTO> searchGroceryItems(String searchTerm) {
-        return groceryItemRepository.findByNameOrDescriptionContainingIgnoreCase(searchTerm).stream()
-                .map(this::toDTO)
+    // Items the household usually buys by now and that are not already on the active list
+    public List<GrocerySuggestionDTO> getGrocerySuggestions() {
+        UUID householdId = HouseholdContext.requireHouseholdId();
+        return purchaseFrequencyModel.getDueItems(householdId, LocalDateTime.now()).stream()
+                .filter(stats -> groceryDuplicateIndex.find(householdId, GroceryItemKey.of(stats.name(), stats.category())) == null)
+                .map(this::toSuggestionDTO)
                 .collect(Collectors.toList());
     }
 
+    private GrocerySuggestionDTO toSuggestionDTO(PurchaseStats stats) {
+        return new GrocerySuggestionDTO(
+                stats.name(),
+                stats.category(),
+                stats.typicalQuantity(),
+                stats.purchaseCount(),
+                stats.meanIntervalHours() / 24.0,
+                stats.lastPurchasedAt(),
+                stats.dueAt()
+        );
+    }
+
+    @Transactional(readOnly = true)
+    public List<GroceryItemDTO> searchGroceryItems(String searchTerm) {
+        return DtoMappingEvent.mapAll(groceryItemRepository.findByNameOrDescriptionContainingIgnoreCase(searchTerm), this::toDTO);
+    }
+
     public void deleteGroceryItem(UUID id) {
-        groceryItemRepository.deleteById(id);
+        Optional<GroceryItem> foundItem = groceryItemRepository.findById(id);
+        if (foundItem.isEmpty()) {
+            return;
+        }
+
+        GroceryItem item = foundItem.get();
+        GroceryItemKey key = GroceryItemKey.of(item);
+        Long version = groceryDuplicateIndex.withLock(item.getHouseholdId(), key, () -> {
+            // Tombstone only; SoftDeletePurgeService removes the row later. Read back in the same
+            // transaction, so the journal gets the version the delete wrote.
+            Long written = transactionTemplate.execute(status -> groceryItemRepository.softDeleteById(id, LocalDateTime.now()) == 0
+                    ? null : groceryItemRepository.findVersionIncludingDeletedById(id).orElseThrow());
+            if (written != null) {
+                groceryDuplicateIndex.remove(item.getHouseholdId(), key, id);
+            }
+            return written;
+        });
+        if (version != null) {
+            categoryCache.groceryRemoved(item.getHouseholdId(), id);
+            // Bulk updates bypass the journal's entity listener
+            changeJournal.append(item.getHouseholdId(), ChangeRecord.EntityType.GROCERY_ITEM, id, ChangeRecord.Op.DELETE,
+                    version);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,89 @@
+package com.github.zmancometh90.familyhub.service;
+
+import com.github.zmancometh90.familyhub.models.Household;
+import com.github.zmancometh90.familyhub.models.HouseholdDTO;
+import com.github.zmancometh90.familyhub.models.HouseholdRequest;
+import com.github.zmancometh90.familyhub.models.User;
+import com.github.zmancometh90.familyhub.persistence.HouseholdTenantResolver;
+import com.github.zmancometh90.familyhub.repository.HouseholdRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Service
+public class HouseholdService {
+
+    private final HouseholdRepository householdRepository;
+    private final SessionFactory sessionFactory;
+    private final PasswordEncoder passwordEncoder;
+
+    public HouseholdService(HouseholdRepository householdRepository, EntityManagerFactory entityManagerFactory,
+                            PasswordEncoder passwordEncoder) {
+        this.householdRepository = householdRepository;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    @Transactional(readOnly = true)
+    public HouseholdDTO findHouseholdById(UUID id) {
+        Optional<Household> household = householdRepository.findById(id);
+        return household.map(HouseholdDTO::new).orElse(null);
+    }
+
+    /**
+     * Creates a household together with its first admin. The caller's own session is pinned to the
+     * caller's household, so both rows are written in a root-tenant session of their own; that also
+     * lets the username check see every household, since usernames are unique across all of them.
+     */
+    public HouseholdDTO createHousehold(HouseholdRequest request) {
+        if (isBlank(request.name()) || isBlank(request.adminUsername()) || isBlank(request.adminPassword())) {
+            throw new RuntimeException("Household name, admin username and admin password are required");
+        }
+
+        try (Session session = sessionFactory.withOptions()
+                .tenantIdentifier(HouseholdTenantResolver.ROOT_TENANT)
+                .openSession()) {
+            Transaction transaction = session.beginTransaction();
+            try {
+                Long taken = session.createSelectionQuery(
+                                "SELECT COUNT(u) FROM User u WHERE u.username = :username", Long.class)
+                        .setParameter("username", request.adminUsername())
+                        .getSingleResult();
+                if (taken > 0) {
+                    throw new RuntimeException("User with username " + request.adminUsername() + " already exists");
+                }
+
+                Household household = new Household(request.name());
+                session.persist(household);
+
+                User admin = new User(
+                        request.adminUsername(),
+                        passwordEncoder.encode(request.adminPassword()),
+                        request.adminName() != null ? request.adminName() : request.adminUsername(),
+                        User.Role.ADMIN
+                );
+                admin.setHouseholdId(household.getId());
+                session.persist(admin);
+
+                transaction.commit();
+                return new HouseholdDTO(household);
+            } catch (RuntimeException e) {
+                if (transaction.isActive()) {
+                    transaction.rollback();
+                }
+                throw e;
+            }
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+}
@@ -0,0 +1,36 @@
+package com.github.zmancometh90.familyhub.service;
+
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * Re-runs an idempotent state transition (complete, uncomplete, set status) when its write loses
+ * an optimistic lock race. Each attempt must re-read the entity so the change is applied on top of
+ * whatever the other writer committed.
+ */
+final class OptimisticRetry {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private OptimisticRetry() {
+    }
+
+    static <T> T run(Supplier<T> attempt) {
+        // Inside a caller's transaction the failure has already marked it rollback-only
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return attempt.get();
+        }
+
+        for (int i = 1; ; i++) {
+            try {
+                return attempt.get();
+            } catch (ObjectOptimisticLockingFailureException e) {
+                if (i >= MAX_ATTEMPTS) {
+                    throw new ConflictException("Gave up after " + MAX_ATTEMPTS + " concurrent modifications");
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.github.zmancometh90.familyhub.service;
+
+import com.github.zmancometh90.familyhub.journal.ChangeJournal;
+import com.github.zmancometh90.familyhub.repository.ChoreRepository;
+import com.github.zmancometh90.familyhub.repository.EventRepository;
+import com.github.zmancometh90.familyhub.repository.GroceryItemRepository;
+import com.github.zmancometh90.familyhub.security.HouseholdContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * Physically removes chores, events and grocery items that were soft deleted more than
+ * {@code familyhub.purge.retention} ago, one batch per transaction. Tombstones are kept that long so
+ * sync clients that were offline still see the deletes in the change journal.
+ *
+ * <p>Purging only runs while the app is quiet, meaning nothing has been committed to the change
+ * journal for {@code familyhub.purge.quiet-period}. It stops between batches once activity resumes.
+ */
+@Service
+public class SoftDeletePurgeService {
+
+    private static final Logger log = LoggerFactory.getLogger(SoftDeletePurgeService.class);
+
+    private final ChoreRepository choreRepository;
+    private final EventRepository eventRepository;
+    private final GroceryItemRepository groceryItemRepository;
+    private final ChangeJournal changeJournal;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration retention;
+    private final Duration quietPeriod;
+    private final int batchSize;
+
+    public SoftDeletePurgeService(ChoreRepository choreRepository,
+                                  EventRepository eventRepository,
+                                  GroceryItemRepository groceryItemRepository,
+                                  ChangeJournal changeJournal,
+                                  TransactionTemplate transactionTemplate,
+                                  @Value("${familyhub.purge.retention:P7D}") Duration retention,
+                                  @Value("${familyhub.purge.quiet-period:PT5M}") Duration quietPeriod,
+                                  @Value("${familyhub.purge.batch-size:500}") int batchSize) {
+        this.choreRepository = choreRepository;
+        this.eventRepository = eventRepository;
+        this.groceryItemRepository = groceryItemRepository;
+        this.changeJournal = changeJournal;
+        this.transactionTemplate = transactionTemplate;
+        this.retention = retention;
+        this.quietPeriod = quietPeriod;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${familyhub.purge.interval:PT15M}",
+               initialDelayString = "${familyhub.purge.interval:PT15M}")
+    public void purgeDeletedRows() {
+        HouseholdContext.runAsRoot(this::purgeAllHouseholds);
+    }
+
+    private void purgeAllHouseholds() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        purge("chores", cutoff, choreRepository::findPurgeableIds, choreRepository::purgeByIds);
+        purge("events", cutoff, eventRepository::findPurgeableIds, ids -> {
+            eventRepository.purgeAttendeesByEventIds(ids);
+            eventRepository.purgeByIds(ids);
+        });
+        purge("grocery items", cutoff, groceryItemRepository::findPurgeableIds, groceryItemRepository::purgeByIds);
+    }
+
+    /**
+     * Removes the tombstones that still reference a user, in the caller's transaction, so the user
+     * can be deleted without waiting for the retention period. Their deletes are already in the
+     * change journal.
+     */
+    public void purgeDeletedRowsReferencing(UUID userId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            int chores = choreRepository.purgeDeletedReferencingUser(userId);
+            eventRepository.purgeDeletedAttendeesReferencingUser(userId);
+            int events = eventRepository.purgeDeletedReferencingUser(userId);
+            int groceryItems = groceryItemRepository.purgeDeletedReferencingUser(userId);
+            log.debug("Purged {} chores, {} events and {} grocery items deleted before user {} was",
+                    chores, events, groceryItems, userId);
+        });
+    }
+
+    private void purge(String name, LocalDateTime cutoff,
+                       BiFunction<LocalDateTime, Integer, List<UUID>> findIds, Consumer<List<UUID>> delete) {
+        int total = 0;
+        while (isQuiet()) {
+            Integer count = transactionTemplate.execute(status -> {
+                List<UUID> ids = findIds.apply(cutoff, batchSize);
+                if (!ids.isEmpty()) {
+                    delete.accept(ids);
+                }
+                return ids.size();
+            });
+            int purged = count != null ? count : 0;
+            total += purged;
+            if (purged < batchSize) {
+                break;
+            }
+        }
+
+        if (total > 0) {
+            log.info("Purged {} {} deleted before {}", total, name, cutoff);
+        }
+    }
+
+    private boolean isQuiet() {
+        return changeJournal.getLastCommitTime().plus(quietPeriod).isBefore(Instant.now());
+    }
+}
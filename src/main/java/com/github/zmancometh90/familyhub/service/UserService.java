@@ -1,5 +1,6 @@
 package com.github.zmancometh90.familyhub.service;
 
+import com.github.zmancometh90.familyhub.diagnostics.DtoMappingEvent;
 import com.github.zmancometh90.familyhub.models.User;
 import com.github.zmancometh90.familyhub.models.UserDTO;
 import com.github.zmancometh90.familyhub.models.UserRequest;
@@ -8,6 +9,7 @@ import com.github.zmancometh90.familyhub.models.AdminPasswordChangeRequest;
 import com.github.zmancometh90.familyhub.repository.UserRepository;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -17,10 +19,13 @@ import java.util.UUID;
 public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final SoftDeletePurgeService softDeletePurgeService;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                       SoftDeletePurgeService softDeletePurgeService) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.softDeletePurgeService = softDeletePurgeService;
     }
 
     private UserDTO toDTO(User user) {
@@ -70,31 +75,37 @@ public class UserService {
         return toDTO(userToUpdate);
     }
 
+    @Transactional(readOnly = true)
     public UserDTO findUserById(UUID id) {
         Optional<User> foundUser = userRepository.findById(id);
         return foundUser.map(this::toDTO).orElse(null);
     }
 
+    @Transactional(readOnly = true)
     public UserDTO findUserByName(String name) {
         Optional<User> foundUser = userRepository.findByName(name);
         return foundUser.map(this::toDTO).orElse(null);
     }
 
+    @Transactional(readOnly = true)
     public UserDTO findUserByUsername(String username) {
         Optional<User> foundUser = userRepository.findByUsername(username);
         return foundUser.map(this::toDTO).orElse(null);
     }
 
+    @Transactional(readOnly = true)
     public List<UserDTO> getAllUsers() {
-        return userRepository.findAll().stream()
-                .map(this::toDTO)
-                .toList();
+        return DtoMappingEvent.mapAll(userRepository.findAll(), this::toDTO);
     }
 
+    // Soft-deleted chores, events and grocery items keep their foreign keys to the user until they
+    // are purged, so they go first. Live rows that reference the user still prevent the delete.
+    @Transactional
     public void deleteUser(UUID id) {
         if (!userRepository.existsById(id)) {
             throw new RuntimeException("User not found with id: " + id);
         }
+        softDeletePurgeService.purgeDeletedRowsReferencing(id);
         userRepository.deleteById(id);
     }
 
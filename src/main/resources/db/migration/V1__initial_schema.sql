@@ -0,0 +1,153 @@
+-- Baseline schema, matching the JPA mappings. Secondary indexes are named after the repository
+-- queries they serve; QueryPlanTests fails if one of those queries falls back to a table scan.
+
+CREATE TABLE app_users (
+    id          UUID         NOT NULL PRIMARY KEY,
+    username    VARCHAR(255) NOT NULL,
+    password    VARCHAR(255) NOT NULL,
+    name        VARCHAR(255) NOT NULL,
+    role        ENUM ('BASIC_USER', 'ADMIN'),
+    active      BOOLEAN      NOT NULL,
+    created_at  TIMESTAMP(6),
+    updated_at  TIMESTAMP(6),
+    CONSTRAINT uk_app_users_username UNIQUE (username)
+);
+
+-- UserRepository.findByName
+CREATE INDEX idx_app_users_name ON app_users (name);
+
+CREATE TABLE chores (
+    id                          UUID          NOT NULL PRIMARY KEY,
+    title                       VARCHAR(255)  NOT NULL,
+    description                 VARCHAR(1000),
+    due_date                    DATE,
+    estimated_duration_minutes  INTEGER,
+    chore_type                  ENUM ('CLEANING', 'COOKING', 'LAUNDRY', 'YARD_WORK', 'MAINTENANCE', 'SHOPPING',
+                                      'ORGANIZATION', 'PET_CARE', 'OTHER'),
+    status                      ENUM ('PENDING', 'IN_PROGRESS', 'COMPLETED', 'OVERDUE', 'CANCELLED'),
+    priority                    ENUM ('LOW', 'MEDIUM', 'HIGH', 'URGENT'),
+    assigned_to_id              UUID,
+    created_by_id               UUID          NOT NULL,
+    completed_by_id             UUID,
+    completed_at                TIMESTAMP(6),
+    created_at                  TIMESTAMP(6),
+    updated_at                  TIMESTAMP(6),
+    is_recurring                BOOLEAN       NOT NULL,
+    recurrence_pattern          VARCHAR(255),
+    CONSTRAINT fk_chores_assigned_to FOREIGN KEY (assigned_to_id) REFERENCES app_users (id),
+    CONSTRAINT fk_chores_created_by FOREIGN KEY (created_by_id) REFERENCES app_users (id),
+    CONSTRAINT fk_chores_completed_by FOREIGN KEY (completed_by_id) REFERENCES app_users (id)
+);
+
+-- findByAssignedTo, findByAssignedToAndStatus
+CREATE INDEX idx_chores_assigned_to_status ON chores (assigned_to_id, status);
+-- findByAssignedToAndDueDateBetween
+CREATE INDEX idx_chores_assigned_to_due_date ON chores (assigned_to_id, due_date);
+-- findByStatus
+CREATE INDEX idx_chores_status_due_date ON chores (status, due_date);
+-- findByDueDateBetween, findOverdueChores
+CREATE INDEX idx_chores_due_date_status ON chores (due_date, status);
+-- findByCreatedBy
+CREATE INDEX idx_chores_created_by ON chores (created_by_id);
+CREATE INDEX idx_chores_completed_by ON chores (completed_by_id);
+-- findByPriority, findByChoreType
+CREATE INDEX idx_chores_priority ON chores (priority);
+CREATE INDEX idx_chores_chore_type ON chores (chore_type);
+
+CREATE TABLE events (
+    id                  UUID          NOT NULL PRIMARY KEY,
+    title               VARCHAR(255)  NOT NULL,
+    description         VARCHAR(1000),
+    start_time          TIMESTAMP(6)  NOT NULL,
+    end_time            TIMESTAMP(6),
+    location            VARCHAR(255),
+    event_type          ENUM ('BIRTHDAY', 'ANNIVERSARY', 'HOLIDAY', 'VACATION', 'REUNION', 'CELEBRATION',
+                              'APPOINTMENT', 'MEETING', 'OTHER'),
+    status              ENUM ('PLANNED', 'CONFIRMED', 'IN_PROGRESS', 'COMPLETED', 'CANCELLED', 'POSTPONED'),
+    is_recurring        BOOLEAN       NOT NULL,
+    recurrence_pattern  VARCHAR(255),
+    created_by_id       UUID          NOT NULL,
+    created_at          TIMESTAMP(6),
+    updated_at          TIMESTAMP(6),
+    CONSTRAINT fk_events_created_by FOREIGN KEY (created_by_id) REFERENCES app_users (id)
+);
+
+-- findByStartTimeBetween and the user date-range query
+CREATE INDEX idx_events_start_time_end_time ON events (start_time, end_time);
+-- findByCreatedBy
+CREATE INDEX idx_events_created_by_start_time ON events (created_by_id, start_time);
+-- findByStatus, findByEventType, findByIsRecurringTrue
+CREATE INDEX idx_events_status_start_time ON events (status, start_time);
+CREATE INDEX idx_events_event_type_start_time ON events (event_type, start_time);
+CREATE INDEX idx_events_is_recurring ON events (is_recurring);
+
+CREATE TABLE event_attendees (
+    event_id  UUID NOT NULL,
+    user_id   UUID NOT NULL,
+    PRIMARY KEY (event_id, user_id),
+    CONSTRAINT fk_event_attendees_event FOREIGN KEY (event_id) REFERENCES events (id),
+    CONSTRAINT fk_event_attendees_user FOREIGN KEY (user_id) REFERENCES app_users (id)
+);
+
+-- MEMBER OF e.attendees lookups by user
+CREATE INDEX idx_event_attendees_user_event ON event_attendees (user_id, event_id);
+
+CREATE TABLE grocery_items (
+    id               UUID          NOT NULL PRIMARY KEY,
+    name             VARCHAR(255)  NOT NULL,
+    description      VARCHAR(500),
+    category         VARCHAR(255)  NOT NULL,
+    quantity         INTEGER       NOT NULL,
+    is_completed     BOOLEAN       NOT NULL,
+    added_by_id      UUID          NOT NULL,
+    completed_by_id  UUID,
+    completed_at     TIMESTAMP(6),
+    created_at       TIMESTAMP(6),
+    updated_at       TIMESTAMP(6),
+    CONSTRAINT fk_grocery_items_added_by FOREIGN KEY (added_by_id) REFERENCES app_users (id),
+    CONSTRAINT fk_grocery_items_completed_by FOREIGN KEY (completed_by_id) REFERENCES app_users (id)
+);
+
+-- findByIsCompletedFalseOrderByCreatedAtDesc
+CREATE INDEX idx_grocery_items_completed_created_at ON grocery_items (is_completed, created_at);
+-- findByIsCompletedTrueOrderByCompletedAtDesc, findByIsCompletedTrueAndCompletedAtBefore (archiver)
+CREATE INDEX idx_grocery_items_completed_completed_at ON grocery_items (is_completed, completed_at);
+-- findByCategory, findByCategoryAndIsCompleted, countByCategory, findDistinctCategories
+CREATE INDEX idx_grocery_items_category_completed ON grocery_items (category, is_completed);
+-- findByCompletedAtBetween
+CREATE INDEX idx_grocery_items_completed_at ON grocery_items (completed_at);
+-- findByAddedBy, findByCompletedBy
+CREATE INDEX idx_grocery_items_added_by ON grocery_items (added_by_id);
+CREATE INDEX idx_grocery_items_completed_by ON grocery_items (completed_by_id);
+
+CREATE TABLE favorite_items (
+    id                UUID          NOT NULL PRIMARY KEY,
+    name              VARCHAR(255)  NOT NULL,
+    description       VARCHAR(500),
+    category          VARCHAR(255)  NOT NULL,
+    default_quantity  INTEGER       NOT NULL,
+    user_id           UUID          NOT NULL,
+    created_at        TIMESTAMP(6),
+    updated_at        TIMESTAMP(6),
+    -- Also serves findByUserOrderByNameAsc through its (user_id, name) prefix
+    CONSTRAINT uk_favorite_items_user_name_category UNIQUE (user_id, name, category),
+    CONSTRAINT fk_favorite_items_user FOREIGN KEY (user_id) REFERENCES app_users (id)
+);
+
+-- findByUserAndCategoryOrderByNameAsc, findDistinctCategoriesByUser
+CREATE INDEX idx_favorite_items_user_category_name ON favorite_items (user_id, category, name);
+
+CREATE TABLE grocery_item_archive (
+    id               UUID          NOT NULL PRIMARY KEY,
+    name             VARCHAR(255)  NOT NULL,
+    category         VARCHAR(255)  NOT NULL,
+    quantity         INTEGER       NOT NULL,
+    added_by_id      UUID          NOT NULL,
+    completed_by_id  UUID,
+    completed_at     TIMESTAMP(6)  NOT NULL,
+    created_at       TIMESTAMP(6),
+    archived_at      TIMESTAMP(6)  NOT NULL
+);
+
+-- findAllByOrderByCompletedAtDesc/Asc
+CREATE INDEX idx_grocery_item_archive_completed_at ON grocery_item_archive (completed_at);
@@ -0,0 +1,5 @@
+-- Optimistic locking: Hibernate bumps these on every update and rejects writes based on a stale read
+ALTER TABLE chores ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE events ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE grocery_items ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE favorite_items ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,9 @@
+-- Soft delete: deletes set deleted_at and SoftDeletePurgeService removes the rows later.
+-- The deleted_at indexes serve the purger's "deleted_at < cutoff" batches.
+ALTER TABLE chores ADD COLUMN deleted_at TIMESTAMP(6);
+ALTER TABLE events ADD COLUMN deleted_at TIMESTAMP(6);
+ALTER TABLE grocery_items ADD COLUMN deleted_at TIMESTAMP(6);
+
+CREATE INDEX idx_chores_deleted_at ON chores (deleted_at);
+CREATE INDEX idx_events_deleted_at ON events (deleted_at);
+CREATE INDEX idx_grocery_items_deleted_at ON grocery_items (deleted_at);
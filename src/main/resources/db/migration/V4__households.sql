@@ -0,0 +1,81 @@
+-- Household tenancy. Every domain table gets a household_id, and the indexes behind tenant
+-- queries lead with it, so one household's lookups never read another's rows. Existing data
+-- moves into a default household.
+
+CREATE TABLE households (
+    id          UUID          NOT NULL PRIMARY KEY,
+    name        VARCHAR(255)  NOT NULL,
+    created_at  TIMESTAMP(6),
+    updated_at  TIMESTAMP(6),
+    version     BIGINT        DEFAULT 0 NOT NULL
+);
+
+INSERT INTO households (id, name, created_at, updated_at)
+VALUES ('00000000-0000-0000-0000-000000000001', 'Default household', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
+
+ALTER TABLE app_users ADD COLUMN household_id UUID DEFAULT '00000000-0000-0000-0000-000000000001' NOT NULL;
+ALTER TABLE app_users ALTER COLUMN household_id DROP DEFAULT;
+ALTER TABLE app_users ADD CONSTRAINT fk_app_users_household FOREIGN KEY (household_id) REFERENCES households (id);
+
+ALTER TABLE chores ADD COLUMN household_id UUID DEFAULT '00000000-0000-0000-0000-000000000001' NOT NULL;
+ALTER TABLE chores ALTER COLUMN household_id DROP DEFAULT;
+ALTER TABLE chores ADD CONSTRAINT fk_chores_household FOREIGN KEY (household_id) REFERENCES households (id);
+
+ALTER TABLE events ADD COLUMN household_id UUID DEFAULT '00000000-0000-0000-0000-000000000001' NOT NULL;
+ALTER TABLE events ALTER COLUMN household_id DROP DEFAULT;
+ALTER TABLE events ADD CONSTRAINT fk_events_household FOREIGN KEY (household_id) REFERENCES households (id);
+
+ALTER TABLE grocery_items ADD COLUMN household_id UUID DEFAULT '00000000-0000-0000-0000-000000000001' NOT NULL;
+ALTER TABLE grocery_items ALTER COLUMN household_id DROP DEFAULT;
+ALTER TABLE grocery_items ADD CONSTRAINT fk_grocery_items_household FOREIGN KEY (household_id) REFERENCES households (id);
+
+ALTER TABLE favorite_items ADD COLUMN household_id UUID DEFAULT '00000000-0000-0000-0000-000000000001' NOT NULL;
+ALTER TABLE favorite_items ALTER COLUMN household_id DROP DEFAULT;
+ALTER TABLE favorite_items ADD CONSTRAINT fk_favorite_items_household FOREIGN KEY (household_id) REFERENCES households (id);
+
+ALTER TABLE grocery_item_archive ADD COLUMN household_id UUID DEFAULT '00000000-0000-0000-0000-000000000001' NOT NULL;
+ALTER TABLE grocery_item_archive ALTER COLUMN household_id DROP DEFAULT;
+ALTER TABLE grocery_item_archive ADD CONSTRAINT fk_grocery_item_archive_household FOREIGN KEY (household_id) REFERENCES households (id);
+
+-- app_users: listing a household's members, UserRepository.findByName
+DROP INDEX idx_app_users_name;
+CREATE INDEX idx_app_users_household_name ON app_users (household_id, name);
+
+-- chores: findAll, findByStatus, findByDueDateBetween, findOverdueChores, findByPriority,
+-- findByChoreType. The user-keyed indexes stay as they are, since a user belongs to one household.
+DROP INDEX idx_chores_status_due_date;
+DROP INDEX idx_chores_due_date_status;
+DROP INDEX idx_chores_priority;
+DROP INDEX idx_chores_chore_type;
+CREATE INDEX idx_chores_household_status_due_date ON chores (household_id, status, due_date);
+CREATE INDEX idx_chores_household_due_date_status ON chores (household_id, due_date, status);
+CREATE INDEX idx_chores_household_priority ON chores (household_id, priority);
+CREATE INDEX idx_chores_household_chore_type ON chores (household_id, chore_type);
+
+-- events: findAll, findByStartTimeBetween, findByStatus, findByEventType, findByIsRecurringTrue
+DROP INDEX idx_events_start_time_end_time;
+DROP INDEX idx_events_status_start_time;
+DROP INDEX idx_events_event_type_start_time;
+DROP INDEX idx_events_is_recurring;
+CREATE INDEX idx_events_household_start_time_end_time ON events (household_id, start_time, end_time);
+CREATE INDEX idx_events_household_status_start_time ON events (household_id, status, start_time);
+CREATE INDEX idx_events_household_event_type_start_time ON events (household_id, event_type, start_time);
+CREATE INDEX idx_events_household_is_recurring ON events (household_id, is_recurring);
+
+-- grocery_items: active/completed lists, category lookups and counts, completed-at ranges.
+-- idx_grocery_items_completed_completed_at stays for the archiver, which runs across households.
+DROP INDEX idx_grocery_items_completed_created_at;
+DROP INDEX idx_grocery_items_category_completed;
+DROP INDEX idx_grocery_items_completed_at;
+CREATE INDEX idx_grocery_items_household_completed_created_at ON grocery_items (household_id, is_completed, created_at);
+CREATE INDEX idx_grocery_items_household_completed_completed_at ON grocery_items (household_id, is_completed, completed_at);
+CREATE INDEX idx_grocery_items_household_category_completed ON grocery_items (household_id, category, is_completed);
+CREATE INDEX idx_grocery_items_household_completed_at ON grocery_items (household_id, completed_at);
+
+-- favorite_items: every lookup is by user, which already implies the household; this one
+-- serves the per-household category counts that load the category cache
+CREATE INDEX idx_favorite_items_household_user_category ON favorite_items (household_id, user_id, category);
+
+-- grocery_item_archive: the archive page and the purchase model replay
+DROP INDEX idx_grocery_item_archive_completed_at;
+CREATE INDEX idx_grocery_item_archive_household_completed_at ON grocery_item_archive (household_id, completed_at);
@@ -0,0 +1,5 @@
+-- Per-field write times for the last-writer-wins registers of collaborative grocery editing.
+-- NULL means the field has not been written since the item was created.
+
+ALTER TABLE grocery_items ADD COLUMN name_updated_at TIMESTAMP(6);
+ALTER TABLE grocery_items ADD COLUMN completed_updated_at TIMESTAMP(6);
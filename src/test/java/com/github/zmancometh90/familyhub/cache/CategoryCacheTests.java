@@ -0,0 +1,105 @@
+package com.github.zmancometh90.familyhub.cache;
+
+import com.github.zmancometh90.familyhub.repository.FavoriteItemRepository;
+import com.github.zmancometh90.familyhub.repository.GroceryItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CategoryCacheTests {
+
+    private static final UUID HOUSEHOLD = UUID.randomUUID();
+    private static final UUID USER = UUID.randomUUID();
+
+    private final List<Object[]> groceryRows = new ArrayList<>();
+    private final List<Object[]> favoriteRows = new ArrayList<>();
+    // Runs while the grocery load query is "in flight", after the rows were read
+    private Runnable duringLoad = () -> { };
+    private final GroceryItemRepository groceryItemRepository = mock(GroceryItemRepository.class);
+    private final FavoriteItemRepository favoriteItemRepository = mock(FavoriteItemRepository.class);
+    private final CategoryCache cache = new CategoryCache(groceryItemRepository, favoriteItemRepository);
+
+    @BeforeEach
+    void answerLoadsFromTheRows() {
+        when(groceryItemRepository.findCategoriesByHouseholdId(any())).thenAnswer(invocation -> {
+            List<Object[]> rows = List.copyOf(groceryRows);
+            duringLoad.run();
+            return rows;
+        });
+        when(favoriteItemRepository.findCategoriesByHouseholdId(any())).thenAnswer(invocation -> List.copyOf(favoriteRows));
+    }
+
+    @Test
+    void categoriesAreSortedAndDisappearWithTheirLastRow() {
+        UUID bread = UUID.randomUUID();
+        UUID milk = UUID.randomUUID();
+        UUID cheese = UUID.randomUUID();
+        groceryRows.add(new Object[]{bread, "Bakery"});
+        groceryRows.add(new Object[]{milk, "Dairy"});
+        groceryRows.add(new Object[]{cheese, "Dairy"});
+
+        assertEquals(List.of("Bakery", "Dairy"), cache.getGroceryCategories(HOUSEHOLD));
+
+        cache.groceryRemoved(HOUSEHOLD, milk);
+        assertEquals(List.of("Bakery", "Dairy"), cache.getGroceryCategories(HOUSEHOLD));
+        cache.grocerySaved(HOUSEHOLD, cheese, "Deli");
+        assertEquals(List.of("Bakery", "Deli"), cache.getGroceryCategories(HOUSEHOLD));
+        cache.groceryRemoved(HOUSEHOLD, bread);
+        assertEquals(List.of("Deli"), cache.getGroceryCategories(HOUSEHOLD));
+    }
+
+    @Test
+    void aCreateTheLoadAlreadyReadIsNotCountedTwice() {
+        UUID milk = UUID.randomUUID();
+        groceryRows.add(new Object[]{milk, "Dairy"});
+        // The create committed before the load read it, but is only reported now
+        duringLoad = () -> cache.grocerySaved(HOUSEHOLD, milk, "Dairy");
+
+        assertEquals(List.of("Dairy"), cache.getGroceryCategories(HOUSEHOLD));
+
+        cache.groceryRemoved(HOUSEHOLD, milk);
+        assertEquals(List.of(), cache.getGroceryCategories(HOUSEHOLD));
+    }
+
+    @Test
+    void aDeleteCommittedAfterTheLoadReadTheRowIsApplied() {
+        UUID milk = UUID.randomUUID();
+        groceryRows.add(new Object[]{milk, "Dairy"});
+        duringLoad = () -> cache.groceryRemoved(HOUSEHOLD, milk);
+
+        assertEquals(List.of(), cache.getGroceryCategories(HOUSEHOLD));
+    }
+
+    @Test
+    void changesBeforeTheFirstLoadAreLeftToTheLoad() {
+        UUID milk = UUID.randomUUID();
+        cache.grocerySaved(HOUSEHOLD, milk, "Dairy");
+        groceryRows.add(new Object[]{milk, "Dairy"});
+
+        assertEquals(List.of("Dairy"), cache.getGroceryCategories(HOUSEHOLD));
+        cache.groceryRemoved(HOUSEHOLD, milk);
+        assertEquals(List.of(), cache.getGroceryCategories(HOUSEHOLD));
+    }
+
+    @Test
+    void favoriteCategoriesArePerUser() {
+        UUID apples = UUID.randomUUID();
+        favoriteRows.add(new Object[]{apples, USER, "Produce"});
+
+        assertEquals(List.of("Produce"), cache.getFavoriteCategories(HOUSEHOLD, USER));
+        assertEquals(List.of(), cache.getFavoriteCategories(HOUSEHOLD, UUID.randomUUID()));
+
+        cache.favoriteSaved(HOUSEHOLD, USER, apples, "Fruit");
+        assertEquals(List.of("Fruit"), cache.getFavoriteCategories(HOUSEHOLD, USER));
+        cache.favoriteRemoved(HOUSEHOLD, USER, apples);
+        assertEquals(List.of(), cache.getFavoriteCategories(HOUSEHOLD, USER));
+    }
+}
@@ -0,0 +1,178 @@
+package com.github.zmancometh90.familyhub.cache;
+
+import com.github.zmancometh90.familyhub.models.ArchivedGroceryItem;
+import com.github.zmancometh90.familyhub.models.GroceryItem;
+import com.github.zmancometh90.familyhub.models.GroceryItemKey;
+import com.github.zmancometh90.familyhub.models.User;
+import com.github.zmancometh90.familyhub.repository.ArchivedGroceryItemRepository;
+import com.github.zmancometh90.familyhub.repository.GroceryItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PurchaseFrequencyModelTests {
+
+    private static final UUID HOUSEHOLD = UUID.randomUUID();
+    private static final GroceryItemKey MILK = GroceryItemKey.of("Milk", "Dairy");
+    private static final LocalDateTime LAST_WEEK = LocalDateTime.of(2025, 1, 1, 10, 0);
+    // Not a whole microsecond, like LocalDateTime.now() before the row is stored
+    private static final LocalDateTime TODAY = LAST_WEEK.plusDays(7).plusNanos(123_456_789);
+
+    private final List<ArchivedGroceryItem> archivedRows = new ArrayList<>();
+    private final List<GroceryItem> completedRows = new ArrayList<>();
+    private final List<TransactionDefinition> transactions = new ArrayList<>();
+    private final List<Boolean> queriedInTransaction = new ArrayList<>();
+    private boolean inTransaction;
+    // Runs while the grocery_items replay query is "in flight", after the rows were read
+    private Runnable duringLoad = () -> { };
+    private final GroceryItemRepository groceryItemRepository = mock(GroceryItemRepository.class);
+    private final ArchivedGroceryItemRepository archivedGroceryItemRepository = mock(ArchivedGroceryItemRepository.class);
+    private final PurchaseFrequencyModel model = new PurchaseFrequencyModel(
+            groceryItemRepository, archivedGroceryItemRepository, transactionManager(), 30);
+
+    @BeforeEach
+    void answerReplayFromTheRows() {
+        when(groceryItemRepository.findByHouseholdIdAndIsCompletedTrueOrderByCompletedAtAsc(any())).thenAnswer(invocation -> {
+            queriedInTransaction.add(inTransaction);
+            List<GroceryItem> rows = List.copyOf(completedRows);
+            duringLoad.run();
+            return rows;
+        });
+        when(archivedGroceryItemRepository.findByHouseholdIdOrderByCompletedAtAsc(any(), any())).thenAnswer(invocation -> {
+            queriedInTransaction.add(inTransaction);
+            return new SliceImpl<>(List.copyOf(archivedRows), invocation.getArgument(1, Pageable.class), false);
+        });
+    }
+
+    @Test
+    void replayReadsBothTablesInOneSerializableReadOnlyTransaction() {
+        archivedRows.add(archived(LAST_WEEK));
+        completedRows.add(stored(milk(TODAY)));
+
+        assertEquals(2, model.getStats(HOUSEHOLD, MILK).purchaseCount());
+        assertEquals(1, transactions.size());
+        assertEquals(TransactionDefinition.ISOLATION_SERIALIZABLE, transactions.getFirst().getIsolationLevel());
+        assertTrue(transactions.getFirst().isReadOnly());
+        assertEquals(List.of(true, true), queriedInTransaction);
+    }
+
+    @Test
+    void aCompletionTheReplayAlreadyReadIsNotCountedTwice() {
+        GroceryItem milk = milk(TODAY);
+        completedRows.add(stored(milk));
+        // The completion committed before the replay read it, but is only reported now
+        duringLoad = () -> model.recordPurchase(milk);
+
+        assertEquals(1, model.getStats(HOUSEHOLD, MILK).purchaseCount());
+    }
+
+    @Test
+    void aCompletionReportedAfterTheLoadIsNotCountedTwiceEither() {
+        GroceryItem milk = milk(TODAY);
+        completedRows.add(stored(milk));
+        model.preload(HOUSEHOLD);
+
+        model.recordPurchase(milk);
+        assertEquals(1, model.getStats(HOUSEHOLD, MILK).purchaseCount());
+
+        // A later completion of the same item counts
+        milk.setCompletedAt(TODAY.plusDays(7));
+        model.recordPurchase(milk);
+        assertEquals(2, model.getStats(HOUSEHOLD, MILK).purchaseCount());
+    }
+
+    @Test
+    void aCompletionCommittedAfterTheSnapshotIsCounted() {
+        archivedRows.add(archived(LAST_WEEK));
+        duringLoad = () -> model.recordPurchase(milk(TODAY));
+
+        PurchaseStats stats = model.getStats(HOUSEHOLD, MILK);
+        assertEquals(2, stats.purchaseCount());
+        assertEquals(TODAY, stats.lastPurchasedAt());
+    }
+
+    @Test
+    void completionsBeforeTheFirstLoadAreLeftToTheReplay() {
+        GroceryItem milk = milk(TODAY);
+        model.recordPurchase(milk);
+        completedRows.add(stored(milk));
+
+        assertEquals(1, model.getStats(HOUSEHOLD, MILK).purchaseCount());
+    }
+
+    @Test
+    void replayedCompletionsOlderThanTheCutoffAreForgotten() {
+        GroceryItem milk = milk(TODAY);
+        completedRows.add(stored(milk));
+        model.preload(HOUSEHOLD);
+
+        model.forgetReplayedBefore(TODAY.plusDays(1));
+        // Nothing remembers the replay any more, so a late report is counted again
+        model.recordPurchase(milk);
+        assertEquals(2, model.getStats(HOUSEHOLD, MILK).purchaseCount());
+    }
+
+    private static GroceryItem milk(LocalDateTime completedAt) {
+        GroceryItem item = new GroceryItem();
+        item.setId(UUID.randomUUID());
+        item.setHouseholdId(HOUSEHOLD);
+        item.setName("Milk");
+        item.setCategory("Dairy");
+        item.setQuantity(1);
+        item.setCompleted(true);
+        item.setCompletedAt(completedAt);
+        return item;
+    }
+
+    private static ArchivedGroceryItem archived(LocalDateTime completedAt) {
+        GroceryItem item = milk(completedAt);
+        item.setAddedBy(new User());
+        return new ArchivedGroceryItem(item, completedAt);
+    }
+
+    // The row as the replay reads it back, with completed_at rounded to the column's microseconds
+    private static GroceryItem stored(GroceryItem item) {
+        GroceryItem row = milk(item.getCompletedAt().truncatedTo(ChronoUnit.MICROS));
+        row.setId(item.getId());
+        return row;
+    }
+
+    // Records the transactions the model opens and whether the queries run inside one
+    private PlatformTransactionManager transactionManager() {
+        return new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                transactions.add(definition);
+                inTransaction = true;
+                return new SimpleTransactionStatus();
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {
+                inTransaction = false;
+            }
+
+            @Override
+            public void rollback(TransactionStatus status) {
+                inTransaction = false;
+            }
+        };
+    }
+}
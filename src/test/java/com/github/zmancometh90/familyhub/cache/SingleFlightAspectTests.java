@@ -0,0 +1,231 @@
+package com.github.zmancometh90.familyhub.cache;
+
+import com.github.zmancometh90.familyhub.models.User;
+import com.github.zmancometh90.familyhub.persistence.ReadWriteRoutingDataSource;
+import com.github.zmancometh90.familyhub.security.UserPrincipal;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightAspectTests {
+
+    private static final UUID HOUSEHOLD = UUID.randomUUID();
+    private static final UUID OTHER_HOUSEHOLD = UUID.randomUUID();
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+    private MeterRegistry meterRegistry;
+    private Lookups target;
+    private Lookups lookups;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        target = new Lookups();
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new SingleFlightAspect(meterRegistry,
+                beanFactory.getBeanProvider(ReadWriteRoutingDataSource.class)));
+        lookups = proxyFactory.getProxy();
+    }
+
+    @AfterEach
+    void tearDown() {
+        target.release.countDown();
+        executor.shutdownNow();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void concurrentCallsWithEqualArgumentsShareOneExecution() throws Exception {
+        Future<String> first = executor.submit(as("alice", HOUSEHOLD, () -> lookups.find("milk")));
+        awaitEntered(1);
+        Future<String> second = executor.submit(as("bob", HOUSEHOLD, () -> lookups.find("milk")));
+        awaitShared(1);
+
+        target.release.countDown();
+        String result = first.get(5, TimeUnit.SECONDS);
+        assertSame(result, second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, target.calls.get());
+    }
+
+    @Test
+    void everyWaitingCallerGetsTheException() throws Exception {
+        Future<String> first = executor.submit(as("alice", HOUSEHOLD, () -> lookups.fail("milk")));
+        awaitEntered(1);
+        Future<String> second = executor.submit(as("bob", HOUSEHOLD, () -> lookups.fail("milk")));
+        awaitShared(1);
+
+        target.release.countDown();
+        ExecutionException executed = assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+        ExecutionException shared = assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, executed.getCause());
+        assertSame(executed.getCause(), shared.getCause());
+        assertEquals(1, target.calls.get());
+
+        // The failed call is not remembered
+        target.release = new CountDownLatch(0);
+        assertThrows(IllegalStateException.class, () -> as("alice", HOUSEHOLD, () -> lookups.fail("milk")).call());
+        assertEquals(2, target.calls.get());
+    }
+
+    @Test
+    void callsFromDifferentHouseholdsAreNotShared() throws Exception {
+        Future<String> first = executor.submit(as("alice", HOUSEHOLD, () -> lookups.find("milk")));
+        Future<String> second = executor.submit(as("carol", OTHER_HOUSEHOLD, () -> lookups.find("milk")));
+        awaitEntered(2);
+
+        target.release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        assertEquals(2, target.calls.get());
+    }
+
+    @Test
+    void callsWithDifferentArgumentsAreNotShared() throws Exception {
+        Future<String> first = executor.submit(as("alice", HOUSEHOLD, () -> lookups.find("milk")));
+        Future<String> second = executor.submit(as("bob", HOUSEHOLD, () -> lookups.find("eggs")));
+        awaitEntered(2);
+
+        target.release.countDown();
+        assertEquals("milk", first.get(5, TimeUnit.SECONDS));
+        assertEquals("eggs", second.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void aCallerPinnedToThePrimaryRunsTheCallItself() throws Exception {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(database("single-flight-primary"),
+                database("single-flight-replica"), "com.github.zmancometh90.familyhub.service.", Duration.ofMinutes(1));
+        routing.afterPropertiesSet();
+        beanFactory.addBean("routingDataSource", routing);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        // alice commits a write, so her reads stay on the primary for the next minute
+        as("alice", HOUSEHOLD, () -> new TransactionTemplate(new DataSourceTransactionManager(dataSource))
+                .execute(status -> new JdbcTemplate(dataSource).queryForObject("SELECT 1", Integer.class))).call();
+
+        Future<String> first = executor.submit(as("bob", HOUSEHOLD, () -> lookups.find("milk")));
+        awaitEntered(1);
+        Future<String> second = executor.submit(as("alice", HOUSEHOLD, () -> lookups.find("milk")));
+        awaitEntered(2);
+
+        target.release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        assertEquals(2, target.calls.get());
+    }
+
+    @Test
+    void aCallerInsideATransactionRunsTheCallItself() throws Exception {
+        DataSource dataSource = database("single-flight-transaction");
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        Future<String> first = executor.submit(as("alice", HOUSEHOLD, () -> lookups.find("milk")));
+        awaitEntered(1);
+        Future<String> second = executor.submit(as("bob", HOUSEHOLD,
+                () -> transaction.execute(status -> uncheckedFind("milk"))));
+        awaitEntered(2);
+        // carol joins alice's call; bob's was never offered to other callers
+        Future<String> third = executor.submit(as("carol", HOUSEHOLD, () -> lookups.find("milk")));
+        awaitShared(1);
+
+        target.release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        third.get(5, TimeUnit.SECONDS);
+        assertEquals(2, target.calls.get());
+    }
+
+    private String uncheckedFind(String name) {
+        try {
+            return lookups.find(name);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void awaitEntered(int calls) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (target.calls.get() < calls) {
+            assertTrue(System.nanoTime() < deadline, "Expected " + calls + " executions");
+            Thread.sleep(5);
+        }
+    }
+
+    private void awaitShared(int callers) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.find("familyhub.singleflight.calls").tag("role", "shared").counters().stream()
+                .mapToDouble(counter -> counter.count()).sum() < callers) {
+            assertTrue(System.nanoTime() < deadline, "Expected " + callers + " shared callers");
+            Thread.sleep(5);
+        }
+    }
+
+    private static <T> Callable<T> as(String username, UUID householdId, Callable<T> task) {
+        return () -> {
+            User user = new User(username, "password", username, User.Role.BASIC_USER);
+            user.setId(UUID.randomUUID());
+            user.setHouseholdId(householdId);
+            UserPrincipal principal = new UserPrincipal(user);
+            SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+            try {
+                return task.call();
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+        };
+    }
+
+    private static DataSource database(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+
+    public static class Lookups {
+
+        final AtomicInteger calls = new AtomicInteger();
+        volatile CountDownLatch release = new CountDownLatch(1);
+
+        @SingleFlight
+        public String find(String name) throws InterruptedException {
+            calls.incrementAndGet();
+            release.await(5, TimeUnit.SECONDS);
+            return new String(name);
+        }
+
+        @SingleFlight
+        public String fail(String name) throws InterruptedException {
+            calls.incrementAndGet();
+            release.await(5, TimeUnit.SECONDS);
+            throw new IllegalStateException("Lookup of " + name + " failed");
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.github.zmancometh90.familyhub.diagnostics;
+
+import com.github.zmancometh90.familyhub.models.GroceryItem;
+import com.github.zmancometh90.familyhub.models.User;
+import com.github.zmancometh90.familyhub.repository.GroceryItemRepository;
+import com.github.zmancometh90.familyhub.repository.UserRepository;
+import com.github.zmancometh90.familyhub.security.HouseholdContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github.zmancometh90.familyhub.diagnostics.QueryBudget.assertMaxQueries;
+import static com.github.zmancometh90.familyhub.diagnostics.QueryBudget.countQueries;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class EndpointQueryCountTests {
+
+    private static final RequestBuilder ACTIVE_GROCERY = get("/api/v1/grocery/active").with(httpBasic("admin", "admin"));
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private GroceryItemRepository groceryItemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<GroceryItem> seeded = new ArrayList<>();
+
+    @AfterEach
+    void removeSeededItems() {
+        HouseholdContext.runAsRoot(() ->
+                transactionTemplate.executeWithoutResult(status -> groceryItemRepository.deleteAll(seeded)));
+        seeded.clear();
+    }
+
+    @Test
+    void activeGroceryListStaysWithinBudget() throws Exception {
+        seedGroceryItems(10);
+        // First request warms the user caches that authentication reads
+        countQueries(mockMvc, ACTIVE_GROCERY);
+
+        assertMaxQueries(mockMvc, ACTIVE_GROCERY, 5);
+    }
+
+    @Test
+    void activeGroceryQueriesDoNotGrowWithItems() throws Exception {
+        seedGroceryItems(3);
+        countQueries(mockMvc, ACTIVE_GROCERY);
+        int few = countQueries(mockMvc, ACTIVE_GROCERY);
+
+        seedGroceryItems(30);
+        countQueries(mockMvc, ACTIVE_GROCERY);
+        int many = countQueries(mockMvc, ACTIVE_GROCERY);
+
+        assertEquals(few, many, "Statements per request grew with the number of items (N+1)");
+    }
+
+    private void seedGroceryItems(int count) {
+        HouseholdContext.runAsRoot(() -> transactionTemplate.executeWithoutResult(status -> {
+            User admin = userRepository.findByUsername("admin").orElseThrow();
+            List<GroceryItem> items = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                items.add(new GroceryItem("Query budget " + (seeded.size() + i), "Test", 1, admin));
+            }
+            seeded.addAll(groceryItemRepository.saveAll(items));
+        }));
+    }
+}
@@ -0,0 +1,33 @@
+package com.github.zmancometh90.familyhub.diagnostics;
+
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Test helper that measures the SQL statements of a MockMvc request. MockMvc runs the request on
+ * the calling thread, so the counter opened here also sees what the request filter counts.
+ */
+final class QueryBudget {
+
+    private QueryBudget() {
+    }
+
+    static int countQueries(MockMvc mockMvc, RequestBuilder request) throws Exception {
+        try (QueryCounter counter = QueryCounter.open()) {
+            mockMvc.perform(request).andExpect(status().is2xxSuccessful());
+            return counter.total();
+        }
+    }
+
+    static void assertMaxQueries(MockMvc mockMvc, RequestBuilder request, int maxQueries) throws Exception {
+        try (QueryCounter counter = QueryCounter.open()) {
+            mockMvc.perform(request).andExpect(status().is2xxSuccessful());
+            assertTrue(counter.total() <= maxQueries,
+                    "Expected at most " + maxQueries + " statements but got " + counter.total()
+                            + "; repeated: " + counter.repeated(2));
+        }
+    }
+}
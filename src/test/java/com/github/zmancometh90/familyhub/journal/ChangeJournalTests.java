@@ -0,0 +1,230 @@
+package com.github.zmancometh90.familyhub.journal;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChangeJournalTests {
+
+    private static final int RECORD_SIZE = ChangeJournal.RECORD_SIZE;
+    private static final UUID HOUSEHOLD = UUID.randomUUID();
+    private static final UUID OTHER_HOUSEHOLD = UUID.randomUUID();
+
+    @TempDir
+    Path directory;
+
+    private ChangeJournal journal;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    @Test
+    void appendedRecordsReadBackWithTheirOffsetsAndFields() throws Exception {
+        journal = open(64);
+        UUID choreId = UUID.randomUUID();
+        UUID itemId = UUID.randomUUID();
+
+        assertEquals(0L, append(HOUSEHOLD, ChangeRecord.EntityType.CHORE, choreId, ChangeRecord.Op.CREATE, 0).get());
+        assertEquals(1L, append(OTHER_HOUSEHOLD, ChangeRecord.EntityType.GROCERY_ITEM, itemId, ChangeRecord.Op.UPDATE, 7).get());
+
+        List<ChangeRecord> records = journal.read(0, 10);
+        assertEquals(2, records.size());
+        ChangeRecord first = records.getFirst();
+        assertEquals(0, first.offset());
+        assertEquals(HOUSEHOLD, first.householdId());
+        assertEquals(ChangeRecord.EntityType.CHORE, first.entityType());
+        assertEquals(choreId, first.entityId());
+        assertEquals(ChangeRecord.Op.CREATE, first.op());
+        assertNull(first.actorId());
+        assertEquals(1, records.get(1).offset());
+        assertEquals(7, records.get(1).version());
+        assertEquals(2, journal.getCommittedOffset());
+
+        ChangePage page = journal.read(OTHER_HOUSEHOLD, 0, 10, 100);
+        assertEquals(List.of(itemId), page.changes().stream().map(ChangeRecord::entityId).toList());
+        assertEquals(2, page.nextOffset());
+    }
+
+    @Test
+    void recordsUseTheDocumentedLayout() throws Exception {
+        journal = open(64);
+        UUID entityId = UUID.randomUUID();
+        append(HOUSEHOLD, ChangeRecord.EntityType.EVENT, entityId, ChangeRecord.Op.DELETE, 42).get();
+
+        ByteBuffer slot = ByteBuffer.wrap(readSlot(segment(0), 0));
+        assertEquals(ChangeRecord.EntityType.EVENT.ordinal() + 1, slot.get(0));
+        assertEquals(ChangeRecord.Op.DELETE.ordinal() + 1, slot.get(1));
+        assertEquals(0, slot.getShort(2));
+        assertEquals(42, slot.getLong(4));
+        assertEquals(HOUSEHOLD.getMostSignificantBits(), slot.getLong(20));
+        assertEquals(HOUSEHOLD.getLeastSignificantBits(), slot.getLong(28));
+        assertEquals(entityId.getMostSignificantBits(), slot.getLong(36));
+        assertEquals(entityId.getLeastSignificantBits(), slot.getLong(44));
+        assertEquals(0, slot.getLong(52));
+        assertEquals(0, slot.getLong(60));
+        CRC32C crc = new CRC32C();
+        crc.update(slot.array(), 0, 68);
+        assertEquals((int) crc.getValue(), slot.getInt(68));
+    }
+
+    @Test
+    void fullSegmentsRollOverToAFileNamedAfterTheFirstOffset() throws Exception {
+        journal = open(4);
+        appendAll(10);
+
+        assertTrue(Files.exists(segment(0)));
+        assertTrue(Files.exists(segment(4)));
+        assertTrue(Files.exists(segment(8)));
+        assertEquals(List.of(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L),
+                journal.read(0, 100).stream().map(ChangeRecord::offset).toList());
+        assertEquals(List.of(3L, 4L, 5L), journal.read(3, 3).stream().map(ChangeRecord::version).toList());
+
+        // Reopening continues in the last segment
+        journal.close();
+        journal = open(4);
+        assertEquals(10, journal.getCommittedOffset());
+        assertEquals(10L, append(HOUSEHOLD, ChangeRecord.EntityType.CHORE, UUID.randomUUID(), ChangeRecord.Op.CREATE, 10).get());
+    }
+
+    @Test
+    void recoveryStopsAtARecordWithABadChecksumAndClearsWhatFollows() throws Exception {
+        journal = open(64);
+        appendAll(5);
+        journal.close();
+        journal = null;
+
+        // A torn write: slot 3 was only partly written
+        byte[] torn = readSlot(segment(0), 3);
+        torn[10] ^= 0x5A;
+        writeSlot(segment(0), 3, torn);
+
+        journal = open(64);
+        assertEquals(3, journal.getCommittedOffset());
+        assertEquals(List.of(0L, 1L, 2L), journal.read(0, 100).stream().map(ChangeRecord::version).toList());
+        assertArrayEquals(new byte[RECORD_SIZE], readSlot(segment(0), 3));
+        assertArrayEquals(new byte[RECORD_SIZE], readSlot(segment(0), 4));
+
+        // The cleared slots are reused by new appends
+        assertEquals(3L, append(HOUSEHOLD, ChangeRecord.EntityType.CHORE, UUID.randomUUID(), ChangeRecord.Op.CREATE, 99).get());
+        assertEquals(99, journal.read(3, 1).getFirst().version());
+    }
+
+    @Test
+    void recoveryStopsAtAZeroedSlotAndClearsCompleteRecordsBehindIt() throws Exception {
+        journal = open(64);
+        appendAll(5);
+        journal.close();
+        journal = null;
+
+        // The page holding slot 2 never reached the disk, the ones after it did
+        writeSlot(segment(0), 2, new byte[RECORD_SIZE]);
+
+        journal = open(64);
+        assertEquals(2, journal.getCommittedOffset());
+        assertArrayEquals(new byte[RECORD_SIZE], readSlot(segment(0), 3));
+        assertArrayEquals(new byte[RECORD_SIZE], readSlot(segment(0), 4));
+    }
+
+    @Test
+    void concurrentAppendsGetDenseOffsetsInEachWritersOrder() throws Exception {
+        journal = open(256);
+        int threads = 8;
+        int perThread = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<List<CompletableFuture<Long>>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            List<CompletableFuture<Long>> own = new ArrayList<>();
+            futures.add(own);
+            long writer = t;
+            executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    own.add(append(HOUSEHOLD, ChangeRecord.EntityType.GROCERY_ITEM, UUID.randomUUID(),
+                            ChangeRecord.Op.UPDATE, writer * perThread + i));
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        // Every future completes only after its group was flushed
+        for (List<CompletableFuture<Long>> own : futures) {
+            for (CompletableFuture<Long> future : own) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        }
+        List<ChangeRecord> records = journal.read(0, threads * perThread + 1);
+
+        assertEquals(threads * perThread, records.size());
+        long[] lastOffsetByWriter = new long[threads];
+        Arrays.fill(lastOffsetByWriter, -1);
+        for (int i = 0; i < records.size(); i++) {
+            ChangeRecord record = records.get(i);
+            assertEquals(i, record.offset());
+            int writer = (int) (record.version() / perThread);
+            assertTrue(record.offset() > lastOffsetByWriter[writer], "Writer " + writer + " out of order");
+            lastOffsetByWriter[writer] = record.offset();
+        }
+    }
+
+    private ChangeJournal open(int recordsPerSegment) throws IOException {
+        return new ChangeJournal(directory, DataSize.ofBytes((long) recordsPerSegment * RECORD_SIZE), false);
+    }
+
+    private CompletableFuture<Long> append(UUID householdId, ChangeRecord.EntityType type, UUID entityId,
+                                           ChangeRecord.Op op, long version) {
+        return journal.append(householdId, type, entityId, op, version);
+    }
+
+    private void appendAll(int count) throws Exception {
+        CompletableFuture<Long> last = null;
+        for (int i = 0; i < count; i++) {
+            last = append(HOUSEHOLD, ChangeRecord.EntityType.CHORE, UUID.randomUUID(), ChangeRecord.Op.UPDATE, i);
+        }
+        last.get(10, TimeUnit.SECONDS);
+    }
+
+    private Path segment(long firstOffset) {
+        return directory.resolve(String.format("%020d.journal", firstOffset));
+    }
+
+    private static byte[] readSlot(Path segment, int slot) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            ByteBuffer bytes = ByteBuffer.allocate(RECORD_SIZE);
+            channel.read(bytes, (long) slot * RECORD_SIZE);
+            return bytes.array();
+        }
+    }
+
+    private static void writeSlot(Path segment, int slot, byte[] bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(bytes), (long) slot * RECORD_SIZE);
+            channel.force(true);
+        }
+    }
+}
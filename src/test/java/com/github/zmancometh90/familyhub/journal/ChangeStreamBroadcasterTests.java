@@ -0,0 +1,203 @@
+package com.github.zmancometh90.familyhub.journal;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChangeStreamBroadcasterTests {
+
+    private static final int BUFFER_SIZE = 4;
+    private static final UUID HOUSEHOLD = UUID.randomUUID();
+
+    @TempDir
+    Path directory;
+
+    private ChangeJournal journal;
+    private SlowClient client;
+    private ChangeStreamBroadcaster broadcaster;
+    private final AtomicInteger published = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        journal = new ChangeJournal(directory, DataSize.ofKilobytes(64), false);
+        client = new SlowClient();
+        broadcaster = new ChangeStreamBroadcaster(journal, BUFFER_SIZE, Duration.ofMinutes(1)) {
+            @Override
+            SseEmitter createEmitter() {
+                return client;
+            }
+        };
+        broadcaster.register();
+        // Listeners run in order, so once this one has seen a record the broadcaster has too
+        journal.addListener(records -> published.addAndGet(records.size()));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        client.release.countDown();
+        journal.close();
+    }
+
+    @Test
+    void readyIsSentFirstWithTheOffsetTheStreamStartsAt() throws Exception {
+        append(3);
+        client.release.countDown();
+
+        broadcaster.subscribe(HOUSEHOLD, ChangeStreamBroadcaster.Topic.GROCERY);
+        append(2);
+
+        List<Event> events = client.awaitEvents(3);
+        assertEquals(new Event("ready", 3L), events.get(0));
+        assertEquals("change", events.get(1).name());
+        assertEquals(3L, ((ChangeNotification) events.get(1).data()).offset());
+        assertEquals(4L, ((ChangeNotification) events.get(2).data()).offset());
+    }
+
+    @Test
+    void aClientThatFallsBehindGetsOneResyncInsteadOfTheBacklog() throws Exception {
+        broadcaster.subscribe(HOUSEHOLD, ChangeStreamBroadcaster.Topic.GROCERY);
+        // The sender is stuck writing the ready event while ten changes come in
+        client.awaitSendAttempt();
+        append(10);
+
+        client.release.countDown();
+        List<Event> events = client.awaitEvents(2);
+        assertEquals(new Event("ready", 0L), events.get(0));
+        assertEquals(new Event("resync", Map.of("since", 0L)), events.get(1));
+
+        // After the resync the stream carries on with single changes
+        append(1);
+        Event next = client.awaitEvents(3).get(2);
+        assertEquals("change", next.name());
+        assertEquals(10L, ((ChangeNotification) next.data()).offset());
+    }
+
+    @Test
+    void changesOfOtherHouseholdsAndTopicsAreNotSent() throws Exception {
+        client.release.countDown();
+        broadcaster.subscribe(HOUSEHOLD, ChangeStreamBroadcaster.Topic.GROCERY);
+        journal.append(UUID.randomUUID(), ChangeRecord.EntityType.GROCERY_ITEM, UUID.randomUUID(),
+                ChangeRecord.Op.CREATE, 0);
+        journal.append(HOUSEHOLD, ChangeRecord.EntityType.CHORE, UUID.randomUUID(), ChangeRecord.Op.CREATE, 0);
+        append(1);
+        awaitPublished(3);
+
+        List<Event> events = client.awaitEvents(2);
+        assertEquals(2L, ((ChangeNotification) events.get(1).data()).offset());
+        Thread.sleep(50);
+        assertEquals(2, client.events.size());
+    }
+
+    @Test
+    void closingTheLastStreamOfAHouseholdDropsItsGroup() {
+        client.release.countDown();
+        broadcaster.subscribe(HOUSEHOLD, ChangeStreamBroadcaster.Topic.GROCERY);
+        broadcaster.subscribe(HOUSEHOLD, ChangeStreamBroadcaster.Topic.GROCERY);
+        assertEquals(1, broadcaster.getGroupCount());
+
+        client.completionCallbacks.getFirst().run();
+        assertEquals(1, broadcaster.getGroupCount());
+        // A callback that runs twice must not take the other stream with it
+        client.completionCallbacks.getFirst().run();
+        assertEquals(1, broadcaster.getSubscriberCount());
+
+        client.completionCallbacks.getLast().run();
+        assertEquals(0, broadcaster.getSubscriberCount());
+        assertEquals(0, broadcaster.getGroupCount());
+    }
+
+    // Appends grocery changes and waits until they have been handed to the broadcaster
+    private void append(int count) throws Exception {
+        int expected = published.get() + count;
+        for (int i = 0; i < count; i++) {
+            journal.append(HOUSEHOLD, ChangeRecord.EntityType.GROCERY_ITEM, UUID.randomUUID(),
+                    ChangeRecord.Op.UPDATE, i);
+        }
+        awaitPublished(expected);
+    }
+
+    private void awaitPublished(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (published.get() < count) {
+            assertTrue(System.nanoTime() < deadline, "Journal did not publish " + count + " records");
+            Thread.sleep(5);
+        }
+    }
+
+    private record Event(String name, Object data) {
+    }
+
+    // Records what would be written to the client, and blocks the first write until released
+    private static final class SlowClient extends SseEmitter {
+
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final CountDownLatch sendAttempted = new CountDownLatch(1);
+        private final List<Event> events = new CopyOnWriteArrayList<>();
+        // Only the MVC handler runs these, so tests run them by hand
+        private final List<Runnable> completionCallbacks = new CopyOnWriteArrayList<>();
+
+        @Override
+        public synchronized void onCompletion(Runnable callback) {
+            completionCallbacks.add(callback);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sendAttempted.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            Set<ResponseBodyEmitter.DataWithMediaType> parts = builder.build();
+            String name = null;
+            Object data = null;
+            for (ResponseBodyEmitter.DataWithMediaType part : parts) {
+                if (part.getData() instanceof String text) {
+                    int at = text.indexOf("event:");
+                    if (at >= 0) {
+                        name = text.substring(at + "event:".length(), text.indexOf('\n', at));
+                    }
+                } else {
+                    data = part.getData();
+                }
+            }
+            if (name != null) {
+                events.add(new Event(name, data));
+            }
+        }
+
+        void awaitSendAttempt() throws InterruptedException {
+            assertTrue(sendAttempted.await(5, TimeUnit.SECONDS), "Nothing was sent");
+        }
+
+        List<Event> awaitEvents(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (events.size() < count) {
+                assertTrue(System.nanoTime() < deadline, "Expected " + count + " events but got " + events);
+                Thread.sleep(5);
+            }
+            return List.copyOf(events);
+        }
+    }
+}
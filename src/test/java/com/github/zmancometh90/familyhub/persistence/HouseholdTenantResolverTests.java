@@ -0,0 +1,59 @@
+package com.github.zmancometh90.familyhub.persistence;
+
+import com.github.zmancometh90.familyhub.models.User;
+import com.github.zmancometh90.familyhub.security.HouseholdContext;
+import com.github.zmancometh90.familyhub.security.UserPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HouseholdTenantResolverTests {
+
+    private final HouseholdTenantResolver resolver = new HouseholdTenantResolver();
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void sessionsWithoutAHouseholdFailClosed() {
+        assertEquals(HouseholdTenantResolver.NO_HOUSEHOLD, resolver.resolveCurrentTenantIdentifier());
+    }
+
+    @Test
+    void rootIsOnlyGrantedInsideRunAsRoot() {
+        HouseholdContext.runAsRoot(() ->
+                assertEquals(HouseholdTenantResolver.ROOT_TENANT, resolver.resolveCurrentTenantIdentifier()));
+
+        assertEquals(HouseholdTenantResolver.NO_HOUSEHOLD, resolver.resolveCurrentTenantIdentifier());
+    }
+
+    @Test
+    void warmUpSessionsGetTheHouseholdTheyAreRunAsEvenInsideRoot() {
+        UUID householdId = UUID.randomUUID();
+
+        HouseholdContext.runAsRoot(() -> {
+            assertEquals(householdId, HouseholdContext.callAsHousehold(householdId, resolver::resolveCurrentTenantIdentifier));
+            assertEquals(HouseholdTenantResolver.ROOT_TENANT, resolver.resolveCurrentTenantIdentifier());
+        });
+        assertEquals(HouseholdTenantResolver.NO_HOUSEHOLD, resolver.resolveCurrentTenantIdentifier());
+    }
+
+    @Test
+    void signedInUsersGetTheirHousehold() {
+        UUID householdId = UUID.randomUUID();
+        User user = new User("dana", "secret", "Dana", User.Role.BASIC_USER);
+        user.setHouseholdId(householdId);
+        UserPrincipal principal = new UserPrincipal(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+        assertEquals(householdId, resolver.resolveCurrentTenantIdentifier());
+    }
+}
@@ -0,0 +1,86 @@
+package com.github.zmancometh90.familyhub.persistence;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JdbcPermitDataSourceTests {
+
+    private static final Duration TIMEOUT = Duration.ofMillis(100);
+
+    @Test
+    void closingAConnectionGivesItsPermitBackOnce() throws Exception {
+        JdbcPermitDataSource dataSource = new JdbcPermitDataSource(h2(), 2, TIMEOUT);
+
+        Connection first = dataSource.getConnection();
+        Connection second = onOtherThread(dataSource::getConnection);
+        assertEquals(0, dataSource.getAvailablePermits());
+
+        first.close();
+        // A second close must not hand out a permit that second still holds
+        first.close();
+        assertEquals(1, dataSource.getAvailablePermits());
+        second.close();
+        assertEquals(2, dataSource.getAvailablePermits());
+    }
+
+    @Test
+    void aFailedGetConnectionGivesItsPermitBack() {
+        JdbcPermitDataSource dataSource = new JdbcPermitDataSource(
+                new DriverManagerDataSource("jdbc:no-such-driver:permits"), 1, TIMEOUT);
+
+        assertThrows(SQLException.class, dataSource::getConnection);
+        assertThrows(SQLException.class, dataSource::getConnection);
+        assertEquals(1, dataSource.getAvailablePermits());
+    }
+
+    @Test
+    void aSecondConnectionOnTheSameThreadSharesItsPermit() throws Exception {
+        JdbcPermitDataSource dataSource = new JdbcPermitDataSource(h2(), 1, TIMEOUT);
+
+        Connection held = dataSource.getConnection();
+        Connection nested = dataSource.getConnection();
+        assertEquals(0, dataSource.getAvailablePermits());
+
+        // The permit stays with the thread until its last connection is closed
+        held.close();
+        assertThrows(SQLTransientConnectionException.class, () -> onOtherThread(dataSource::getConnection));
+        nested.close();
+        assertEquals(1, dataSource.getAvailablePermits());
+    }
+
+    @Test
+    void anotherThreadWaitsForAPermit() throws Exception {
+        JdbcPermitDataSource dataSource = new JdbcPermitDataSource(h2(), 1, TIMEOUT);
+
+        try (Connection held = dataSource.getConnection()) {
+            assertThrows(SQLTransientConnectionException.class, () -> onOtherThread(dataSource::getConnection));
+        }
+        onOtherThread(dataSource::getConnection).close();
+        assertEquals(1, dataSource.getAvailablePermits());
+    }
+
+    private static Connection onOtherThread(Callable<Connection> getConnection) throws Exception {
+        FutureTask<Connection> task = new FutureTask<>(getConnection);
+        Thread.ofVirtual().start(task);
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            throw (Exception) e.getCause();
+        }
+    }
+
+    private static DriverManagerDataSource h2() {
+        return new DriverManagerDataSource("jdbc:h2:mem:jdbc-permits;DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
@@ -0,0 +1,120 @@
+package com.github.zmancometh90.familyhub.persistence;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Routes between two separate in-memory H2 databases, each holding a marker row that says
+ * which one served the query.
+ */
+class ReadWriteRoutingDataSourceTests {
+
+    private static final String SERVICE_PACKAGE = "com.github.zmancometh90.familyhub.service.";
+
+    private JdbcTemplate jdbcTemplate;
+    private JdbcTemplate primaryJdbc;
+    private JdbcTemplate replicaJdbc;
+    private TransactionTemplate writeTransaction;
+    private TransactionTemplate readOnlyTransaction;
+    private TransactionTemplate repositoryReadTransaction;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("routing-primary");
+        DataSource replica = database("routing-replica");
+        primaryJdbc = new JdbcTemplate(primary);
+        replicaJdbc = new JdbcTemplate(replica);
+
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, replica, SERVICE_PACKAGE,
+                Duration.ofMinutes(1));
+        routing.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        writeTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        readOnlyTransaction.setName(SERVICE_PACKAGE + "ItemService.getItem");
+        repositoryReadTransaction = new TransactionTemplate(transactionManager);
+        repositoryReadTransaction.setReadOnly(true);
+        repositoryReadTransaction.setName("org.springframework.data.jpa.repository.support.SimpleJpaRepository.findById");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplica() {
+        assertEquals("routing-replica", readOnlyTransaction.execute(status -> servedBy()));
+    }
+
+    @Test
+    void writeTransactionsUseThePrimary() {
+        assertEquals("routing-primary", writeTransaction.execute(status -> servedBy()));
+    }
+
+    @Test
+    void readsStickToThePrimaryAfterTheUsersOwnWrite() {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("alice", null, "ROLE_BASIC_USER"));
+        writeTransaction.execute(status -> servedBy());
+
+        assertEquals("routing-primary", readOnlyTransaction.execute(status -> servedBy()));
+
+        // Other users are unaffected by alice's write
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("bob", null, "ROLE_BASIC_USER"));
+        assertEquals("routing-replica", readOnlyTransaction.execute(status -> servedBy()));
+    }
+
+    @Test
+    void repositoryReadsOutsideAServiceTransactionUseThePrimary() {
+        assertEquals("routing-primary", repositoryReadTransaction.execute(status -> servedBy()));
+    }
+
+    @Test
+    void readModifyWriteOutsideAServiceTransactionDoesNotSaveAStaleReplicaRow() {
+        // The replica lags: it still has the quantity from before the last write
+        primaryJdbc.update("UPDATE routing_item SET quantity = 5");
+        replicaJdbc.update("UPDATE routing_item SET quantity = 1");
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("carol", null, "ROLE_BASIC_USER"));
+
+        // Shaped like a non-transactional service update: findById in the repository's own
+        // read-only transaction, then save in a separate write transaction
+        Integer quantity = repositoryReadTransaction.execute(status ->
+                jdbcTemplate.queryForObject("SELECT quantity FROM routing_item", Integer.class));
+        writeTransaction.execute(status -> jdbcTemplate.update("UPDATE routing_item SET quantity = ?", quantity + 1));
+
+        assertEquals(6, primaryJdbc.queryForObject("SELECT quantity FROM routing_item", Integer.class));
+    }
+
+    private String servedBy() {
+        return jdbcTemplate.queryForObject("SELECT name FROM routing_marker", String.class);
+    }
+
+    private static DataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS routing_marker (name VARCHAR(64))");
+        jdbc.update("DELETE FROM routing_marker");
+        jdbc.update("INSERT INTO routing_marker (name) VALUES (?)", name);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS routing_item (quantity INT)");
+        jdbc.update("DELETE FROM routing_item");
+        jdbc.update("INSERT INTO routing_item (quantity) VALUES (0)");
+        return dataSource;
+    }
+}
@@ -0,0 +1,69 @@
+package com.github.zmancometh90.familyhub.repository;
+
+import com.github.zmancometh90.familyhub.models.GroceryItem;
+import com.github.zmancometh90.familyhub.models.User;
+import com.github.zmancometh90.familyhub.security.HouseholdContext;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class BatchInsertTests {
+
+    private static final int ROWS = 1_000;
+
+    @Autowired
+    private GroceryItemRepository groceryItemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}")
+    private int batchSize;
+
+    @Test
+    void bulkGroceryInsertIsSentAsJdbcBatches() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // No user is signed in, so the test acts as the root tenant and rolls back its rows
+        HouseholdContext.runAsRoot(() -> transactionTemplate.executeWithoutResult(status -> {
+            User admin = userRepository.findByUsername("admin").orElseThrow();
+            List<GroceryItem> items = new ArrayList<>();
+            for (int i = 0; i < ROWS; i++) {
+                items.add(new GroceryItem("Item " + i, "Bulk", 1, admin));
+            }
+
+            statistics.clear();
+            groceryItemRepository.saveAll(items);
+            entityManager.flush();
+            status.setRollbackOnly();
+        }));
+
+        assertEquals(ROWS, statistics.getEntityInsertCount());
+        // One prepared statement per JDBC batch, not one per row
+        long maxStatements = (ROWS + batchSize - 1) / batchSize;
+        assertTrue(statistics.getPrepareStatementCount() <= maxStatements,
+                "Expected at most " + maxStatements + " statements but got " + statistics.getPrepareStatementCount());
+    }
+}
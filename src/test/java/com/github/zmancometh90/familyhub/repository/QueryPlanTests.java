@@ -0,0 +1,184 @@
+package com.github.zmancometh90.familyhub.repository;
+
+import com.github.zmancometh90.familyhub.diagnostics.QueryCounter;
+import com.github.zmancometh90.familyhub.models.Chore;
+import com.github.zmancometh90.familyhub.models.Event;
+import com.github.zmancometh90.familyhub.models.User;
+import com.github.zmancometh90.familyhub.security.HouseholdContext;
+import com.github.zmancometh90.familyhub.security.UserPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Calls the selective repository queries, captures the SQL Hibernate sends through
+ * {@link QueryCounter}, and fails if H2 plans a table scan for any of it, i.e. if a migration
+ * dropped or reshaped the index a query depends on. Tenant-scoped queries run as a household
+ * user, so the plan includes the household predicate Hibernate adds; the archiver, the purge,
+ * login and the cache loaders run as root, as they do in the application. Substring searches are
+ * left out since no B-tree index helps them.
+ *
+ * <p>Captured statements are normalized, so literals are placeholders too. All placeholders are
+ * bound to null; H2 picks the plan when the statement is prepared, before the values are known.
+ */
+@SpringBootTest
+class QueryPlanTests {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 1, 1);
+    private static final LocalDateTime TIME = DAY.atStartOfDay();
+
+    @Autowired
+    private ChoreRepository choreRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private GroceryItemRepository groceryItemRepository;
+
+    @Autowired
+    private FavoriteItemRepository favoriteItemRepository;
+
+    @Autowired
+    private ArchivedGroceryItemRepository archivedGroceryItemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User admin;
+
+    @BeforeEach
+    void loadAdmin() {
+        admin = HouseholdContext.callAsRoot(() -> userRepository.findByUsername("admin").orElseThrow());
+    }
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    static Stream<Arguments> repositoryQueries() {
+        return Stream.of(
+                household("ChoreRepository.findByAssignedTo", t -> t.choreRepository.findByAssignedTo(t.admin)),
+                household("ChoreRepository.findByAssignedToAndStatus",
+                        t -> t.choreRepository.findByAssignedToAndStatus(t.admin, Chore.ChoreStatus.PENDING)),
+                household("ChoreRepository.findByAssignedToAndDueDateBetween",
+                        t -> t.choreRepository.findByAssignedToAndDueDateBetween(t.admin, DAY, DAY.plusDays(30))),
+                household("ChoreRepository.findByCreatedBy", t -> t.choreRepository.findByCreatedBy(t.admin)),
+                household("ChoreRepository.findByStatus", t -> t.choreRepository.findByStatus(Chore.ChoreStatus.PENDING)),
+                household("ChoreRepository.findByStatusIn", t -> t.choreRepository.findByStatusIn(
+                        Set.of(Chore.ChoreStatus.PENDING, Chore.ChoreStatus.IN_PROGRESS, Chore.ChoreStatus.OVERDUE))),
+                household("ChoreRepository.findByDueDateBetween",
+                        t -> t.choreRepository.findByDueDateBetween(DAY, DAY.plusDays(30))),
+                household("ChoreRepository.findOverdueChores", t -> t.choreRepository.findOverdueChores(DAY)),
+                household("ChoreRepository.findByPriority", t -> t.choreRepository.findByPriority(Chore.ChorePriority.HIGH)),
+                household("ChoreRepository.findByChoreType", t -> t.choreRepository.findByChoreType(Chore.ChoreType.COOKING)),
+                household("EventRepository.findByCreatedBy", t -> t.eventRepository.findByCreatedBy(t.admin)),
+                household("EventRepository.findByStartTimeBetween",
+                        t -> t.eventRepository.findByStartTimeBetween(TIME, TIME.plusDays(30))),
+                household("EventRepository.findByEventType", t -> t.eventRepository.findByEventType(Event.EventType.BIRTHDAY)),
+                household("EventRepository.findByStatus", t -> t.eventRepository.findByStatus(Event.EventStatus.PLANNED)),
+                household("EventRepository.findByIsRecurringTrue", t -> t.eventRepository.findByIsRecurringTrue()),
+                household("GroceryItemRepository.findByIsCompletedFalseOrderByCreatedAtDesc",
+                        t -> t.groceryItemRepository.findByIsCompletedFalseOrderByCreatedAtDesc()),
+                household("GroceryItemRepository.findByIsCompletedTrueOrderByCompletedAtDesc",
+                        t -> t.groceryItemRepository.findByIsCompletedTrueOrderByCompletedAtDesc()),
+                // Locks the rows, so it needs a transaction
+                root("GroceryItemRepository.findByIsCompletedTrueAndCompletedAtBefore",
+                        t -> t.transactionTemplate.executeWithoutResult(status ->
+                                t.groceryItemRepository.findByIsCompletedTrueAndCompletedAtBefore(TIME, PageRequest.of(0, 500)))),
+                household("GroceryItemRepository.findByAddedBy", t -> t.groceryItemRepository.findByAddedBy(t.admin)),
+                household("GroceryItemRepository.findByCompletedBy", t -> t.groceryItemRepository.findByCompletedBy(t.admin)),
+                household("GroceryItemRepository.findByCategory", t -> t.groceryItemRepository.findByCategory("Produce")),
+                household("GroceryItemRepository.findByCategoryAndIsCompleted",
+                        t -> t.groceryItemRepository.findByCategoryAndIsCompleted("Produce", false)),
+                household("GroceryItemRepository.findByCompletedAtBetween",
+                        t -> t.groceryItemRepository.findByCompletedAtBetween(TIME, TIME.plusDays(30))),
+                household("FavoriteItemRepository.findByUserOrderByNameAsc",
+                        t -> t.favoriteItemRepository.findByUserOrderByNameAsc(t.admin)),
+                household("FavoriteItemRepository.findByUserAndCategoryOrderByNameAsc",
+                        t -> t.favoriteItemRepository.findByUserAndCategoryOrderByNameAsc(t.admin, "Produce")),
+                root("GroceryItemRepository.findCategoriesByHouseholdId",
+                        t -> t.groceryItemRepository.findCategoriesByHouseholdId(t.admin.getHouseholdId())),
+                root("GroceryItemRepository.findByHouseholdIdAndIsCompletedTrueOrderByCompletedAtAsc",
+                        t -> t.groceryItemRepository.findByHouseholdIdAndIsCompletedTrueOrderByCompletedAtAsc(t.admin.getHouseholdId())),
+                root("FavoriteItemRepository.findCategoriesByHouseholdId",
+                        t -> t.favoriteItemRepository.findCategoriesByHouseholdId(t.admin.getHouseholdId())),
+                root("ArchivedGroceryItemRepository.findByHouseholdIdOrderByCompletedAtAsc",
+                        t -> t.archivedGroceryItemRepository.findByHouseholdIdOrderByCompletedAtAsc(
+                                t.admin.getHouseholdId(), PageRequest.of(0, 1000))),
+                root("ChoreRepository.findPurgeableIds", t -> t.choreRepository.findPurgeableIds(TIME, 500)),
+                root("EventRepository.findPurgeableIds", t -> t.eventRepository.findPurgeableIds(TIME, 500)),
+                root("GroceryItemRepository.findPurgeableIds", t -> t.groceryItemRepository.findPurgeableIds(TIME, 500)),
+                // A name that is not in the query cache, so the statement reaches the database
+                root("UserRepository.findByUsername", t -> t.userRepository.findByUsername("query-plan-nobody")),
+                household("UserRepository.findByName", t -> t.userRepository.findByName("Admin"))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryQueries")
+    void repositoryQueryUsesAnIndex(String query, boolean root, RepositoryCall call) {
+        List<String> statements = capture(root, call);
+        assertFalse(statements.isEmpty(), () -> query + " did not reach the database");
+
+        for (String sql : statements) {
+            Object[] nulls = new Object[(int) sql.chars().filter(c -> c == '?').count()];
+            String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, nulls);
+            assertFalse(plan.contains(".tableScan"), () -> query + " falls back to a table scan:\n" + plan);
+        }
+    }
+
+    private List<String> capture(boolean root, RepositoryCall call) {
+        try (QueryCounter counter = QueryCounter.open()) {
+            if (root) {
+                HouseholdContext.runAsRoot(() -> call.run(this));
+            } else {
+                UserPrincipal principal = new UserPrincipal(admin);
+                SecurityContextHolder.getContext().setAuthentication(
+                        new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+                call.run(this);
+            }
+            return counter.repeated(1).keySet().stream()
+                    .filter(sql -> sql.toLowerCase(Locale.ROOT).startsWith("select"))
+                    .toList();
+        }
+    }
+
+    private static Arguments household(String query, RepositoryCall call) {
+        return Arguments.of(query, false, call);
+    }
+
+    private static Arguments root(String query, RepositoryCall call) {
+        return Arguments.of(query, true, call);
+    }
+
+    @FunctionalInterface
+    interface RepositoryCall {
+        void run(QueryPlanTests test);
+    }
+}
@@ -0,0 +1,248 @@
+package com.github.zmancometh90.familyhub.service;
+
+import com.github.zmancometh90.familyhub.cache.GroceryDuplicateIndex;
+import com.github.zmancometh90.familyhub.journal.ChangeJournal;
+import com.github.zmancometh90.familyhub.journal.ChangeRecord;
+import com.github.zmancometh90.familyhub.models.GroceryItem;
+import com.github.zmancometh90.familyhub.models.GroceryItemKey;
+import com.github.zmancometh90.familyhub.models.GroceryOperation;
+import com.github.zmancometh90.familyhub.models.User;
+import com.github.zmancometh90.familyhub.repository.GroceryItemRepository;
+import com.github.zmancometh90.familyhub.repository.UserRepository;
+import com.github.zmancometh90.familyhub.security.HouseholdContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// A long flush interval keeps the scheduler out of the way; the tests flush by hand
+@SpringBootTest(properties = "familyhub.grocery.live.flush-interval=PT1H")
+class GroceryOperationBatcherTests {
+
+    private static final String CATEGORY = "Batcher test";
+
+    @Autowired
+    private GroceryOperationBatcher batcher;
+
+    @Autowired
+    private GroceryItemRepository groceryItemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private GroceryDuplicateIndex groceryDuplicateIndex;
+
+    @Autowired
+    private ChangeJournal changeJournal;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<GroceryOperationBatcher.FlushResult> results = new ArrayList<>();
+    private User admin;
+
+    @BeforeEach
+    void setUp() {
+        admin = HouseholdContext.callAsRoot(() -> userRepository.findByUsername("admin").orElseThrow());
+        batcher.addListener(result -> {
+            synchronized (results) {
+                results.add(result);
+            }
+        });
+    }
+
+    @AfterEach
+    void removeTestItems() {
+        jdbcTemplate.update("DELETE FROM grocery_items WHERE category = ?", CATEGORY);
+    }
+
+    @Test
+    void operationsOnOneItemAreMergedBeforeTheyAreWritten() {
+        GroceryItem item = seed("Milk", 2);
+
+        submit(admin.getHouseholdId(), new GroceryOperation("1", GroceryOperation.Type.INCREMENT, item.getId(), 3, null, null));
+        submit(admin.getHouseholdId(), new GroceryOperation("2", GroceryOperation.Type.RENAME, item.getId(), null, null, "Oat milk"));
+        submit(admin.getHouseholdId(), new GroceryOperation("3", GroceryOperation.Type.SET_COMPLETED, item.getId(), null, true, null));
+        submit(admin.getHouseholdId(), new GroceryOperation("4", GroceryOperation.Type.INCREMENT, item.getId(), -1, null, null));
+        submit(admin.getHouseholdId(), new GroceryOperation("5", GroceryOperation.Type.RENAME, item.getId(), null, null, " Soy milk "));
+        submit(admin.getHouseholdId(), new GroceryOperation("6", GroceryOperation.Type.SET_COMPLETED, item.getId(), null, false, null));
+        batcher.flush();
+
+        GroceryItem stored = reload(item);
+        assertEquals(4, stored.getQuantity());
+        assertEquals("Soy milk", stored.getName());
+        assertFalse(stored.isCompleted());
+        // All six operations were folded into a single write
+        assertEquals(item.getVersion() + 1, stored.getVersion());
+
+        GroceryOperationBatcher.FlushResult result = resultFor(admin.getHouseholdId());
+        assertEquals(1, result.items().size());
+        assertEquals(List.of("1", "2", "3", "4", "5", "6"),
+                result.acknowledged().stream().map(GroceryOperationBatcher.Acknowledgement::opId).toList());
+        assertTrue(result.rejected().isEmpty());
+    }
+
+    @Test
+    void quantityDoesNotDropBelowOne() {
+        GroceryItem item = seed("Eggs", 3);
+
+        submit(admin.getHouseholdId(), new GroceryOperation("1", GroceryOperation.Type.INCREMENT, item.getId(), -5, null, null));
+        batcher.flush();
+
+        assertEquals(1, reload(item).getQuantity());
+    }
+
+    @Test
+    void incrementsOutsideTheAllowedRangeAreRejected() {
+        GroceryItem item = seed("Flour", 1);
+
+        assertThrows(IllegalArgumentException.class, () -> submit(admin.getHouseholdId(), new GroceryOperation("1",
+                GroceryOperation.Type.INCREMENT, item.getId(), Integer.MIN_VALUE, null, null)));
+        assertThrows(IllegalArgumentException.class, () -> submit(admin.getHouseholdId(), new GroceryOperation("2",
+                GroceryOperation.Type.INCREMENT, item.getId(), GroceryOperationBatcher.MAX_DELTA + 1, null, null)));
+    }
+
+    @Test
+    void manyLargeIncrementsSaturateInsteadOfWrapping() {
+        GroceryItem item = seed("Rice", 1);
+
+        for (int i = 0; i < 300_000; i++) {
+            submit(admin.getHouseholdId(), new GroceryOperation(null, GroceryOperation.Type.INCREMENT, item.getId(),
+                    GroceryOperationBatcher.MAX_DELTA, null, null));
+        }
+        batcher.flush();
+
+        assertEquals(Integer.MAX_VALUE, reload(item).getQuantity());
+    }
+
+    @Test
+    void puttingAnItemBackThatWasAddedAgainMergesTheTwo() throws Exception {
+        GroceryItem active = seed("Yogurt", 2);
+        groceryDuplicateIndex.put(admin.getHouseholdId(), GroceryItemKey.of(active), active.getId());
+        GroceryItem ticked = seedCompleted("yogurt ", 3);
+        long from = changeJournal.getCommittedOffset();
+
+        submit(admin.getHouseholdId(), new GroceryOperation("1", GroceryOperation.Type.SET_COMPLETED, ticked.getId(), null, false, null));
+        batcher.flush();
+
+        assertEquals(5, reload(active).getQuantity());
+        assertTrue(HouseholdContext.callAsRoot(() -> groceryItemRepository.findById(ticked.getId())).isEmpty());
+        assertEquals(active.getId(), groceryDuplicateIndex.find(admin.getHouseholdId(), GroceryItemKey.of(active)));
+
+        GroceryOperationBatcher.FlushResult result = resultFor(admin.getHouseholdId());
+        assertEquals(List.of(active.getId()), result.items().stream().map(GroceryItem::getId).toList());
+        assertEquals(List.of(ticked.getId()), result.deleted());
+        assertEquals(List.of("1"), result.acknowledged().stream()
+                .map(GroceryOperationBatcher.Acknowledgement::opId).toList());
+
+        ChangeRecord delete = awaitJournalRecord(ticked.getId(), ChangeRecord.Op.DELETE, from);
+        long storedVersion = jdbcTemplate.queryForObject("SELECT version FROM grocery_items WHERE id = ?", Long.class,
+                ticked.getId());
+        assertEquals(storedVersion, delete.version());
+    }
+
+    @Test
+    void aRestEditMadeAfterTheOperationWasReceivedWins() {
+        GroceryItem item = seed("Bread", 1);
+
+        submit(admin.getHouseholdId(), new GroceryOperation("1", GroceryOperation.Type.RENAME, item.getId(), null, null, "Rye bread"));
+        // Someone saves the item over REST before the flush
+        HouseholdContext.runAsRoot(() -> {
+            GroceryItem current = groceryItemRepository.findById(item.getId()).orElseThrow();
+            current.setName("Sourdough");
+            current.setNameUpdatedAt(LocalDateTime.now().plusSeconds(1));
+            groceryItemRepository.save(current);
+        });
+        batcher.flush();
+
+        assertEquals("Sourdough", reload(item).getName());
+        // The operation was still applied, it just lost
+        assertEquals(List.of("1"), resultFor(admin.getHouseholdId()).acknowledged().stream()
+                .map(GroceryOperationBatcher.Acknowledgement::opId).toList());
+    }
+
+    @Test
+    void operationsOnAnotherHouseholdsItemAreRejected() {
+        GroceryItem item = seed("Butter", 1);
+        UUID otherHousehold = UUID.randomUUID();
+
+        submit(otherHousehold, new GroceryOperation("1", GroceryOperation.Type.INCREMENT, item.getId(), 4, null, null));
+        batcher.flush();
+
+        assertEquals(1, reload(item).getQuantity());
+        GroceryOperationBatcher.FlushResult result = resultFor(otherHousehold);
+        assertTrue(result.items().isEmpty());
+        assertEquals(1, result.rejected().size());
+        assertEquals("1", result.rejected().getFirst().opId());
+    }
+
+    @Test
+    void theJournalRecordsTheSubmittingUser() throws Exception {
+        GroceryItem item = seed("Cheese", 1);
+        long from = changeJournal.getCommittedOffset();
+
+        submit(admin.getHouseholdId(), new GroceryOperation("1", GroceryOperation.Type.INCREMENT, item.getId(), 1, null, null));
+        batcher.flush();
+
+        ChangeRecord update = awaitJournalRecord(item.getId(), ChangeRecord.Op.UPDATE, from);
+        assertEquals(ChangeRecord.Op.UPDATE, update.op());
+        assertEquals(admin.getId(), update.actorId());
+    }
+
+    private void submit(UUID householdId, GroceryOperation operation) {
+        batcher.submit(householdId, admin.getId(), "session", operation);
+    }
+
+    private GroceryItem seed(String name, int quantity) {
+        return HouseholdContext.callAsRoot(() -> groceryItemRepository.save(new GroceryItem(name, CATEGORY, quantity, admin)));
+    }
+
+    private GroceryItem seedCompleted(String name, int quantity) {
+        GroceryItem item = new GroceryItem(name, CATEGORY, quantity, admin);
+        item.setCompleted(true);
+        item.setCompletedBy(admin);
+        item.setCompletedAt(LocalDateTime.now().minusDays(1));
+        item.setCompletedUpdatedAt(item.getCompletedAt());
+        return HouseholdContext.callAsRoot(() -> groceryItemRepository.save(item));
+    }
+
+    private GroceryItem reload(GroceryItem item) {
+        return HouseholdContext.callAsRoot(() -> groceryItemRepository.findById(item.getId()).orElseThrow());
+    }
+
+    private GroceryOperationBatcher.FlushResult resultFor(UUID householdId) {
+        synchronized (results) {
+            return results.stream()
+                    .filter(result -> result.householdId().equals(householdId))
+                    .reduce((first, second) -> second)
+                    .orElseThrow();
+        }
+    }
+
+    private ChangeRecord awaitJournalRecord(UUID entityId, ChangeRecord.Op op, long from) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            for (ChangeRecord record : changeJournal.read(admin.getHouseholdId(), from, 1000, 100_000).changes()) {
+                if (record.entityId().equals(entityId) && record.op() == op) {
+                    return record;
+                }
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("No journal record for " + entityId);
+    }
+}
@@ -0,0 +1,127 @@
+package com.github.zmancometh90.familyhub.service;
+
+import com.github.zmancometh90.familyhub.models.GroceryItem;
+import com.github.zmancometh90.familyhub.models.GroceryItemDTO;
+import com.github.zmancometh90.familyhub.models.GroceryItemRequest;
+import com.github.zmancometh90.familyhub.models.User;
+import com.github.zmancometh90.familyhub.repository.GroceryItemRepository;
+import com.github.zmancometh90.familyhub.repository.UserRepository;
+import com.github.zmancometh90.familyhub.security.HouseholdContext;
+import com.github.zmancometh90.familyhub.security.UserPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class GroceryServiceConcurrencyTests {
+
+    private static final String CATEGORY = "Concurrency test";
+
+    @Autowired
+    private GroceryService groceryService;
+
+    @Autowired
+    private GroceryItemRepository groceryItemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User admin;
+
+    @BeforeEach
+    void loadAdmin() {
+        admin = HouseholdContext.callAsRoot(() -> userRepository.findByUsername("admin").orElseThrow());
+    }
+
+    @AfterEach
+    void removeTestItems() {
+        SecurityContextHolder.clearContext();
+        // Plain JDBC so the soft-deleted rows go too
+        jdbcTemplate.update("DELETE FROM grocery_items WHERE category = ?", CATEGORY);
+    }
+
+    @Test
+    void concurrentAddsOfTheSameItemEndUpAsOneRow() throws Exception {
+        int threads = 8;
+        int addsPerThread = 10;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            String name = t % 2 == 0 ? "Milk" : "milk ";
+            futures.add(executor.submit(asAdmin(() -> {
+                start.await();
+                for (int i = 0; i < addsPerThread; i++) {
+                    groceryService.createGroceryItem(new GroceryItemRequest(name, null, CATEGORY, 2, null), admin.getId());
+                }
+                return null;
+            })));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        List<GroceryItem> items = activeTestItems();
+        assertEquals(1, items.size());
+        assertEquals(threads * addsPerThread * 2, items.getFirst().getQuantity());
+    }
+
+    @Test
+    void uncompletingAnItemThatWasAddedAgainMergesTheTwo() throws Exception {
+        asAdmin(() -> {
+            GroceryItemDTO first = groceryService.createGroceryItem(
+                    new GroceryItemRequest("Eggs", null, CATEGORY, 2, null), admin.getId());
+            groceryService.completeGroceryItem(first.getId(), admin.getId());
+            GroceryItemDTO second = groceryService.createGroceryItem(
+                    new GroceryItemRequest("eggs", null, CATEGORY, 3, null), admin.getId());
+
+            GroceryItemDTO merged = groceryService.uncompleteGroceryItem(first.getId());
+
+            assertEquals(second.getId(), merged.getId());
+            assertEquals(5, merged.getQuantity());
+            assertTrue(groceryItemRepository.findById(first.getId()).isEmpty());
+            return null;
+        }).call();
+
+        assertEquals(1, activeTestItems().size());
+    }
+
+    private List<GroceryItem> activeTestItems() {
+        return HouseholdContext.callAsRoot(() -> groceryItemRepository.findByCategoryAndIsCompleted(CATEGORY, false));
+    }
+
+    private <T> Callable<T> asAdmin(Callable<T> task) {
+        return () -> {
+            UserPrincipal principal = new UserPrincipal(admin);
+            SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+            try {
+                return task.call();
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+        };
+    }
+}
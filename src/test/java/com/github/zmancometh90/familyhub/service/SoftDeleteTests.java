@@ -0,0 +1,113 @@
+package com.github.zmancometh90.familyhub.service;
+
+import com.github.zmancometh90.familyhub.journal.ChangeJournal;
+import com.github.zmancometh90.familyhub.journal.ChangeRecord;
+import com.github.zmancometh90.familyhub.models.Chore;
+import com.github.zmancometh90.familyhub.models.GroceryItem;
+import com.github.zmancometh90.familyhub.models.User;
+import com.github.zmancometh90.familyhub.models.UserDTO;
+import com.github.zmancometh90.familyhub.models.UserRequest;
+import com.github.zmancometh90.familyhub.repository.ChoreRepository;
+import com.github.zmancometh90.familyhub.repository.GroceryItemRepository;
+import com.github.zmancometh90.familyhub.repository.UserRepository;
+import com.github.zmancometh90.familyhub.security.HouseholdContext;
+import com.github.zmancometh90.familyhub.security.UserPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class SoftDeleteTests {
+
+    private static final String CATEGORY = "Soft delete test";
+
+    @Autowired
+    private GroceryService groceryService;
+
+    @Autowired
+    private ChoreService choreService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private GroceryItemRepository groceryItemRepository;
+
+    @Autowired
+    private ChoreRepository choreRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ChangeJournal changeJournal;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User admin;
+
+    @BeforeEach
+    void signInAsAdmin() {
+        admin = HouseholdContext.callAsRoot(() -> userRepository.findByUsername("admin").orElseThrow());
+        UserPrincipal principal = new UserPrincipal(admin);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @AfterEach
+    void removeTestRows() {
+        SecurityContextHolder.clearContext();
+        // Plain JDBC so the soft-deleted rows go too
+        jdbcTemplate.update("DELETE FROM grocery_items WHERE category = ?", CATEGORY);
+    }
+
+    @Test
+    void theJournalRecordsTheVersionTheDeleteWrote() throws Exception {
+        GroceryItem item = groceryItemRepository.save(new GroceryItem("Flour", CATEGORY, 1, admin));
+        long from = changeJournal.getCommittedOffset();
+
+        groceryService.deleteGroceryItem(item.getId());
+
+        Long stored = jdbcTemplate.queryForObject("SELECT version FROM grocery_items WHERE id = ?", Long.class, item.getId());
+        assertEquals(item.getVersion() + 1, stored);
+        assertEquals(stored, awaitDelete(item.getId(), from).version());
+    }
+
+    @Test
+    void aUserWhoseChoresWereDeletedCanBeDeleted() {
+        UserDTO helper = userService.createUser(new UserRequest("soft-delete-helper", "password", "Helper", User.Role.BASIC_USER));
+        User user = userRepository.findById(helper.getId()).orElseThrow();
+        Chore chore = choreRepository.save(new Chore("Sweep", null, user));
+        assertTrue(choreService.deleteChore(chore.getId()));
+
+        userService.deleteUser(helper.getId());
+
+        assertTrue(userRepository.findById(helper.getId()).isEmpty());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM chores WHERE id = ?", Integer.class, chore.getId()));
+    }
+
+    private ChangeRecord awaitDelete(UUID entityId, long from) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            for (ChangeRecord record : changeJournal.read(admin.getHouseholdId(), from, 1000, 100_000).changes()) {
+                if (record.entityId().equals(entityId) && record.op() == ChangeRecord.Op.DELETE) {
+                    return record;
+                }
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("No journal record for " + entityId);
+    }
+}